@@ -0,0 +1,60 @@
+#!/bin/sh
+# Builds the JMH benchmarks (with the program's sources) into bench-out and runs them
+#
+# Usage: JAVAFX_LIB=<javafx sdk>/lib bench/bench.sh build
+#        JAVAFX_LIB=<javafx sdk>/lib bench/bench.sh run [results file] [benchmark name regex]
+#
+# The JMH jars are downloaded into bench/lib, unless JMH_LIB points at a folder holding them
+set -e
+
+cd "$(dirname "$0")/.."
+
+JMH_VERSION=1.37
+JMH_LIB=${JMH_LIB:-bench/lib}
+MAVEN=https://repo1.maven.org/maven2
+
+if [ -z "$JAVAFX_LIB" ] || [ ! -d "$JAVAFX_LIB" ]; then
+	echo "JAVAFX_LIB must point at the lib folder of the JavaFX SDK" >&2
+	exit 1
+fi
+
+build() {
+	mkdir -p "$JMH_LIB"
+	for jar in \
+		org/openjdk/jmh/jmh-core/$JMH_VERSION/jmh-core-$JMH_VERSION.jar \
+		org/openjdk/jmh/jmh-generator-annprocess/$JMH_VERSION/jmh-generator-annprocess-$JMH_VERSION.jar \
+		net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar \
+		org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar; do
+		file="$JMH_LIB/$(basename "$jar")"
+		if [ ! -f "$file" ]; then
+			echo "Downloading $(basename "$jar")"
+			curl -fsSL -o "$file.part" "$MAVEN/$jar"
+			mv "$file.part" "$file"
+		fi
+	done
+
+	# The annotation processor generates the benchmark list next to the classes
+	rm -rf bench-out
+	mkdir bench-out
+	javac -encoding UTF-8 -cp "$(classpath)" -processorpath "$(classpath)" -d bench-out \
+		$(find src bench -name "*.java")
+}
+
+classpath() {
+	ls "$JAVAFX_LIB"/*.jar "$JMH_LIB"/*.jar | tr '\n' ':'
+}
+
+case "$1" in
+build)
+	build
+	;;
+run)
+	shift
+	build
+	java -cp "bench-out:$(classpath)" bench.BenchmarkMain "$@"
+	;;
+*)
+	echo "Usage: bench/bench.sh build | run [results file] [benchmark name regex]" >&2
+	exit 1
+	;;
+esac
@@ -0,0 +1,29 @@
+package bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark and writes the results as JSON, so the results of two
+ * builds can be diffed
+ *
+ * Usage: BenchmarkMain [results file] [benchmark name regex]
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws RunnerException {
+		String results = args.length > 0 ? args[0] : "bench-results.json";
+		String include = args.length > 1 ? args[1] : "bench\\..*";
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.JSON)
+				.result(results)
+				.build();
+
+		new Runner(options).run();
+	}
+}
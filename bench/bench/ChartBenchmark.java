@@ -0,0 +1,59 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.ExerciseChart;
+import model.TrackerEngine;
+
+/**
+ * Exercise chart of the exercises tab for the latest year and for the whole
+ * history, built the way the tab builds it: copied out of the engine and
+ * reduced to the default budget (axis days, step rounding and downsampling)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChartBenchmark {
+
+	@Param({ "1", "5", "20" })
+	public int years;
+
+	private TrackerEngine engine;
+	private LocalDate end;
+
+	@Setup
+	public void setup() {
+		engine = Datasets.engine(years);
+		end = Datasets.START.plusYears(years).minusDays(1);
+	}
+
+	private ExerciseChart build(LocalDate start) {
+		return engine.exerciseChart(start.toEpochDay(), end.toEpochDay(), TrackerEngine.DEFAULT_BUDGET).build();
+	}
+
+	@Benchmark
+	public ExerciseChart lastYear() {
+		return build(end.minusYears(1).plusDays(1));
+	}
+
+	@Benchmark
+	public ExerciseChart allTime() {
+		return build(Datasets.START);
+	}
+}
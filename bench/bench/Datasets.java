@@ -0,0 +1,105 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Day;
+import model.DayStore;
+import model.Exercise;
+import model.Food;
+import model.FoodCatalog;
+import model.TrackerEngine;
+
+/**
+ * Synthetic data shared by the benchmarks, always generated from the same seed
+ * so runs can be compared
+ */
+public class Datasets {
+
+	public static final LocalDate START = LocalDate.parse("2000-01-01");
+
+	private static final String[] FOODS = { "Whole Milk", "Protein Powder", "White Rice", "Semi Skimmed Milk",
+			"Chicken Breast", "Brown Rice", "Oats", "Banana", "Peanut Butter", "Eggs" };
+	private static final String[] EXERCISES = { "Bench Press", "Squat", "Deadlift", "Overhead Press", "Barbell Row" };
+	private static final String[] WORDS = { "organic", "whole", "semi", "skimmed", "milk", "rice", "brown", "white",
+			"chicken", "beef", "oat", "bar", "protein", "chocolate", "vanilla", "greek", "yogurt", "bread", "cheese",
+			"apple" };
+
+	private Datasets() {
+
+	}
+
+	/**
+	 * A DayStore holding years of daily logs: 3 foods and 2 exercises every day
+	 *
+	 * @param years
+	 * @return
+	 */
+	public static DayStore days(int years) {
+		DayStore store = new DayStore();
+		fill(store, years);
+		return store;
+	}
+
+	/**
+	 * An engine holding the same days as days(years), with its indexes built
+	 *
+	 * @param years
+	 * @return
+	 */
+	public static TrackerEngine engine(int years) {
+		TrackerEngine engine = new TrackerEngine();
+		fill(engine.getDays(), years);
+		return engine;
+	}
+
+	private static void fill(DayStore store, int years) {
+		Random random = new Random(42);
+
+		LocalDate end = START.plusYears(years);
+		for (LocalDate date = START; date.isBefore(end); date = date.plusDays(1)) {
+			Day day = store.getDay(date);
+
+			for (int f = 0; f < 3; f++) {
+				day.addFood(food(random));
+			}
+			for (int e = 0; e < 2; e++) {
+				String name = EXERCISES[random.nextInt(EXERCISES.length)];
+				day.addExercise(new Exercise(name, new Number[] { 5, 5, 20.0 + random.nextInt(180), 150.0 }));
+			}
+		}
+	}
+
+	public static Food food(Random random) {
+		double[] values = { 100, random.nextDouble() * 80, random.nextDouble() * 30, random.nextDouble() * 20,
+				1 + random.nextInt(3) };
+		return new Food(FOODS[random.nextInt(FOODS.length)], values);
+	}
+
+	/**
+	 * A catalog of generated food names made of 3 to 5 words
+	 *
+	 * @param size
+	 * @return
+	 */
+	public static FoodCatalog catalog(int size) {
+		Random random = new Random(42);
+		FoodCatalog catalog = new FoodCatalog();
+
+		List<String> names = new ArrayList<String>();
+		List<double[]> values = new ArrayList<double[]>();
+		for (int i = 0; i < size; i++) {
+			StringBuilder name = new StringBuilder();
+			for (int w = 3 + random.nextInt(3); w > 0; w--) {
+				name.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+			}
+			names.add(name.append(i).toString());
+			values.add(new double[] { 100, random.nextDouble() * 80, random.nextDouble() * 30, random.nextDouble() * 20 });
+		}
+		catalog.addAll(names, values);
+
+		return catalog;
+	}
+}
@@ -0,0 +1,95 @@
+package bench;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Day;
+import model.DayStore;
+import model.HistoryFile;
+import model.RangeIndex;
+
+/**
+ * Day lookups and calorie totals over 1, 5 and 20 years of daily logs
+ *
+ * TrackerEngine.getDay delegates to DayStore.getDay, which is measured
+ * here on its own
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DayBenchmark {
+
+	@Param({ "1", "5", "20" })
+	public int years;
+
+	private DayStore store;
+	private RangeIndex index;
+	private LocalDate end;
+	private int days;
+	private int next;
+
+	@Setup
+	public void setup() {
+		store = Datasets.days(years);
+		index = new RangeIndex(store);
+		end = Datasets.START.plusYears(years).minusDays(1);
+		days = store.size();
+	}
+
+	// Walks through every date so lookups don't always hit the same day
+	private LocalDate nextDate() {
+		next = (next + 7919) % days;
+		return Datasets.START.plusDays(next);
+	}
+
+	@Benchmark
+	public Day getDay() {
+		return store.getDay(nextDate());
+	}
+
+	// Dates after the logs, handed out as empty days without being stored
+	@Benchmark
+	public Day getEmptyDay() {
+		return store.getDay(nextDate().plusYears(years));
+	}
+
+	@Benchmark
+	public double totalFoodCalories() {
+		return store.getDay(nextDate()).getTotalFoodCalories();
+	}
+
+	/**
+	 * Total calories of the whole history by walking every Day
+	 */
+	@Benchmark
+	public double sumByScan() {
+		double sum = 0;
+		for (Day day : store.range(Datasets.START, end)) {
+			sum += day.getTotalFoodCalories();
+		}
+		return sum;
+	}
+
+	/**
+	 * Total calories of the whole history from the range index
+	 */
+	@Benchmark
+	public double sumByIndex() {
+		return index.sum(HistoryFile.CALORIES, Datasets.START, end);
+	}
+}
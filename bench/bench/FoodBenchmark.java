@@ -0,0 +1,54 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Food;
+
+/**
+ * Food construction and quantity changes (every diary edit goes through them)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FoodBenchmark {
+
+	private double[] values = { 100, 4.70, 3.50, 3.70 };
+	private Food food;
+	private double quantity;
+
+	@Setup
+	public void setup() {
+		food = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70, 1 });
+	}
+
+	@Benchmark
+	public Food construct() {
+		return new Food("Whole Milk", values);
+	}
+
+	@Benchmark
+	public Food copy() {
+		return new Food(food, 2);
+	}
+
+	@Benchmark
+	public double setQuantity() {
+		quantity = quantity >= 10 ? 1 : quantity + 1;
+		food.setQuantity(quantity);
+		return food.getCalories();
+	}
+}
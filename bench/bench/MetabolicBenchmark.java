@@ -0,0 +1,88 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.MetabolicCalculator;
+import model.Profile;
+
+/**
+ * BMR/TDEE/goal recompute of a whole population, one Profile formula per
+ * person against the batch calculator
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetabolicBenchmark {
+
+	@Param({ "10000", "1000000" })
+	public int people;
+
+	private String[] genderNames, unitNames;
+	private byte[] gender, units;
+	private double[] weight, height, level, multiplier;
+	private int[] age;
+	private double[] bmr, tdee, goal;
+	private MetabolicCalculator calculator = new MetabolicCalculator();
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+
+		genderNames = new String[people];
+		unitNames = new String[people];
+		gender = new byte[people];
+		units = new byte[people];
+		weight = new double[people];
+		height = new double[people];
+		age = new int[people];
+		level = new double[people];
+		multiplier = new double[people];
+		bmr = new double[people];
+		tdee = new double[people];
+		goal = new double[people];
+
+		for (int i = 0; i < people; i++) {
+			genderNames[i] = random.nextBoolean() ? "Male" : "Female";
+			unitNames[i] = random.nextInt(4) == 0 ? "Imperial" : "Metric";
+			gender[i] = MetabolicCalculator.gender(genderNames[i]);
+			units[i] = MetabolicCalculator.units(unitNames[i]);
+			weight[i] = 40 + random.nextDouble() * 120;
+			height[i] = 140 + random.nextDouble() * 70;
+			age[i] = 16 + random.nextInt(70);
+			level[i] = 1.2 + random.nextInt(5) * 0.175;
+			multiplier[i] = 0.8 + random.nextInt(3) * 0.2;
+		}
+	}
+
+	@Benchmark
+	public double[] scalar() {
+		for (int i = 0; i < people; i++) {
+			bmr[i] = Profile.calculateBMR(genderNames[i], unitNames[i], weight[i], height[i], age[i]);
+			tdee[i] = bmr[i] * level[i];
+			goal[i] = tdee[i] * multiplier[i];
+		}
+		return goal;
+	}
+
+	@Benchmark
+	public double[] batch() {
+		calculator.calculate(gender, units, weight, height, age, level, multiplier, bmr, tdee, goal);
+		return goal;
+	}
+}
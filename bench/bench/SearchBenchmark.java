@@ -0,0 +1,65 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.Food;
+import model.FoodCatalog;
+
+/**
+ * Food search of the add food table, the trigram index against the old
+ * lowercase/contains predicate run over every food
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+	@Param({ "1000", "100000", "300000" })
+	public int foods;
+
+	@Param({ "milk", "chocolate oat", "br" })
+	public String query;
+
+	private FoodCatalog catalog;
+	private List<Food> list;
+
+	@Setup
+	public void setup() {
+		catalog = Datasets.catalog(foods);
+
+		// Creates every template Food, as the old foodData list held them
+		list = new ArrayList<Food>(catalog);
+	}
+
+	@Benchmark
+	public int index() {
+		return catalog.search(query).size();
+	}
+
+	@Benchmark
+	public int predicate() {
+		int found = 0;
+		for (Food food : list) {
+			if (food.getName().toLowerCase().contains(query.toLowerCase().trim()))
+				found++;
+		}
+		return found;
+	}
+}
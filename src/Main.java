@@ -1,11 +1,14 @@
 
 import java.util.Locale;
 
+import controllers.MainProgramController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import model.AsyncAppender;
+import model.Log;
 
 /**
  * (c) zEndurance 2018
@@ -30,4 +33,14 @@ public class Main extends Application {
 		appStage.setScene(new Scene(root, 944, 600));
 		appStage.show();
 	}
+
+	@Override
+	public void stop() throws Exception {
+		// Make sure every session is on disk before we exit
+		MainProgramController.closeSessions();
+
+		// And every message on the console
+		if (Log.getAppender() instanceof AsyncAppender)
+			((AsyncAppender) Log.getAppender()).close();
+	}
 }
\ No newline at end of file
@@ -8,7 +8,7 @@ public class BaseController {
 	protected Person person;
 
 	public BaseController(){
-		person = Person.getInstance();
+		person = MainProgramController.engine().getPerson();
 	}
 	
 	protected void setStageAndSetupListeners(Stage stage) {
@@ -12,6 +12,7 @@ import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
+import model.MetricsRegistry;
 
 public class BaseLoginController {
 	@FXML
@@ -23,7 +24,9 @@ public class BaseLoginController {
 	
 	protected void loadFXML(ActionEvent event, String fxml) throws IOException {
 		// Go to main program dashboard
+		long start = MetricsRegistry.start();
 		Parent parent = FXMLLoader.load(getClass().getResource(fxml));
+		MainProgramController.metrics.stop("fxml.load", start);
 		Scene scene = new Scene(parent);
 		Stage appStage = (Stage) ((Node) event.getSource()).getScene().getWindow();
 		appStage.setScene(scene);
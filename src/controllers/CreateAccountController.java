@@ -8,6 +8,7 @@ import java.util.ResourceBundle;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import model.Log;
 
 public class CreateAccountController extends BaseLoginController implements Initializable {
 
@@ -19,7 +20,7 @@ public class CreateAccountController extends BaseLoginController implements Init
 
 	@FXML
 	protected void handleBtnBack(ActionEvent event) throws IOException {
-		System.out.println("Back btn pressed");
+		Log.debug("Back btn pressed");
 		
 		// Send us back to main screen
 		loadFXML(event, "/view/login.fxml");
@@ -27,6 +28,6 @@ public class CreateAccountController extends BaseLoginController implements Init
 	
 	@FXML
 	protected void handleBtnSubmitAccount(ActionEvent event) throws IOException {
-		System.out.println("Try to create an account now!");
+		Log.debug("Try to create an account now!");
 	}
 }
\ No newline at end of file
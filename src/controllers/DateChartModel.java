@@ -0,0 +1,219 @@
+package controllers;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.CategoryAxis;
+import javafx.scene.chart.XYChart;
+import model.ExerciseChartData;
+
+/**
+ * What a chart with dates along a category axis (the exercises LineChart, the
+ * summary BarChart) is showing, so it can be updated without clearing it
+ *
+ * Every update is diffed against what is shown: categories and points are
+ * walked in date order next to the new ones, and only the ones that were added,
+ * removed or changed value are touched. Reloading the same data touches no
+ * chart node at all.
+ *
+ * Lines are updated between begin() and end(), the lines that weren't given in
+ * between are removed.
+ */
+public class DateChartModel {
+
+	private static final DateTimeFormatter DAY_MONTH = DateTimeFormatter.ofPattern("dd/MM");
+	// Categories must be unique, so the year is shown once the dates span more than one
+	private static final DateTimeFormatter DAY_MONTH_YEAR = DateTimeFormatter.ofPattern("dd/MM/yy");
+
+	private static class Line {
+		final XYChart.Series<String, Number> series = new XYChart.Series<String, Number>();
+		// Date of every point of the series
+		final ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+	}
+
+	private final XYChart<String, Number> chart;
+	private final CategoryAxis axis;
+
+	private DateTimeFormatter format = DAY_MONTH;
+
+	// Date of every category of the axis
+	private final ArrayList<LocalDate> categories = new ArrayList<LocalDate>();
+
+	// Shown lines by name, and the ones given since begin()
+	private final LinkedHashMap<String, Line> lines = new LinkedHashMap<String, Line>();
+	private final HashSet<String> updated = new HashSet<String>();
+
+	/**
+	 * @param chart
+	 * @param axis
+	 *            the category axis of the chart if its categories are set by
+	 *            setDates, null if it finds them in the points itself
+	 */
+	public DateChartModel(XYChart<String, Number> chart, CategoryAxis axis) {
+		this.chart = chart;
+		this.axis = axis;
+	}
+
+	/**
+	 * Changes the categories of the axis to these dates
+	 *
+	 * @param dates
+	 *            in date order, without duplicates
+	 */
+	public void setDates(List<LocalDate> dates) {
+		DateTimeFormatter wanted = DAY_MONTH;
+		if (!dates.isEmpty() && dates.get(0).getYear() != dates.get(dates.size() - 1).getYear())
+			wanted = DAY_MONTH_YEAR;
+
+		// Every label changes, start over
+		if (wanted != format) {
+			clear();
+			format = wanted;
+		}
+
+		ObservableList<String> shown = axis.getCategories();
+		int i = 0;
+
+		for (LocalDate date : dates) {
+			while (i < categories.size() && categories.get(i).isBefore(date)) {
+				categories.remove(i);
+				shown.remove(i);
+			}
+
+			if (i == categories.size() || !categories.get(i).equals(date)) {
+				categories.add(i, date);
+				shown.add(i, date.format(format));
+			}
+			i++;
+		}
+
+		if (i < categories.size()) {
+			categories.subList(i, categories.size()).clear();
+			shown.remove(i, shown.size());
+		}
+	}
+
+	/**
+	 * Starts an update of the lines
+	 */
+	public void begin() {
+		updated.clear();
+	}
+
+	/**
+	 * Changes the points of the line of an exercise
+	 *
+	 * @param data
+	 */
+	public void setLine(ExerciseChartData data) {
+		Line line = line(data.getName());
+		ObservableList<XYChart.Data<String, Number>> points = line.series.getData();
+		int i = 0;
+
+		// Points of the same date are matched in order
+		for (int p = 0; p < data.size(); p++) {
+			LocalDate date = data.getDate(p);
+
+			while (i < line.dates.size() && line.dates.get(i).isBefore(date)) {
+				line.dates.remove(i);
+				points.remove(i);
+			}
+
+			if (i < line.dates.size() && line.dates.get(i).equals(date)) {
+				setValue(points.get(i), data.getValue(p));
+			} else {
+				line.dates.add(i, date);
+				points.add(i, new XYChart.Data<String, Number>(date.format(format), data.getValue(p)));
+			}
+			i++;
+		}
+
+		if (i < line.dates.size()) {
+			line.dates.subList(i, line.dates.size()).clear();
+			points.remove(i, points.size());
+		}
+	}
+
+	/**
+	 * Changes a line of a single point (i.e. one bar per day)
+	 *
+	 * @param name
+	 * @param date
+	 * @param value
+	 */
+	public void setLine(String name, LocalDate date, double value) {
+		Line line = line(name);
+		ObservableList<XYChart.Data<String, Number>> points = line.series.getData();
+
+		if (line.dates.size() == 1 && line.dates.get(0).equals(date)) {
+			setValue(points.get(0), value);
+			return;
+		}
+
+		line.dates.clear();
+		line.dates.add(date);
+		// One list change, without the unchecked generic varargs of setAll(E...)
+		points.setAll(Collections.singletonList(new XYChart.Data<String, Number>(date.format(format), value)));
+	}
+
+	/**
+	 * Removes the lines that weren't given since begin()
+	 */
+	public void end() {
+		Iterator<Map.Entry<String, Line>> it = lines.entrySet().iterator();
+
+		while (it.hasNext()) {
+			Map.Entry<String, Line> entry = it.next();
+			if (!updated.contains(entry.getKey())) {
+				chart.getData().remove(entry.getValue().series);
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes every line and category
+	 */
+	public void clear() {
+		for (Line line : lines.values()) {
+			chart.getData().remove(line.series);
+		}
+		lines.clear();
+		updated.clear();
+
+		if (axis != null)
+			axis.getCategories().clear();
+		categories.clear();
+	}
+
+	/**
+	 * Finds the shown line of a name, adding a new one to the chart if there is
+	 * none
+	 */
+	private Line line(String name) {
+		updated.add(name);
+
+		Line line = lines.get(name);
+		if (line == null) {
+			line = new Line();
+			line.series.setName(name);
+			lines.put(name, line);
+			chart.getData().add(line.series);
+		}
+
+		return line;
+	}
+
+	private static void setValue(XYChart.Data<String, Number> point, double value) {
+		if (point.getYValue().doubleValue() != value)
+			point.setYValue(value);
+	}
+}
@@ -20,6 +20,7 @@ import model.Activity;
 import model.Goal;
 import model.Helper;
 import model.Person;
+import model.Profile;
 
 public class GoalsTabController extends BaseController implements Initializable {
 
@@ -45,7 +46,7 @@ public class GoalsTabController extends BaseController implements Initializable
 	 */
 	public void initialize(URL arg0, ResourceBundle arg1) {
 		
-		person = Person.getInstance();
+		person = MainProgramController.engine().getPerson();
 
 		// Setup FXML Components
 		setupActivityLevels();
@@ -165,17 +166,12 @@ public class GoalsTabController extends BaseController implements Initializable
 	 */
 	private void calculateValues() {
 
-		// Recalculate and set textfields
-		person.calculateBMR();
-		tfBMR.setText(Double.toString(Helper.round(person.getBMR(), 2)));
+		// The profile recalculates BMR, TDEE and the calorie goal on every change
+		Profile profile = person.getProfile();
 
-		person.calculateTDEE();
-		tfTDEE.setText(Double.toString(Helper.round(person.getTDEE(), 2)));
-		
-		// Set the new calorie goal for the Person
-		person.setGoalCalories(person.getTDEE() * currentGoal.getMultiplier());
-
-		tfCaloricReqs.setText(Double.toString(Helper.round(person.getGoalCalories(), 2)));
+		tfBMR.setText(Double.toString(Helper.round(profile.getBMR(), 2)));
+		tfTDEE.setText(Double.toString(Helper.round(profile.getTDEE(), 2)));
+		tfCaloricReqs.setText(Double.toString(Helper.round(profile.getGoalCalories(), 2)));
 	}
 
 	/**
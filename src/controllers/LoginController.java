@@ -12,13 +12,18 @@ import javafx.fxml.Initializable;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 import javafx.scene.text.Text;
 import javafx.stage.Stage;
+import model.Log;
 
 public class LoginController extends BaseLoginController implements Initializable {
 	
+	@FXML
+	private Button buttonLogin;
+	
 	@Override
 	public void initialize(URL location, ResourceBundle resources) {
 		
@@ -26,17 +31,31 @@ public class LoginController extends BaseLoginController implements Initializabl
 
 	@FXML
 	protected void handleBtnLogin(ActionEvent event) throws IOException {
-		System.out.println("Login btn pressed");
-		// Authenticate here
-		
+		Log.debug("Login btn pressed");
+		// Enter in the password field signs in too, only one login at a time
+		if(buttonLogin.isDisabled()) return;
+		buttonLogin.setDisable(true);
+		actiontarget.setText("Signing in...");
 		
-		// Load next page
-		loadFXML(event, "/view/dashboard.fxml");
+		// Authenticate here (no passwords yet, every email has its own account)
+		// Load the saved profile, foods, exercises and days (off the FX thread), then the next page
+		MainProgramController.login(userField.getText(), passwordField.getText(), () -> {
+			try {
+				loadFXML(event, "/view/dashboard.fxml");
+			} catch (IOException e) {
+				Log.error("Couldn't load the dashboard", e);
+				buttonLogin.setDisable(false);
+				actiontarget.setText("Couldn't load the dashboard");
+			}
+		}, reason -> {
+			buttonLogin.setDisable(false);
+			actiontarget.setText(reason);
+		});
 	}
 	
 	@FXML
 	protected void handleBtnCreate(ActionEvent event) throws IOException {
-		System.out.println("Create new account btn pressed");
+		Log.debug("Create new account btn pressed");
 		
 		
 		Parent parent = FXMLLoader.load(getClass().getResource("/view/createAccount.fxml"));
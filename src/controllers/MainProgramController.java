@@ -3,10 +3,11 @@ package controllers;
 /* Import java, javafx */
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
@@ -21,8 +22,14 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import javafx.stage.Stage;
+import model.AsyncAppender;
+import model.ComputeService;
 import model.Day;
-import model.Exercise;
+import model.Log;
+import model.MetricsRegistry;
+import model.SessionStore;
+import model.TrackerEngine;
+import model.User;
 import controllers.exercises.*;
 
 
@@ -50,54 +57,144 @@ public class MainProgramController implements Initializable {
 	private ExercisesTabController ExercisesTabController;
 	
 	
-	// (Global) whenever we add an exercise we store it in here once
-	public static ArrayList<Exercise> addedExercises = new ArrayList<Exercise>();
+	// (Global) sessions of the users that logged in, saved under ~/.caloriestracker/users/<id>
+	public static SessionStore sessions = new SessionStore(Paths.get(System.getProperty("user.home"), ".caloriestracker", "users"));
 	
-	// Calls whenever we press add on addExerciseController
-	public static boolean addExercise(Exercise ex) {
-		boolean found = false;
-		// Check if it exists in the added Exercises arraylist
-		for(int i=0; i<addedExercises.size(); i++) {
-			// If the same name exists
-			if(addedExercises.get(i).getName().equals(ex.getName())) {
-				System.out.println("This exercise exists!");
-				found = true;
-				break;
+	// (Global) runs the loading and the charts off the FX thread
+	public static ComputeService compute = new ComputeService();
+	
+	// (Global) timings of the updates and FXML loads, written to ~/.caloriestracker/metrics.json on exit
+	public static MetricsRegistry metrics = new MetricsRegistry();
+	
+	// Released sessions stay in memory this long (for a quick login again), checked every EVICTION_PERIOD
+	private static final long IDLE_MILLIS = 30 * 60 * 1000, EVICTION_PERIOD = 5 * 60 * 1000;
+	
+	static {
+		sessions.scheduleEviction(IDLE_MILLIS, EVICTION_PERIOD);
+		metrics.gauge("sessions.open", sessions::size);
+		metrics.gauge("log.dropped", () -> Log.getAppender() instanceof AsyncAppender ? ((AsyncAppender) Log.getAppender()).getDropped() : 0);
+	}
+	
+	// The user logged in on this window and their session (days, catalogs and profile every tab is a view of)
+	private static User user;
+	private static TrackerEngine engine;
+	// Whether the session store holds the session for us (not if it couldn't be loaded)
+	private static boolean held;
+	
+	
+	public static TrackerEngine engine() {
+		return engine;
+	}
+	
+	// The outcome of the login task, handed to the FX thread
+	private static class LoggedIn {
+		User user;
+		TrackerEngine engine;
+		boolean held;
+		// Set instead of the rest if the user couldn't be found
+		IOException error;
+	}
+	
+	/**
+	 * Finds the id of a user and loads their saved session off the FX thread, called when we login
+	 * 
+	 * @param email
+	 * @param password
+	 * @param then
+	 *            runs on the FX thread once the session is loaded
+	 * @param failed
+	 *            runs on the FX thread with the reason if the user couldn't be found
+	 */
+	public static void login(String email, String password, Runnable then, Consumer<String> failed) {
+		compute.submitIO("login", () -> {
+			LoggedIn loggedIn = new LoggedIn();
+			try {
+				loggedIn.user = new User(sessions.userId(email), email, password);
+			} catch (IOException e) {
+				Log.error("Couldn't find the user " + email, e);
+				loggedIn.error = e;
+				return loggedIn;
+			}
+			open(loggedIn);
+			return loggedIn;
+		}, loggedIn -> {
+			if (loggedIn.error != null) {
+				failed.accept("Couldn't sign in: " + loggedIn.error.getMessage());
+				return;
 			}
+			
+			user = loggedIn.user;
+			engine = loggedIn.engine;
+			held = loggedIn.held;
+			then.run();
+		}, stale -> {
+			// A newer login replaced this one, let go of the session it opened
+			if (stale.held)
+				sessions.release(stale.user.getId());
+		});
+	}
+	
+	private static void open(LoggedIn loggedIn) {
+		try {
+			TrackerEngine opened = sessions.open(loggedIn.user);
+			Log.info(() -> "Loaded " + opened.getDays().size() + " days of user " + loggedIn.user.getId());
+			loggedIn.engine = opened;
+			loggedIn.held = true;
+		} catch (IOException e) {
+			// Carry on without saving
+			Log.error("Couldn't load the session, carrying on without saving", e);
+			loggedIn.engine = new TrackerEngine();
 		}
+	}
+	
+	/**
+	 * Saves the session of the user and releases it (it is evicted from memory once idle), called when we logout
+	 */
+	public static void logout() {
+		if (user == null) return;
 		
-		if(!found) {
-			System.out.println("This exercise doesn't exist, so we're going to add it here!");
-			addedExercises.add(ex);
+		try {
+			engine.save();
+		} catch (IOException e) {
+			Log.error("Couldn't save the session", e);
 		}
+		if (held)
+			sessions.release(user.getId());
 		
-		return found;
+		user = null;
+		engine = null;
+		held = false;
 	}
 	
-	
-	// (Global) static array of days
-	public static ArrayList<Day> days = new ArrayList<Day>();
+	/**
+	 * Saves every session, called when the program exits
+	 */
+	public static void closeSessions() {
+		compute.shutdown();
+		
+		try {
+			sessions.closeAll();
+		} catch (IOException e) {
+			Log.error("Couldn't save the sessions", e);
+		}
+		
+		try {
+			metrics.write(Paths.get(System.getProperty("user.home"), ".caloriestracker", "metrics.json"));
+		} catch (IOException e) {
+			Log.error("Couldn't write the metrics", e);
+		}
+	}
 	
 
-	// Finds the current Day in the days ArrayList (used to set currentDay)
+	// Finds the current Day in the days store (used to set currentDay)
 	public static Day getDay(LocalDate date) {
-		for (int i = 0; i < days.size(); i++) {
-			Day d = days.get(i);
-
-			if (d.getDate().isEqual(date)) {
-				
-				System.out.println("This Day already existed!");
-				return d;
-			}
+		long start = MetricsRegistry.start();
+		try {
+			// An empty Day if nothing was logged on the date yet, stored by the first food or exercise
+			return engine().getDay(date);
+		} finally {
+			metrics.stop("main.getDay", start);
 		}
-
-		System.out.println("Day didn't exist, so we are creating one instead!");
-		// Save to static arrayList if we didn't find it above
-		Day newDay = new Day(date);
-		days.add(newDay);
-
-		// Else return a new date
-		return newDay;
 	}
 	
 	
@@ -130,7 +227,8 @@ public class MainProgramController implements Initializable {
 	}
     
     private void reset() {
-    	// Flush out days, exercises, diets etc
+    	// Save and flush out days, exercises, diets etc
+    	logout();
     }
 
 	@Override
@@ -141,10 +239,11 @@ public class MainProgramController implements Initializable {
 		
 		// Set listener on tab
 		tabPane.getSelectionModel().selectedItemProperty().addListener((ov, oldTab, newTab) -> {
-	        System.err.println("changed");
+	        Log.debug("changed");
 	        
-	        System.out.println("New tab name: " + newTab.getText());
+	        Log.debug(() -> "New tab name: " + newTab.getText());
 	        
+	        long start = MetricsRegistry.start();
 	        if(newTab == tabDashboard) {
 	        	// Run an update on the barchart pie chart etc
 	        	SummaryTabController.update();
@@ -153,6 +252,7 @@ public class MainProgramController implements Initializable {
 	        }else if(newTab == tabExercises) {
 	        	ExercisesTabController.update();
 	        }
+	        metrics.stop("tab.switch", start);
 	    });
 		
 	}
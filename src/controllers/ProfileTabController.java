@@ -18,6 +18,7 @@ import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import model.Log;
 import model.Person;
 
 public class ProfileTabController extends BaseController implements Initializable {
@@ -47,7 +48,7 @@ public class ProfileTabController extends BaseController implements Initializabl
 	public void initialize(URL arg0, ResourceBundle arg1) {
 
 		// Update reference to person
-		person = Person.getInstance();
+		person = MainProgramController.engine().getPerson();
 
 		// Load images
 		loadGenderImages();
@@ -109,7 +110,7 @@ public class ProfileTabController extends BaseController implements Initializabl
 			maleGender = new Image("file:media/male.png");
 			femaleGender = new Image("file:media/female.jpg");
 		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
+			Log.error("Couldn't load the gender images", e);
 		}
 	}
 
@@ -171,23 +172,23 @@ public class ProfileTabController extends BaseController implements Initializabl
 		// If we are in edit mode
 		if (editMode) {
 
-			System.out.println("Edit mode activated");
+			Log.debug("Edit mode activated");
 
 			btnEditProfile.setText("Save Changes");
 
 			// Activate TextFields
 			disableTF(false);
 		} else {
-			// Save changes to Profile
-			person.setUnits(units);
-			person.setFirstName(tfFirstName.getText());
-			person.setLastName(tfLastName.getText());
-			person.setAge(Integer.parseInt(tfAge.getText()));
-			person.setWeight(Double.parseDouble(tfWeight.getText()));
-			person.setHeight(Double.parseDouble(tfHeight.getText()));
-			person.setGender(cbGender.getValue());
-			person.setWaist(Double.parseDouble(tfWaist.getText()));
-			person.setBodyfat(Double.parseDouble(tfBodyfat.getText()));
+			// Save changes to Profile (all at once)
+			int age = Integer.parseInt(tfAge.getText());
+			double weight = Double.parseDouble(tfWeight.getText());
+			double height = Double.parseDouble(tfHeight.getText());
+			double waist = Double.parseDouble(tfWaist.getText());
+			double bodyfat = Double.parseDouble(tfBodyfat.getText());
+
+			person.update(p -> p.withUnits(units).withFirstName(tfFirstName.getText())
+					.withLastName(tfLastName.getText()).withAge(age).withWeight(weight).withHeight(height)
+					.withGender(cbGender.getValue()).withWaist(waist).withBodyfat(bodyfat));
 
 			btnEditProfile.setText("Edit Profile");
 
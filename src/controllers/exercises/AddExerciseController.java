@@ -2,13 +2,11 @@ package controllers.exercises;
 
 import java.io.IOException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.ResourceBundle;
 
+import controllers.MainProgramController;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -21,7 +19,7 @@ import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import model.Exercise;
 import model.Helper;
-import model.Person;
+import model.Log;
 
 public class AddExerciseController extends BaseExerciseController implements Initializable {
 	
@@ -42,10 +40,8 @@ public class AddExerciseController extends BaseExerciseController implements Ini
 
 	// The current selected Exercise we need to pass back to the DietTabController
 	private Exercise returnExerciseData;
-	// Hold the Exercise data on the table in text form
-	public static ObservableList<Exercise> exerciseData = FXCollections.observableArrayList();
-	// Hold the objects of Exercises
-	public static ArrayList<Exercise> addedExercises = new ArrayList<Exercise>();
+	// Hold the Exercise data on the table in text form (searchable by name)
+	private ObservableList<Exercise> exerciseData = MainProgramController.engine().getExercises();
 	
 	@Override
 	public void initialize(URL arg0, ResourceBundle arg1) {
@@ -53,33 +49,33 @@ public class AddExerciseController extends BaseExerciseController implements Ini
 		
 		// Create Dummy Data for table 
 		// (commenting this out will break a guideline)
-		if(addedExercises.size() == 0) {
-			Exercise e1 = new Exercise("Bench Press");
-			Exercise e2 = new Exercise("Squat");
-			Exercise e3 = new Exercise("Deadlift");
-			Exercise e4 = new Exercise("Overhead Press");
-			Exercise e5 = new Exercise("Barbell Row");
-			
-			addedExercises.addAll(Arrays.asList(e1, e2, e3, e4, e5));
-			exerciseData.addAll(Arrays.asList(e1, e2, e3, e4, e5));
+		if(!MainProgramController.engine().isExercisesLoaded()) {
+			MainProgramController.engine().loadSampleExercises();
 		}
 		
-		FilteredList<Exercise> flExercises = new FilteredList<Exercise>(exerciseData, p -> true);
-		
 		// Setup column values
 		tcExercise.setCellValueFactory(e -> e.getValue().getStrExercise());
 		
-		// Add filtered list data to the table
-		tvExercises.setItems(flExercises);
+		// Show every exercise until we search
+		tvExercises.setItems(exerciseData);
 		
 		
-		// Setup TextField filter (based off food name)
+		// Setup TextField search (based off exercise name)
 		tfSearch.setPromptText("Search here!");
-		tfSearch.setOnKeyReleased(keyEvent -> {
-			System.out.println("textfield search activated");
-			flExercises.setPredicate(
-					p -> p.getName().toLowerCase().contains(tfSearch.getText().toLowerCase().trim()));
-		});
+		tfSearch.setOnKeyReleased(keyEvent -> search());
+	}
+	
+	/**
+	 * Shows the exercises matching the search TextField, best matches first
+	 */
+	private void search() {
+		String text = tfSearch.getText();
+		
+		if(text == null || text.trim().isEmpty()) {
+			tvExercises.setItems(exerciseData);
+		}else {
+			tvExercises.setItems(FXCollections.observableArrayList(MainProgramController.engine().searchExercises(text)));
+		}
 	}
 
 	public Exercise getExercise() {
@@ -119,16 +115,16 @@ public class AddExerciseController extends BaseExerciseController implements Ini
 			sets = Double.parseDouble(tfSets.getText());
 			reps = Double.parseDouble(tfReps.getText());
 		}catch(NumberFormatException e) {
-			System.out.println("TextFields cannot be converted to a double");
+			Log.debug("TextFields cannot be converted to a double");
 		}
 
 		
 		// Get our weight but make sure its converted into pounds, also convert weightLifted into KG
 		double personWeight = 0.0;
-		if(Person.getInstance().getUnits().equals(("Metric"))){
-			personWeight = Person.getInstance().getWeight() * 2.20462;
+		if(MainProgramController.engine().getPerson().getUnits().equals(("Metric"))){
+			personWeight = MainProgramController.engine().getPerson().getWeight() * 2.20462;
 		}else {
-			personWeight = Person.getInstance().getWeight();
+			personWeight = MainProgramController.engine().getPerson().getWeight();
 			
 			// convert weight lifted to kg
 			weightLifted = weightLifted / 2.20462;
@@ -176,7 +172,7 @@ public class AddExerciseController extends BaseExerciseController implements Ini
 	
 	@FXML
 	protected void handleAddExercise(ActionEvent event) throws IOException {
-		System.out.println("Add the exercise to the table behind us!");
+		Log.debug("Add the exercise to the table behind us!");
 		try {
 			Exercise selectedExercise = tvExercises.getSelectionModel().getSelectedItem();
 			
@@ -187,9 +183,9 @@ public class AddExerciseController extends BaseExerciseController implements Ini
 	
 			btnAddExercise.getScene().getWindow().hide();
 		} catch (NullPointerException e) {
-			System.out.println("A table row wasn't selected");
+			Log.debug("A table row wasn't selected");
 		} catch(NumberFormatException e) {
-			System.out.println("Errors in converting textfields to numbers");
+			Log.debug("Errors in converting textfields to numbers");
 		}
 	}
 
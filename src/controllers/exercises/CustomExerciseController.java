@@ -11,6 +11,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.TextField;
 import model.Exercise;
+import model.Log;
 
 public class CustomExerciseController extends BaseExerciseController implements Initializable{
 	
@@ -62,7 +63,7 @@ public class CustomExerciseController extends BaseExerciseController implements
 				customExercise = createExercise(customExercise);
 				
 			}catch(NumberFormatException e) {
-				System.out.println("Cannot convert textfield text to numbers");
+				Log.debug("Cannot convert textfield text to numbers");
 				
 				// Do not close the window/continue
 				customExercise = null;
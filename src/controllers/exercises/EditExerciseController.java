@@ -10,6 +10,7 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import model.Exercise;
+import model.Log;
 
 public class EditExerciseController extends BaseExerciseController implements Initializable {
 
@@ -53,14 +54,14 @@ public class EditExerciseController extends BaseExerciseController implements In
 			editExercise = createExercise(editExercise);
 			
 			
-			System.out.println("New weight values: " + editExercise.getWeight());
+			Log.debug(() -> "New weight values: " + editExercise.getWeight());
 			
 			// Close this window and return back to ExercisesTabController
 			btnSave.getScene().getWindow().hide();
 		} catch (NullPointerException e) {
-			System.out.println("A table row wasn't selected");
+			Log.debug("A table row wasn't selected");
 		} catch(NumberFormatException e) {
-			System.out.println("couldn't convert text to numbers");
+			Log.debug("couldn't convert text to numbers");
 		}
 	}
 }
@@ -3,17 +3,12 @@ package controllers.exercises;
 import java.io.IOException;
 /* Import java, javafx, mainPackage */
 import java.net.URL;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Calendar;
-import java.util.Collections;
-import java.util.Date;
 import java.util.ResourceBundle;
 
+import controllers.DateChartModel;
 import controllers.MainProgramController;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
@@ -29,7 +24,6 @@ import javafx.scene.Scene;
 import javafx.scene.chart.CategoryAxis;
 import javafx.scene.chart.LineChart;
 import javafx.scene.chart.NumberAxis;
-import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.DatePicker;
@@ -39,9 +33,12 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import model.Day;
 import model.Exercise;
+import model.ExerciseChart;
 import model.ExerciseChartData;
 import model.ExerciseChartDay;
-import model.Person;
+import model.Log;
+import model.MetricsRegistry;
+import model.TrackerEngine;
 
 public class ExercisesTabController implements Initializable {
 
@@ -60,7 +57,7 @@ public class ExercisesTabController implements Initializable {
 	Button btnAddExercise, btnCustom, btnEdit, btnDelete;
 
 	@FXML
-	LineChart<?, ?> lineChartExercises;
+	LineChart<String, Number> lineChartExercises;
 
 	@FXML
 	CategoryAxis categoryAxisDate;
@@ -78,12 +75,18 @@ public class ExercisesTabController implements Initializable {
 	// Used to check the current loaded date and day
 	private static LocalDate currentDate;
 	private static Day currentDay;
-	// Stores the current LineChart data inside an arrayList
-	private ArrayList<XYChart.Series<?, ?>> rgCharts = new ArrayList<XYChart.Series<?, ?>>();
+	// What the LineChart shows, updated by diffing
+	private DateChartModel chart;
 	// Stores the LineChart current view mode
 	private String currentMode = "Weekly";
 
-	// Stores ExerciseChartDay; weekly, monthly, yearly
+	// Key of the chart requests of the compute service
+	private static final String CHART = "exercises-chart";
+
+	// Pixels of chart width per point of a line
+	private static final double POINT_WIDTH = 4;
+
+	// Stores ExerciseChartDay; weekly, monthly, yearly, all time
 	private ArrayList<ExerciseChartData> chartData = new ArrayList<ExerciseChartData>();
 	private ArrayList<LocalDate> chartDates = new ArrayList<LocalDate>();
 
@@ -101,7 +104,8 @@ public class ExercisesTabController implements Initializable {
 	private void setupChoiceBox() {
 		// Setup values into the ChoiceBox and place an event listener to choice the
 		// amount that the line graph will show
-		choiceBoxTimeLine.setItems(FXCollections.observableArrayList("Weekly", "Monthly", "Yearly"));
+		choiceBoxTimeLine.setItems(FXCollections.observableArrayList(TrackerEngine.WEEKLY, TrackerEngine.MONTHLY,
+				TrackerEngine.YEARLY, TrackerEngine.ALL_TIME));
 
 		choiceBoxTimeLine.setValue("Weekly");
 
@@ -116,7 +120,6 @@ public class ExercisesTabController implements Initializable {
 					currentMode = newValue;
 
 					// Depending on this value, change linechart view
-					changeMode();
 					update();
 				}
 			}
@@ -131,39 +134,24 @@ public class ExercisesTabController implements Initializable {
 	 */
 	private void setupLineChart() {
 
-		System.out.println("{setupLineChart() : 1}");
+		Log.debug("{setupLineChart() : 1}");
 
 		lineChartExercises.setTitle("Progressive Overload");
-	}
-
-	private void changeMode() {
-		// Clear the Line Chart
-		clearLineChart();
 
-		// Create the Line Chart
-		updateLineChart();
-	}
-
-	/**
-	 * Clears all the values in the line chart so we can rebuild it
-	 */
-	private void clearLineChart() {
-		rgCharts.clear();
-		lineChartExercises.getData().clear();
-
-		// remove stored chart data
-		chartData.clear();
-		chartDates.clear();
+		// needs to be set to false so that we can get immediate changes to category
+		// by default the axes have auto ranging enabled, so any change applied will be
+		// overridden.
+		numberAxisWeight.setAutoRanging(false);
+		categoryAxisDate.setAutoRanging(false);
 
-		// remove any fixed categories
-		categoryAxisDate.getCategories().clear();
+		chart = new DateChartModel(lineChartExercises, categoryAxisDate);
 	}
 
 	/**
 	 * Based off the Persons Units, change the text of the LineChart y axis
 	 */
 	private void updateLineChartAxis() {
-		if (Person.getInstance().getUnits().equals(("Metric"))) {
+		if (MainProgramController.engine().getPerson().getUnits().equals(("Metric"))) {
 			numberAxisWeight.setLabel("Weight (kg) ");
 		} else {
 			numberAxisWeight.setLabel("Weight (lbs) ");
@@ -175,163 +163,59 @@ public class ExercisesTabController implements Initializable {
 	 * represents them in LineChart
 	 */
 	public void updateLineChart() {
+		long start = MetricsRegistry.start();
 
 		// Change the title of weight to either (kg) or (lb) depending on persons unit
 		updateLineChartAxis();
 
-		// Re-Sort the days in order
-		Collections.sort(MainProgramController.days);
-
-		// Clear this lineChart (since this is recalled)
-		clearLineChart();
-
 		// GUI representation
 		createLineChart(currentMode);
+
+		// Only the FX thread part, the build itself is timed as exercises.buildChart
+		MainProgramController.metrics.stop("exercises.updateLineChart", start);
 	}
 
 	/**
 	 * Goes through all the days, their exercises (weight) and converts to LineChart
 	 * points
 	 */
-	@SuppressWarnings("unchecked")
 	private void createLineChart(String value) {
 
-		System.out.println("Timeline selected: " + value);
-		
-		// Loads the dates into weeklyDates etc
-		loadExerciseChartData(value);
+		Log.debug(() -> "Timeline selected: " + value);
 
-		// Creates GUI representation of LineChart
-		buildGUILineChart(value);
-	}
+		// Copies the dates and exercise weights of the week/month/year we selected in the date picker
+		ExerciseChart request = loadExerciseChartData(value);
 
-	/**
-	 * Method that gets invoked inside createWeeklyLineChart()
-	 */
-	private void loadExerciseChartData(String mode) {
-
-		// Create a date range between the current 'selected' week in date picker
-		Date selectedDate = Date.from(currentDay.getDate().atStartOfDay(ZoneId.systemDefault()).toInstant());
-
-		// Debug
-		System.out.println("Date range for weekly was: " + selectedDate.toString());
-
-		// Get start of the week from 'selectedDate'
-		System.out.println("Week start date: " + getStartOfWeek(selectedDate));
-
-		// Get end of the week from 'selectedDate'
-		System.out.println("Week end date: " + getEndOfWeek(selectedDate));
-
-		// Loop through the relevant day range
-		// Find the exercises and create an ExerciseChartData object, storing the same
-		// weight value
-		// E.g. Day 1: {name: Deadlift, weight: 40}
-		// Day 2: {name: Deadlift, weight: 45}
-		// What would be saved is ExerciseChartData {name: Deadlift, weight[]: 40, 45 }
-
-		
-		Date start = getStartOfWeek(selectedDate);
-		Date end = getEndOfWeek(selectedDate);
-		
-		switch(mode) {
-			case "Weekly":
-				start = getStartOfWeek(selectedDate);
-				end = getEndOfWeek(selectedDate);
-				break;
-			case "Monthly":
-				start = getStartOfMonth(selectedDate);
-				end = getEndOfMonth(selectedDate);
-				break;
-			case "Yearly":
-				start = getStartOfYear(selectedDate);
-				end = getEndOfYear(selectedDate);
-				break;
-		}
-		
-		// Returns the index in the ArrayList of the starting day
-		int startIndex = getDateIndex(start);
-		int endIndex = getDateIndex(end);
-
-		
-		if(mode.equals("Yearly")){
-			// Here we need to get values between snapshots of the month
-			
-			for(int i=startIndex; i<=endIndex; i++) {
-				Day day = MainProgramController.days.get(i);
-
-				
-
-				// Check if there is any exercises on this day, and if there is then add the day
-				if(day.getExercises().size() >= 1) {
-					addPoint(day);
-				}else if(i % 28 == 0) {
-					addPoint(day);
-				}
-			}
-			
-			
-		}else{
-			for (int i = startIndex; i <= endIndex; i++) {
-				// Reference to the current day
-				Day day = MainProgramController.days.get(i);
-
-				addPoint(day);
+		// Builds them off the FX thread, a newer update replaces this one
+		MainProgramController.compute.submit(CHART, () -> {
+			long start = MetricsRegistry.start();
+			try {
+				return request.build();
+			} finally {
+				MainProgramController.metrics.stop("exercises.buildChart", start);
 			}
-		}
-		
-
-	}
-	
-	/**
-	 * Method that creates values for 2 ArrayLists: chartDates, chartData
-	 * @param day
-	 */
-	private void addPoint(Day day) {
-		// Save the dates into ArrayList
-		chartDates.add(day.getDate());
-		// Loop through its exercises and add create an ExerciseChartData
-		for (int e = 0; e < day.getExercises().size(); e++) {
-			createExercise(day.getExercises().get(e), day.getDate());
-		}
+		}, built -> {
+			// Reload the data, the chart itself is only changed where it differs
+			chartDates.clear();
+			chartData.clear();
+			chartDates.addAll(built.getDates());
+			chartData.addAll(built.getLines());
+
+			// Creates GUI representation of LineChart
+			buildGUILineChart(value);
+		});
 	}
 
 	/**
-	 * Method gets invoked in loadWeeklyExerciseChartData Makes sure that if we have
-	 * duplicate exercise names, we only increase the weight ArrayList
-	 * 
-	 * @param e
-	 * @param date
+	 * Method that gets invoked inside createWeeklyLineChart()
 	 */
-	private void createExercise(Exercise e, LocalDate date) {
-
-		boolean found = false;
-		// Loop through
-		for (int i = 0; i < chartData.size(); i++) {
-
-			// Check whether or not we already have this exercise added
-
-			if (chartData.get(i).getName().equals(e.getName())) {
-				found = true;
-
-				// add into weeklyData
-				chartData.get(i).addChartData(date, e.getWeight());
-
-				break;
-			}
-		}
-
-		if (!found) {
-
-			ArrayList<LocalDate> rgDates = new ArrayList<LocalDate>();
-			rgDates.add(date);
-
-			ArrayList<Double> rgValues = new ArrayList<Double>();
-			rgValues.add(e.getWeight());
+	private ExerciseChart loadExerciseChartData(String mode) {
+		// No more points per line than the chart is wide in POINT_WIDTH pixels (the chart may not be laid out yet)
+		int budget = TrackerEngine.DEFAULT_BUDGET;
+		if (lineChartExercises.getWidth() > 0)
+			budget = Math.max(3, (int) (lineChartExercises.getWidth() / POINT_WIDTH));
 
-			// add a new ExerciseChartData object
-			ExerciseChartData ecd = new ExerciseChartData(e.getName(), rgDates, rgValues);
-			chartData.add(ecd);
-		}
+		return MainProgramController.engine().exerciseChart(currentDay.getDate(), mode, budget);
 	}
 
 	/**
@@ -353,36 +237,8 @@ public class ExercisesTabController implements Initializable {
 	 * First method that gets invoked in buildGUIWeeklyLineChart
 	 */
 	private void buildGUILineChartCategoryAxis(String mode) {
-		// Store all the dates into a string ArrayList
-		ArrayList<String> olDates = new ArrayList<String>();
-
-		for (int i = 0; i < chartDates.size(); i++) {
-
-			System.out.println("Adding ---> into ArrayList ---> " + chartDates.get(i));
-
-			
-			DateTimeFormatter sdf = DateTimeFormatter.ofPattern("dd/MM");
-			
-			String formattedDate = chartDates.get(i).format(sdf).toString();
-			
-			System.out.println("Formated date: " + formattedDate);
-
-			olDates.add(formattedDate);
-		}
-
-		ObservableList<String> olCategory = FXCollections.observableArrayList(olDates);
-
-		System.out.println("Setup categories");
-
-		// needs to be set to false so that we can get immediate changes to category
-		// by default the axes have auto ranging enabled, so any change applied will be
-		// overridden.
-		numberAxisWeight.setAutoRanging(false);
-		categoryAxisDate.setAutoRanging(false);
-		
-		
-		// Add the categories
-		categoryAxisDate.setCategories(olCategory);
+		// Only the dates that aren't on the axis yet are added (and the ones no longer shown removed)
+		chart.setDates(chartDates);
 	}
 
 	/**
@@ -396,41 +252,15 @@ public class ExercisesTabController implements Initializable {
 	/**
 	 * Third method that gets invoked in buildGUIWeeklyLineChart
 	 */
-	@SuppressWarnings("unchecked")
 	private void buildGUILinePoints(String mode) {
+		chart.begin();
 
-		// Loop through weekly Data and get the points
+		// Only the points that changed are touched, lines of exercises no longer shown are removed
 		for (int i = 0; i < chartData.size(); i++) {
-
-			ExerciseChartData ecd = chartData.get(i);
-
-			@SuppressWarnings("rawtypes")
-			XYChart.Series series = new XYChart.Series();
-			series.setName(ecd.getName());
-
-			// Loop through dates/values
-			for (int p = 0; p < ecd.getDates().size(); p++) {
-
-				System.out.println("DATES SIZE -------------------------------------------");
-
-				
-				DateTimeFormatter sdf = DateTimeFormatter.ofPattern("dd/MM");
-				
-
-				String date = ecd.getDates().get(p).format(sdf).toString();
-				double value = ecd.getValues().get(p);
-
-				System.out.println("Date: " + date);
-				System.out.println("value: " + value);
-
-				// Add the data
-				series.getData().add(new XYChart.Data(date, value));
-			}
-
-			// Finally add it to the graph
-			lineChartExercises.getData().addAll(series);
+			chart.setLine(chartData.get(i));
 		}
 
+		chart.end();
 	}
 
 	/**
@@ -446,141 +276,18 @@ public class ExercisesTabController implements Initializable {
 			ExerciseChartData ecd = chartData.get(i);
 
 			// shorter length reference
-			int len = ecd.getDates().size();
+			int len = ecd.size();
 
 			// loop through both dates/exercises (since they are same size)
 			for (int p = 0; p < len; p++) {
-				String categoryAxisDate = ecd.getDates().get(p).format(sdf).toString();
-				double numberAxisWeight = ecd.getValues().get(p);
+				String categoryAxisDate = ecd.getDate(p).format(sdf).toString();
+				double numberAxisWeight = ecd.getValue(p);
 
 				// Actual debug info
-				System.out.println("CategoryAxis: " + categoryAxisDate);
-				System.out.println("NumberAxis: " + numberAxisWeight);
-			}
-		}
-	}
-
-	
-	public static LocalDate getLocalDateFromDate(Date date) {
-		return LocalDate.from(Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()));
-	}
-
-	private int getDateIndex(Date startDate) {
-
-		for (int i = 0; i < MainProgramController.days.size(); i++) {
-
-			Day day = MainProgramController.days.get(i);
-
-			int num1 = getLocalDateFromDate(startDate).getDayOfYear();
-			int num2 = day.getDate().getDayOfYear();
-
-			// If we get a match, return the index in the ArrayList
-			if (num1 == num2) {
-				return i;
+				Log.debug(() -> "CategoryAxis: " + categoryAxisDate);
+				Log.debug(() -> "NumberAxis: " + numberAxisWeight);
 			}
 		}
-
-		// No index found
-		return -1;
-	}
-
-	public Date convertToDateViaInstant(LocalDate dateToConvert) {
-		return java.util.Date.from(dateToConvert.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant());
-	}
-
-	private Date getStartOfYear(Date selectedDate) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(selectedDate);
-
-		cal.set(Calendar.DAY_OF_YEAR, 1);
-
-		return cal.getTime();
-	}
-
-	private Date getEndOfYear(Date selectedDate) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(selectedDate);
-
-		// Return the last day of the year
-		cal.set(Calendar.DAY_OF_YEAR, cal.getActualMaximum(Calendar.DAY_OF_YEAR));
-
-		return cal.getTime();
-	}
-
-	private Date getEndOfMonth(Date selectedDate) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(selectedDate);
-
-		// Set the day to the end of the month and time to 23:59:59
-		cal.set(Calendar.DAY_OF_MONTH, getMonthDays(selectedDate));
-		cal.set(Calendar.HOUR, 23);
-		cal.set(Calendar.MINUTE, 59);
-		cal.set(Calendar.SECOND, 59);
-
-		return cal.getTime();
-	}
-
-	private Date getStartOfMonth(Date selectedDate) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(selectedDate);
-
-		// Ensure its the first day, at 00:00:00
-		cal.set(Calendar.DAY_OF_MONTH, 1);
-		cal.set(Calendar.HOUR, 0);
-		cal.set(Calendar.MINUTE, 0);
-		cal.set(Calendar.SECOND, 0);
-
-		return cal.getTime();
-	}
-
-	private Date getStartOfWeek(Date selectedDate) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(selectedDate);
-
-		// Go to the start of the week
-		cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek());
-
-		// Ensure time is set at 00:00:00
-		cal.set(Calendar.HOUR, 0);
-		cal.set(Calendar.MINUTE, 0);
-		cal.set(Calendar.SECOND, 0);
-
-		return cal.getTime();
-	}
-
-	private Date getEndOfWeek(Date selectedDate) {
-		Calendar cal = Calendar.getInstance();
-		cal.setTime(selectedDate);
-
-		cal.set(Calendar.DAY_OF_WEEK, cal.getFirstDayOfWeek() + 6);
-
-		// ensure time is 23:59:59
-		cal.set(Calendar.HOUR, 23);
-		cal.set(Calendar.MINUTE, 59);
-		cal.set(Calendar.SECOND, 59);
-
-		return cal.getTime();
-	}
-
-	// return the amount of days in the current month
-	private int getMonthDays(Date selectedDate) {
-		Calendar c = Calendar.getInstance();
-		c.setTime(selectedDate);
-		int monthMaxDays = c.getActualMaximum(Calendar.DAY_OF_MONTH);
-		return monthMaxDays;
-	}
-
-	public static boolean between(Date date, Date dateStart, Date dateEnd) {
-		if (date != null && dateStart != null && dateEnd != null) {
-			if (date.after(dateStart) && date.before(dateEnd)) {
-				return true;
-			} else if (date.equals(dateStart) || date.equals(dateEnd)) {
-				return true;
-			} else {
-				return false;
-			}
-		}
-		return false;
 	}
 
 	/**
@@ -684,7 +391,7 @@ public class ExercisesTabController implements Initializable {
 	 */
 	@FXML
 	protected void handleAddExercise(ActionEvent event) throws IOException {
-		System.out.println("Open add Exercise window");
+		Log.debug("Open add Exercise window");
 		// Try opening 'add exercises window' which will load stored exercises from
 		// database
 		try {
@@ -709,7 +416,7 @@ public class ExercisesTabController implements Initializable {
 			addEntry(controller);
 
 		} catch (IOException e) {
-			e.printStackTrace();
+			Log.error("Couldn't open the add exercise window", e);
 		}
 	}
 
@@ -721,23 +428,19 @@ public class ExercisesTabController implements Initializable {
 	 */
 	private void addEntry(AddExerciseController controller) {
 		try {
-			System.out.println("ExercieTabController: " + controller.getExercise());
+			Log.debug(() -> "ExercieTabController: " + controller.getExercise());
 
-			// Copy the object
-			Exercise newExercise = new Exercise(controller.getExercise());
+			// Add a copy to the day (and uniquely to the logged exercises)
+			Exercise newExercise = MainProgramController.engine().addExercise(currentDay.getDate(), controller.getExercise());
 
 			// Add values to the table!
 			addedExercises.add(newExercise);
 			exerciseData.add(newExercise);
-			currentDay.addExercise(newExercise);
-
-			// Try to add it uniquely (used for LineChart)
-			MainProgramController.addExercise(newExercise);
 
 			// Update GUI
 			update();
 		} catch (NullPointerException e) {
-			e.printStackTrace();
+			Log.error("Couldn't add the exercise", e);
 		}
 	}
 
@@ -760,7 +463,7 @@ public class ExercisesTabController implements Initializable {
 
 			update();
 		} catch (NullPointerException e) {
-			e.printStackTrace();
+			Log.error("Couldn't delete the exercise", e);
 		}
 	}
 
@@ -794,7 +497,7 @@ public class ExercisesTabController implements Initializable {
 			// continue with the controller
 			addCustom(controller);
 		} catch (Exception e) {
-			e.printStackTrace();
+			Log.error("Couldn't open the custom exercise window", e);
 		}
 	}
 
@@ -813,28 +516,27 @@ public class ExercisesTabController implements Initializable {
 
 			// Copy it
 			Exercise newEx = new Exercise(retrievedEx);
-			// Make sure we apply it as a custom
+			// Make sure we apply it as a custom (before the day journals it)
 			newEx.setCustom(true);
 
 			// Add it to daily the table (if we selected to)
 			if (controller.addToTable()) {
-				System.out.println("Add to Table was selected");
+				Log.debug("Add to Table was selected");
 
 				addedExercises.add(newEx);
 				exerciseData.add(newEx);
 				currentDay.addExercise(newEx);
 
 				// Add it as a unique exercise
-				MainProgramController.addExercise(newEx);
+				MainProgramController.engine().logExercise(newEx);
 			}
 
-			// Add to the local memory arraylist, the table gui and the currentDay arraylist
-			AddExerciseController.addedExercises.add(newEx);
-			AddExerciseController.exerciseData.add(newEx);
+			// Add to the exercises we can pick from (as a custom)
+			MainProgramController.engine().addCustomExercise(newEx);
 
 			update();
 		} catch (NullPointerException e) {
-			e.printStackTrace();
+			Log.error("Couldn't add the custom exercise", e);
 		}
 	}
 
@@ -868,11 +570,11 @@ public class ExercisesTabController implements Initializable {
 			stage.showAndWait();
 
 			// Refresh reference
-			selectedExercise.setExercise(controller.getEditExercise());
+			currentDay.setExercise(selectedExercise, controller.getEditExercise());
 
 			update();
 		} catch (NullPointerException e) {
-			e.printStackTrace();
+			Log.error("Couldn't edit the exercise", e);
 		}
 	}
 }
\ No newline at end of file
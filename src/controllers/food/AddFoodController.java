@@ -3,19 +3,19 @@ package controllers.food;
 import java.io.IOException;
 /* Import java, javafx, mainPackage */
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ResourceBundle;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
+import controllers.MainProgramController;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.TableColumn;
@@ -24,6 +24,10 @@ import javafx.scene.control.TextField;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import model.Food;
+import model.FoodCatalog;
+import model.FoodImporter;
+import model.Log;
+import model.TrackerEngine;
 
 public class AddFoodController extends BaseFoodController implements Initializable {
 	
@@ -48,28 +52,25 @@ public class AddFoodController extends BaseFoodController implements Initializab
 	
 	// The current selected food we need to pass back to the DietTabController
 	private Food returnFoodData;
-	// Hold the food data on the table in text form
-	public static ObservableList<Food> foodData = FXCollections.observableArrayList();
-	// Hold the objects of foods
-	public static ArrayList<Food> addedFoods = new ArrayList<Food>();
+	// Hold the foods shown on the table (stored column by column, searchable by name)
+	private FoodCatalog foodData = MainProgramController.engine().getFoods();
+	
+	// Nutrition database dump, imported instead of the sample foods when it exists
+	private static final Path DATABASE = Paths.get(System.getProperty("user.home"), ".caloriestracker", "foods.csv");
+	// Key of the import request of the compute service
+	private static final String IMPORT = "foods-import";
 	
 	public void initialize(URL arg0, ResourceBundle arg1) {
+		// Load the foods database (once), in the background
+		if(!MainProgramController.engine().isFoodsLoaded() && Files.exists(DATABASE)) {
+			importDatabase();
+		}
+		
 		// Temporarily used instead of database
-		if(addedFoods.size() == 0) {
-			System.out.println("ADDING WHOLE MILK...");
+		else if(!MainProgramController.engine().isFoodsLoaded()) {
+			Log.debug("ADDING WHOLE MILK...");
 			// Fill tableview with dummy data (later from database)
-			Food f1 = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70}, new boolean[] {true});
-			Food f2 = new Food("Protein Powder", new double[] {30, 3.77, 23.71, 0.2  }, new boolean[] {true});
-			Food f3 = new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }, new boolean[] {true});
-			Food f4 = new Food("Semi Skimmed Milk", new double[] {100, 4.80, 3.60, 1.80}, new boolean[] {true});
-	
-			// add to ArrayList
-			addedFoods.addAll(Arrays.asList(f1, f2, f3, f4));
-	
-			// Add sample data
-			for (int i = 0; i < addedFoods.size(); i++) {
-				foodData.add(addedFoods.get(i));
-			}
+			MainProgramController.engine().loadSampleFoods();
 		}
 
 		// Initialize the person table with the two columns.
@@ -82,10 +83,8 @@ public class AddFoodController extends BaseFoodController implements Initializab
 		fatsColumn.setCellValueFactory(cellData -> cellData.getValue().getStrFats());
 		proteinColumn.setCellValueFactory(cellData -> cellData.getValue().getStrProts());
 
-		FilteredList<Food> flFoods = new FilteredList<Food>(foodData, p -> true);
-
-		// Add filtered list data to the table
-		tableviewFoods.setItems(flFoods);
+		// Show every food until we search
+		tableviewFoods.setItems(foodData);
 		
 		
 		// Add event listener to the table rows
@@ -113,11 +112,7 @@ public class AddFoodController extends BaseFoodController implements Initializab
 
 		// Setup textfield filter (based off food name)
 		textfieldSearch.setPromptText("Search here!");
-		textfieldSearch.setOnKeyReleased(keyEvent -> {
-			System.out.println("textfield search activated");
-			flFoods.setPredicate(
-					p -> p.getName().toLowerCase().contains(textfieldSearch.getText().toLowerCase().trim()));
-		});
+		textfieldSearch.setOnKeyReleased(keyEvent -> search());
 
 		// Setup spinner to increase quantity >= 1
 		spinnerQuantity.setValueFactory(new SpinnerValueFactory.DoubleSpinnerValueFactory(1, 100));
@@ -126,6 +121,39 @@ public class AddFoodController extends BaseFoodController implements Initializab
 
 	}
 	
+	/**
+	 * Streams the foods database into a catalog off the FX thread, which then replaces the one of the table.
+	 * Rows that couldn't be used are written to foods-rejects.csv
+	 */
+	private void importDatabase() {
+		TrackerEngine engine = MainProgramController.engine();
+		tableviewFoods.setPlaceholder(new Label("Importing the foods database..."));
+		
+		MainProgramController.compute.submitIO(IMPORT, () -> {
+			try {
+				FoodImporter importer = new FoodImporter();
+				FoodCatalog imported = TrackerEngine.readFoods(DATABASE, DATABASE.resolveSibling("foods-rejects.csv"), importer);
+				
+				Log.info(() -> "Imported " + importer.getImported() + " foods, rejected " + importer.getRejected());
+				return imported;
+			} catch (IOException e) {
+				Log.error("Couldn't import the foods database", e);
+				return null;
+			}
+		}, imported -> {
+			// Fall back on the sample foods
+			if(imported == null) {
+				engine.loadSampleFoods();
+			} else {
+				engine.setImportedFoods(imported);
+			}
+			
+			foodData = engine.getFoods();
+			tableviewFoods.setPlaceholder(null);
+			search();
+		});
+	}
+	
 	@FXML
 	protected void handleDelete(ActionEvent event) throws IOException {
 		
@@ -138,37 +166,51 @@ public class AddFoodController extends BaseFoodController implements Initializab
 				// Make sure its a custom food
 				if(selectedFood.getCustom()) {
 					// Now delete it from the table
-					addedFoods.remove(selectedFood);
 					foodData.remove(selectedFood);
 
+					// Results of the current search still hold the deleted food
+					search();
 					update();
 				}
 				
 			}catch(NullPointerException e) {
-				e.printStackTrace();
+				Log.error("Couldn't delete the food", e);
 			}
 		}
 		
 	}
 	
+	/**
+	 * Shows the foods matching the search TextField, best matches first
+	 */
+	private void search() {
+		String text = textfieldSearch.getText();
+
+		if (text == null || text.trim().isEmpty()) {
+			tableviewFoods.setItems(foodData);
+		} else {
+			tableviewFoods.setItems(foodData.search(text));
+		}
+	}
+
 	private void update() {
 		tableviewFoods.refresh();
 	}
 
 	@FXML
 	protected void handleAddFood(ActionEvent event) throws IOException {
-		System.out.println("Add the food to the table behind us!");
+		Log.debug("Add the food to the table behind us!");
 		try {
 			Food selectedFood = tableviewFoods.getSelectionModel().getSelectedItem();
-			System.out.println("We want to add: " + selectedFood.getName());
-			System.out.println("The quantity to add is: " + spinnerQuantity.getValue());
+			Log.debug(() -> "We want to add: " + selectedFood.getName());
+			Log.debug(() -> "The quantity to add is: " + spinnerQuantity.getValue());
 			
 			// Make a copy food to return back to DietTabController
 			returnFoodData = new Food(selectedFood);
 			
 			buttonAddFood.getScene().getWindow().hide();
 		} catch (NullPointerException e) {
-			System.out.println("A table row wasn't selected");
+			Log.debug("A table row wasn't selected");
 		}
 	}
 	
@@ -11,8 +11,10 @@ import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.TextField;
+import model.Day;
 import model.Food;
 import model.Helper;
+import model.Log;
 
 public class BaseFoodController extends BaseController {
 	
@@ -66,17 +68,11 @@ public class BaseFoodController extends BaseController {
 	}
 	
 	protected void updateTotalValues(LocalDate date) {
-		protein = (double) 0;
-		carbs = (double) 0;
-		fats = (double) 0;
-
-		// Add up the total from the foods on the table
-		for (int i = 0; i < MainProgramController.getDay(date).getFoods().size(); i++) {
-			Food f = MainProgramController.getDay(date).getFoods().get(i);
-			protein += f.getProteins();
-			carbs += f.getCarbohydrates();
-			fats += f.getFats();
-		}
+		// The day keeps running totals of its foods
+		Day day = MainProgramController.getDay(date);
+		protein = day.getTotalProteins();
+		carbs = day.getTotalCarbohydrates();
+		fats = day.getTotalFats();
 
 		// Calculate calories
 		calories = (protein * 4) + (carbs * 4) + (fats * 9);
@@ -113,7 +109,7 @@ public class BaseFoodController extends BaseController {
 				valid = false;
 				break;
 			} else {
-				System.out.println("Textfield wasn't empty so now check if its a number!");
+				Log.debug("Textfield wasn't empty so now check if its a number!");
 				valid = Helper.isDouble(tfs.get(i).getText());
 				if (!valid)
 					break;
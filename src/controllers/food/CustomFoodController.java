@@ -16,6 +16,7 @@ import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.control.TextField;
 import model.Food;
 import model.Helper;
+import model.Log;
 
 public class CustomFoodController extends BaseFoodController implements Initializable {
 
@@ -67,7 +68,7 @@ public class CustomFoodController extends BaseFoodController implements Initiali
 			buttonCreate.getScene().getWindow().hide();
 
 		} else {
-			System.out.println("We don't have valid data to create food");
+			Log.debug("We don't have valid data to create food");
 		}
 	}
 	
@@ -77,7 +78,7 @@ public class CustomFoodController extends BaseFoodController implements Initiali
 
 	@FXML
 	protected void handleCheckBoxToday(ActionEvent event) throws IOException {
-		System.out.println("Checkbox pressed");
+		Log.debug("Checkbox pressed");
 		spinnerQuantity.setDisable(!spinnerQuantity.isDisable());
 	}
 
@@ -28,6 +28,8 @@ import javafx.stage.Stage;
 import model.Day;
 import model.Food;
 import model.Helper;
+import model.Log;
+import model.MetricsRegistry;
 
 public class DietTabController extends BaseFoodController implements Initializable {
 
@@ -126,7 +128,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 			public void handle(Event t) {
 				LocalDate date = dpDate.getValue();
 				
-				System.out.println("Selecting a day: of value: " + date.toString());
+				Log.debug(() -> "Selecting a day: of value: " + date.toString());
 
 				// Update the currentDay
 				currentDay = MainProgramController.getDay(date);
@@ -171,11 +173,16 @@ public class DietTabController extends BaseFoodController implements Initializab
 	 * Calls whenever we change a date or switching between tabs, updates the GUI components
 	 */
 	private void update() {
-		updatePieChart(dpDate.getValue());
-		updateGUIPieChart();
-		updateTotalValues(dpDate.getValue());
-		updateGUIMacrosInfo();
-		tvEntries.refresh();
+		long start = MetricsRegistry.start();
+		try {
+			updatePieChart(dpDate.getValue());
+			updateGUIPieChart();
+			updateTotalValues(dpDate.getValue());
+			updateGUIMacrosInfo();
+			tvEntries.refresh();
+		} finally {
+			MainProgramController.metrics.stop("diet.update", start);
+		}
 	}
 
 
@@ -196,7 +203,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 	 */
 	@FXML
 	protected void handleEdit(ActionEvent event) throws IOException {
-		System.out.println("Create edit food window here");
+		Log.debug("Create edit food window here");
 
 		try {
 			// Get the current selected food
@@ -213,7 +220,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 			update();
 
 		} catch (Exception e) {
-			System.out.println("Couldn't create edit window..?");
+			Log.debug("Couldn't create edit window..?");
 		}
 	}
 
@@ -254,10 +261,10 @@ public class DietTabController extends BaseFoodController implements Initializab
 		// We selected to only update Macros and not quantity
 		if(controller.getEditMacros()) {
 			// Update reference of selectedFood
-			selectedFood.setFood(changedFood, selectedFood.getQuantity());
+			currentDay.setFood(selectedFood, changedFood, selectedFood.getQuantity());
 		}else {
 			// Update reference of selectedFood
-			selectedFood.setFood(changedFood, controller.getQuantity());
+			currentDay.setFood(selectedFood, changedFood, controller.getQuantity());
 		}
 		
 		
@@ -288,7 +295,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 		stage.showAndWait();
 
 		// Update the selectedFood Quantity
-		selectedFood.setQuantity(controller.getQuantity());
+		currentDay.setQuantity(selectedFood, controller.getQuantity());
 	}
 
 	/**
@@ -319,7 +326,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 			// continue with the controller
 			addCustom(controller);
 		} catch (Exception e) {
-			System.out.println("Couldn't make create food window..?");
+			Log.debug("Couldn't make create food window..?");
 		}
 	}
 
@@ -347,8 +354,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 			}
 			
 			// Add to the AddFoodController table
-			AddFoodController.addedFoods.add(newFood);
-			AddFoodController.foodData.add(newFood);
+			MainProgramController.engine().addCustomFood(controller.getFood());
 			update();
 		}
 	}
@@ -361,7 +367,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 	@FXML
 	protected void handleAddEntry(ActionEvent event) throws IOException {
 		// Open a window which has a search bar to search for foods on the database
-		System.out.println("Create add food window here");
+		Log.debug("Create add food window here");
 
 		try {
 
@@ -385,7 +391,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 			addEntry(controller);
 
 		} catch (IOException e) {
-			System.out.println("Failed to create a window");
+			Log.debug("Failed to create a window");
 		}
 	}
 
@@ -395,31 +401,23 @@ public class DietTabController extends BaseFoodController implements Initializab
 	 */
 	private void addEntry(AddFoodController controller) {
 		try {
-			System.out.println("DietTabController: " + controller.getFood().getName());
-			boolean found = false;
-			// Check if this food already exists in the table, if it does increase its
-			// quantity instead
-			
-			found = Day.updateQuantity(currentDay, controller, found);
-			
+			Log.debug(() -> "DietTabController: " + controller.getFood().getName());
+			// Adds a copy to the day, if this food already exists on the day its quantity is increased instead
+			Food newFood = MainProgramController.engine().addFood(currentDay.getDate(), controller.getFood(), controller.getQuantity());
 
 			// Add a new row entry if same food isn't already added
-			if (!found) {
-				System.out.println("No Food was found, creating a new entry here!");
-				
-				// Copy the object
-				Food newFood = new Food(controller.getFood(), controller.getQuantity());
+			if (!addedFoods.contains(newFood)) {
+				Log.debug("No Food was found, creating a new entry here!");
 				
 				// Add values to the table!
 				addedFoods.add(newFood);
 				foodData.add(newFood);
-				currentDay.addFood(newFood);
 			}
 
 			// Update GUI
 			update();
 		} catch (NullPointerException e) {
-			System.out.println("Nullpointerexception, probably because we hit the X");
+			Log.debug("Nullpointerexception, probably because we hit the X");
 		}
 	}
 
@@ -442,7 +440,7 @@ public class DietTabController extends BaseFoodController implements Initializab
 
 			update();
 		} catch (NullPointerException e) {
-			System.out.println("Couldn't delete item, probably haven't selected anything");
+			Log.debug("Couldn't delete item, probably haven't selected anything");
 		}
 	}
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
 import model.Food;
+import model.Log;
 
 public class EditCustomFoodController extends BaseFoodController implements Initializable {
 
@@ -43,7 +44,7 @@ public class EditCustomFoodController extends BaseFoodController implements Init
 	
 	@FXML
 	protected void handleCheckBoxMacros(ActionEvent event) throws IOException {
-		System.out.println("Handle check box pressed!");
+		Log.debug("Handle check box pressed!");
 		
 		// If its selected, disable quantity and enable TextFields
 		if(checkBoxMacros.isSelected()) {
@@ -95,14 +96,14 @@ public class EditCustomFoodController extends BaseFoodController implements Init
 			}
 			
 			// Make sure to save everything
-			System.out.println("We have valid data to work with");
+			Log.debug("We have valid data to work with");
 			quantity = spinnerQuantity.getValue();
 			
 			// Close this window and continue (DietTabController)
 			buttonSave.getScene().getWindow().hide();
 
 		} else {
-			System.out.println("We don't have valid data to create food");
+			Log.debug("We don't have valid data to create food");
 		}
 	}
 	
@@ -116,7 +117,7 @@ public class EditCustomFoodController extends BaseFoodController implements Init
 		try {
 			defaultFactory.setValue(Double.parseDouble(value));
 		}catch(NumberFormatException e) {
-			e.printStackTrace();
+			Log.error("Invalid quantity: " + value, e);
 		}
 	}
 	
@@ -25,6 +25,7 @@ import javafx.scene.layout.AnchorPane;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import model.Food;
+import model.Log;
 
 public class EditFoodController implements Initializable {
 	
@@ -46,12 +47,12 @@ public class EditFoodController implements Initializable {
 			quantity = Double.parseDouble(textfieldQuantity.getText());
 			buttonSave.getScene().getWindow().hide();
 		} catch (NullPointerException e) {
-			System.out.println("A table row wasn't selected");
+			Log.debug("A table row wasn't selected");
 		}
 	}
 	
 	public void setTextFieldValue(String value) {
-		System.out.println("Set new value here!!!");
+		Log.debug("Set new value here!!!");
 		textfieldQuantity.setText(value);
 	}
 	
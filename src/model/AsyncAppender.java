@@ -0,0 +1,229 @@
+package model;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes logged messages out on a thread of its own
+ *
+ * Messages are put into a ring buffer of preallocated entries, the writer takes
+ * every waiting entry at once and prints them in one go. When the buffer is
+ * full messages are dropped (and counted) instead of slowing down the thread
+ * that logged them. WARN and ERROR go to the error stream.
+ */
+public class AsyncAppender implements Log.Appender {
+
+	private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
+	private static class Entry {
+		long millis;
+		Log.Level level;
+		String thread, message;
+		Throwable error;
+	}
+
+	private final PrintStream out, err;
+
+	// Entries from head (next to write out) to tail (next to fill), wrapping around
+	private final Entry[] ring;
+	private long head, tail;
+	// Entries before this one are printed
+	private long printed;
+	private long dropped;
+	private boolean closed;
+
+	// Copies of the entries being written out, only used by the writer
+	private final Entry[] taken;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition waiting = lock.newCondition();
+	private final Condition written = lock.newCondition();
+
+	private final Thread writer;
+
+	/**
+	 * @param out
+	 * @param err
+	 * @param capacity
+	 *            how many messages can wait to be written out
+	 */
+	public AsyncAppender(PrintStream out, PrintStream err, int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Invalid capacity!");
+
+		this.out = out;
+		this.err = err;
+		this.ring = new Entry[capacity];
+		this.taken = new Entry[capacity];
+
+		for (int i = 0; i < capacity; i++) {
+			ring[i] = new Entry();
+			taken[i] = new Entry();
+		}
+
+		writer = new Thread(this::write, "log-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void append(long millis, Log.Level level, String thread, String message, Throwable error) {
+		lock.lock();
+		try {
+			if (closed || tail - head == ring.length) {
+				dropped++;
+				return;
+			}
+
+			Entry entry = ring[(int) (tail % ring.length)];
+			entry.millis = millis;
+			entry.level = level;
+			entry.thread = thread;
+			entry.message = message;
+			entry.error = error;
+			tail++;
+
+			waiting.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return how many messages were dropped because the buffer was full
+	 */
+	public long getDropped() {
+		lock.lock();
+		try {
+			return dropped;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until every message logged so far is written out
+	 *
+	 * @throws InterruptedException
+	 */
+	public void flush() throws InterruptedException {
+		lock.lock();
+		try {
+			long until = tail;
+			while (printed < until && writer.isAlive()) {
+				written.await();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Writes out the waiting messages and stops the writer, later messages are
+	 * dropped
+	 *
+	 * @throws InterruptedException
+	 */
+	public void close() throws InterruptedException {
+		lock.lock();
+		try {
+			closed = true;
+			waiting.signal();
+		} finally {
+			lock.unlock();
+		}
+
+		writer.join();
+	}
+
+	private void write() {
+		StringBuilder outBatch = new StringBuilder(), errBatch = new StringBuilder();
+
+		while (true) {
+			long batchEnd;
+			int count = 0;
+
+			lock.lock();
+			try {
+				while (head == tail && !closed) {
+					waiting.awaitUninterruptibly();
+				}
+
+				if (head == tail)
+					break;
+
+				// Only copy the batch out while we hold it, the entries are reused once head moves on
+				for (; head < tail; head++) {
+					Entry entry = ring[(int) (head % ring.length)];
+					Entry copy = taken[count++];
+					copy.millis = entry.millis;
+					copy.level = entry.level;
+					copy.thread = entry.thread;
+					copy.message = entry.message;
+					copy.error = entry.error;
+
+					entry.message = null;
+					entry.error = null;
+				}
+				batchEnd = tail;
+			} finally {
+				lock.unlock();
+			}
+
+			// Formatting (stack traces included) doesn't keep the loggers waiting
+			for (int i = 0; i < count; i++) {
+				Entry entry = taken[i];
+				boolean error = entry.level.compareTo(Log.Level.WARN) >= 0;
+				format(entry, error ? errBatch : outBatch);
+
+				entry.message = null;
+				entry.error = null;
+			}
+
+			if (outBatch.length() > 0) {
+				out.print(outBatch);
+				out.flush();
+				outBatch.setLength(0);
+			}
+			if (errBatch.length() > 0) {
+				err.print(errBatch);
+				err.flush();
+				errBatch.setLength(0);
+			}
+
+			lock.lock();
+			try {
+				printed = batchEnd;
+				written.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		lock.lock();
+		try {
+			written.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static void format(Entry entry, StringBuilder batch) {
+		batch.append(LocalTime.from(Instant.ofEpochMilli(entry.millis).atZone(ZoneId.systemDefault())).format(TIME));
+		batch.append(' ').append(entry.level).append(" [").append(entry.thread).append("] ").append(entry.message);
+		batch.append(System.lineSeparator());
+
+		if (entry.error != null) {
+			StringWriter trace = new StringWriter();
+			entry.error.printStackTrace(new PrintWriter(trace));
+			batch.append(trace);
+		}
+	}
+}
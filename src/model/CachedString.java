@@ -0,0 +1,42 @@
+package model;
+
+import java.util.function.Supplier;
+
+import javafx.beans.binding.StringBinding;
+
+/**
+ * Text of a table cell which is only recalculated when it is read after its
+ * row's values changed, so rendering the same row again allocates nothing
+ */
+class CachedString extends StringBinding {
+
+	private final Supplier<String> text;
+
+	CachedString(Supplier<String> text) {
+		this.text = text;
+	}
+
+	@Override
+	protected String computeValue() {
+		return text.get();
+	}
+
+	/**
+	 * Called by the row when its values change, the cells showing it are notified
+	 * and the text is recalculated on their next read
+	 */
+	void refresh() {
+		invalidate();
+	}
+
+	/**
+	 * Refreshes a text of a row, if a cell asked for it
+	 *
+	 * @param text
+	 *            null if it wasn't created
+	 */
+	static void refreshIfCreated(CachedString text) {
+		if (text != null)
+			text.refresh();
+	}
+}
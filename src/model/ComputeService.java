@@ -0,0 +1,197 @@
+package model;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+
+/**
+ * Runs the slow work of the tabs (loading a session, building a chart) off the
+ * FX application thread and hands the result back to it
+ *
+ * Work is submitted under a key (e.g. "exercises-chart"). A new request for a
+ * key cancels the one still running, and only the latest request of a key is
+ * ever published, so flipping through dates quickly only shows the last one.
+ *
+ * Loading (file reads) runs on a pool that grows with the requests, calculating
+ * on a pool of one thread per core. The work must only read what it was given
+ * (e.g. an ExerciseChart copied out of the engine), the engine itself is only
+ * changed on the FX thread.
+ */
+public class ComputeService {
+
+	private final ExecutorService io, cpu;
+	// Where results are published, the FX thread unless told otherwise
+	private final Executor publisher;
+
+	// Latest request of every key
+	private final ConcurrentHashMap<String, Request<?>> latest = new ConcurrentHashMap<String, Request<?>>();
+
+	public ComputeService() {
+		this(Executors.newCachedThreadPool(daemon("io")),
+				Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), daemon("compute")),
+				Platform::runLater);
+	}
+
+	/**
+	 * @param io
+	 *            runs the loading, e.g. a virtual thread per task where available
+	 * @param cpu
+	 *            runs the calculations, a bounded pool
+	 * @param publisher
+	 *            runs the publishing of results
+	 */
+	public ComputeService(ExecutorService io, ExecutorService cpu, Executor publisher) {
+		this.io = io;
+		this.cpu = cpu;
+		this.publisher = publisher;
+	}
+
+	private static ThreadFactory daemon(String name) {
+		AtomicInteger count = new AtomicInteger();
+
+		// Never keeps the program from exiting
+		return r -> {
+			Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Calculates something on the compute pool
+	 *
+	 * @param key
+	 *            what is calculated, replaces the previous request of the key
+	 * @param work
+	 * @param publish
+	 *            receives the result on the FX thread, unless a newer request of
+	 *            the key was made by then
+	 * @return
+	 */
+	public <T> Future<T> submit(String key, Callable<T> work, Consumer<T> publish) {
+		return submit(cpu, true, key, work, publish, null);
+	}
+
+	/**
+	 * Loads something on the io pool, a stale load is left to finish (an
+	 * interrupt would close the files it reads) but isn't published
+	 *
+	 * @see #submit(String, Callable, Consumer)
+	 */
+	public <T> Future<T> submitIO(String key, Callable<T> work, Consumer<T> publish) {
+		return submit(io, false, key, work, publish, null);
+	}
+
+	/**
+	 * Loads something on the io pool, the result of a stale load is handed to
+	 * discard instead of being dropped (e.g. to release what it opened)
+	 *
+	 * @param discard
+	 *            receives the results that aren't published, on the FX thread
+	 * @see #submitIO(String, Callable, Consumer)
+	 */
+	public <T> Future<T> submitIO(String key, Callable<T> work, Consumer<T> publish, Consumer<T> discard) {
+		return submit(io, false, key, work, publish, discard);
+	}
+
+	private <T> Future<T> submit(ExecutorService executor, boolean interruptible, String key, Callable<T> work,
+			Consumer<T> publish, Consumer<T> discard) {
+		Request<T> request = new Request<T>(key, interruptible, work, publish, discard);
+
+		Request<?> stale = latest.put(key, request);
+		if (stale != null)
+			stale.cancel(stale.interruptible);
+
+		executor.execute(request);
+		return request;
+	}
+
+	/**
+	 * Cancels the request of a key, nothing is published for it
+	 *
+	 * @param key
+	 * @return false if there was no request of the key
+	 */
+	public boolean cancel(String key) {
+		Request<?> request = latest.remove(key);
+		if (request == null)
+			return false;
+
+		request.cancel(request.interruptible);
+		return true;
+	}
+
+	/**
+	 * Cancels every request and stops the pools
+	 */
+	public void shutdown() {
+		for (String key : latest.keySet()) {
+			cancel(key);
+		}
+
+		io.shutdownNow();
+		cpu.shutdownNow();
+	}
+
+	private class Request<T> extends FutureTask<T> {
+
+		private final String key;
+		private final boolean interruptible;
+		private final Consumer<T> publish;
+		// Null if stale results are just dropped
+		private final Consumer<T> discard;
+
+		Request(String key, boolean interruptible, Callable<T> work, Consumer<T> publish, Consumer<T> discard) {
+			super(work);
+			this.key = key;
+			this.interruptible = interruptible;
+			this.publish = publish;
+			this.discard = discard;
+		}
+
+		/**
+		 * Called with the result of the work even if the request was cancelled
+		 * while it ran
+		 */
+		@Override
+		protected void set(T result) {
+			super.set(result);
+
+			if (isCancelled() && discard != null)
+				publisher.execute(() -> discard.accept(result));
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled())
+				return;
+
+			T result;
+			try {
+				result = get();
+			} catch (InterruptedException | ExecutionException e) {
+				latest.remove(key, this);
+				Log.error("Request failed: " + key, e);
+				return;
+			}
+
+			publisher.execute(() -> {
+				// Only the latest request of a key is published
+				if (latest.remove(key, this))
+					publish.accept(result);
+				else if (discard != null)
+					discard.accept(result);
+			});
+		}
+	}
+}
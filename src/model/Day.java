@@ -3,34 +3,14 @@ package model;
 import java.time.LocalDate;
 import java.util.ArrayList;
 
-import controllers.food.AddFoodController;
-
 public class Day implements Comparable<Day> {
 
 	private LocalDate date;
-	
-	public static ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
 
 	public Day(LocalDate date) {
-		
-		validateDate(date);
-		
 		this.date = date;
 	}
 	
-	private void validateDate(LocalDate date) {
-		
-		// Loop through dates arraylist to see if this date already exists
-		for(int i=0; i<dates.size(); i++) {
-			if(dates.get(i).equals(date)) {
-				throw new IllegalArgumentException("Tryig to create day: This date already exists!");
-			}
-		}
-		
-		// Else, store it inside dates
-		dates.add(date);
-	}
-	
 	/**
 	 * Destructively Loads the exercises on this day into the ArrayList passed
 	 */
@@ -43,33 +23,81 @@ public class Day implements Comparable<Day> {
 	}
 	
 	
-	public static boolean updateQuantity(Day currentDay, AddFoodController controller, boolean found) {
-		for (int i = 0; i < currentDay.getFoods().size(); i++) {
-			// Assumes we don't have foods with exactly the same name.. (try adding id in
-			// later)
-			if (currentDay.getFoods().get(i).getName().equals(controller.getFood().getName())) {
-				found = true;
-				
-				System.out.println("Updating quantity on addEntry");
-				
-				currentDay.getFoods().get(i).setQuantity(currentDay.getFoods().get(i).getQuantity() + controller.getQuantity());
-				break;
-			}
-		}
-		
-		return found;
-	}
-	
-
 	private ArrayList<Food> foods = new ArrayList<Food>();
 	private ArrayList<Exercise> exercises = new ArrayList<Exercise>();
 
+	// Notified of every change to the foods/exercises (set by the DayStore holding this day)
+	private DayListener listener;
+	// Store that handed out this (still empty) day, it is kept there once something is logged on it
+	private DayStore store;
+
+	// Running totals of the foods and exercises, kept up to date on every change
+	private double totalCalories, totalCarbohydrates, totalProteins, totalFats;
+	private double totalCaloriesBurned;
+
+	void setListener(DayListener listener) {
+		this.listener = listener;
+	}
+
+	void setStore(DayStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Adds this day to the store that handed it out, before the first food or
+	 * exercise is logged (so the store's listeners see the change)
+	 */
+	private void materialize() {
+		if (store == null)
+			return;
+
+		DayStore owner = store;
+		store = null;
+		owner.add(this);
+	}
+
 	public ArrayList<Exercise> getExercises() {
 		return exercises;
 	}
 
 	public boolean addExercise(Exercise ex) {
-		return this.exercises.add(ex);
+		TrackerEvents.DayChange event = new TrackerEvents.DayChange();
+		event.begin();
+		materialize();
+
+		boolean added = this.exercises.add(ex);
+		totalCaloriesBurned += ex.getCaloriesBurned();
+
+		if (listener != null)
+			listener.exerciseAdded(this, ex);
+
+		event.end(this, "addExercise");
+		return added;
+	}
+
+	/**
+	 * Changes the values of an exercise on this day
+	 * 
+	 * @param exercise
+	 *            the exercise stored on this day
+	 * @param changedExercise
+	 *            the exercise we want to copy values from
+	 */
+	public void setExercise(Exercise exercise, Exercise changedExercise) {
+		int index = exercises.indexOf(exercise);
+
+		// Not one of our exercises
+		if (index < 0) {
+			exercise.setExercise(changedExercise);
+			return;
+		}
+
+		totalCaloriesBurned -= exercise.getCaloriesBurned();
+		exercise.setExercise(changedExercise);
+		totalCaloriesBurned += exercise.getCaloriesBurned();
+
+		if (listener != null)
+			listener.exerciseUpdated(this, index);
 	}
 
 	public ArrayList<Food> getFoods() {
@@ -81,16 +109,99 @@ public class Day implements Comparable<Day> {
 	}
 
 	public boolean addFood(Food food) {
-		return this.foods.add(food);
+		TrackerEvents.DayChange event = new TrackerEvents.DayChange();
+		event.begin();
+		materialize();
+
+		boolean added = this.foods.add(food);
+		addTotals(food, 1);
+
+		if (listener != null)
+			listener.foodAdded(this, food);
+
+		event.end(this, "addFood");
+		return added;
+	}
+
+	/**
+	 * Changes the quantity of a food on this day
+	 * 
+	 * @param food
+	 *            the food stored on this day
+	 * @param quantity
+	 *            the new quantity
+	 */
+	public void setQuantity(Food food, double quantity) {
+		int index = foods.indexOf(food);
+
+		// Not one of our foods
+		if (index < 0) {
+			food.setQuantity(quantity);
+			return;
+		}
+
+		TrackerEvents.DayChange event = new TrackerEvents.DayChange();
+		event.begin();
+
+		addTotals(food, -1);
+		food.setQuantity(quantity);
+		addTotals(food, 1);
+
+		if (listener != null)
+			listener.foodUpdated(this, index);
+
+		event.end(this, "setQuantity");
+	}
+
+	/**
+	 * Changes the values and quantity of a food on this day
+	 * 
+	 * @param food
+	 *            the food stored on this day
+	 * @param changedFood
+	 *            the food we want to copy macro values from
+	 * @param quantity
+	 *            the new quantity
+	 */
+	public void setFood(Food food, Food changedFood, double quantity) {
+		int index = foods.indexOf(food);
+
+		// Not one of our foods
+		if (index < 0) {
+			food.setFood(changedFood, quantity);
+			return;
+		}
+
+		addTotals(food, -1);
+		food.setFood(changedFood, quantity);
+		addTotals(food, 1);
+
+		if (listener != null)
+			listener.foodUpdated(this, index);
 	}
 
 	public boolean deleteFood(Food food) {
+		TrackerEvents.DayChange event = new TrackerEvents.DayChange();
+		event.begin();
 
 		// Loop backwards into food
 		for (int i = foods.size() - 1; i >= 0; i--) {
 
 			if (foods.get(i).getName().equals(food.getName())) {
-				return foods.remove(food);
+				int index = foods.indexOf(food);
+
+				// Same name but not the same object
+				if (index < 0)
+					return false;
+
+				foods.remove(index);
+				addTotals(food, -1);
+
+				if (listener != null)
+					listener.foodDeleted(this, index);
+
+				event.end(this, "deleteFood");
+				return true;
 			}
 
 		}
@@ -99,25 +210,41 @@ public class Day implements Comparable<Day> {
 		return false;
 	}
 
+	/**
+	 * Adds (sign 1) or removes (sign -1) the values of a food from the running
+	 * totals
+	 */
+	private void addTotals(Food food, int sign) {
+		if (foods.isEmpty()) {
+			// Start from exactly 0 again so rounding errors don't pile up
+			totalCalories = totalCarbohydrates = totalProteins = totalFats = 0;
+			return;
+		}
+
+		totalCalories += sign * food.getCalories();
+		totalCarbohydrates += sign * food.getCarbohydrates();
+		totalProteins += sign * food.getProteins();
+		totalFats += sign * food.getFats();
+	}
+
 	public double getTotalFoodCalories() {
-		// Loop through all foods and calculate the total calories
-		double sum = 0;
+		return totalCalories;
+	}
 
-		for (int i = 0; i < foods.size(); i++) {
-			sum += foods.get(i).getCalories();
-		}
+	public double getTotalCarbohydrates() {
+		return totalCarbohydrates;
+	}
 
-		return sum;
+	public double getTotalProteins() {
+		return totalProteins;
+	}
+
+	public double getTotalFats() {
+		return totalFats;
 	}
 	
 	public double getTotalExerciseCalories() {
-		double sum = 0;
-		
-		for(int i=0; i <exercises.size(); i++) {
-			sum += exercises.get(i).getCaloriesBurned();
-		}
-		
-		return sum;
+		return totalCaloriesBurned;
 	}
 
 	@Override
@@ -131,7 +258,13 @@ public class Day implements Comparable<Day> {
 
 			// Check if these are the same objects
 			if (exercises.get(i).equals(exercise)) {
-				return exercises.remove(exercise);
+				exercises.remove(i);
+				totalCaloriesBurned = exercises.isEmpty() ? 0 : totalCaloriesBurned - exercise.getCaloriesBurned();
+
+				if (listener != null)
+					listener.exerciseDeleted(this, i);
+
+				return true;
 			}
 
 		}
@@ -0,0 +1,834 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of every change made to the days of a DayStore
+ *
+ * Records are encoded on the calling thread and handed over to a single writer
+ * thread, which writes everything that is pending and then syncs the file once
+ * (group commit), so adding an entry never waits on the disk.
+ *
+ * The journal is split into numbered segment files inside a directory. Once the
+ * current segment grows past the segment size it is closed, a new one is
+ * started and a background thread folds the closed segments into a snapshot
+ * (see DaySnapshot), after which those segments are deleted. Starting up loads
+ * the latest snapshot and only replays the segments written after it. Every
+ * snapshot comes with a HistoryFile of the daily totals for analytics, in which
+ * each compaction patches the days its segments changed.
+ *
+ * Record layout: [int length][int crc32][byte type][int epochDay][values...]
+ */
+public class DayJournal implements DayListener {
+
+	// Record types
+	static final byte ADD_FOOD = 1, DELETE_FOOD = 2, UPDATE_FOOD = 3;
+	static final byte ADD_EXERCISE = 4, DELETE_EXERCISE = 5, UPDATE_EXERCISE = 6;
+
+	// Size of the length and crc32 before every record
+	private static final int HEADER = 8;
+
+	// Queued last by close() to stop the writer thread
+	private static final ByteBuffer CLOSE = ByteBuffer.allocate(0);
+
+	// Default size a segment can reach before it is compacted into a snapshot
+	public static final long SEGMENT_SIZE = 4L * 1024 * 1024;
+
+	private static final String SEGMENT = "journal-", SEGMENT_EXT = ".log";
+	private static final String SNAPSHOT = "snapshot-", SNAPSHOT_EXT = ".dat";
+	private static final String HISTORY = "history-", HISTORY_EXT = ".dat";
+
+	private final Path directory;
+	private final long segmentSize;
+
+	// Current segment, only used by the writer thread once replay has started it
+	private FileChannel channel;
+	private long segment;
+
+	private final LinkedBlockingQueue<ByteBuffer> pending = new LinkedBlockingQueue<ByteBuffer>();
+	private final Thread writer;
+	// Writes snapshots of closed segments
+	private final ExecutorService compactor;
+
+	// Amount of records handed to the writer and amount it handled (written + synced, or kept to retry)
+	private long appended = 0, synced = 0;
+	private boolean closed = false;
+	// Why records are waiting to be written again (reported by flush), null once they are written
+	private IOException failure;
+
+	// How often records that couldn't be written are tried again while nothing new is appended
+	private static final long RETRY_MILLIS = 1000;
+
+	// Epoch-days changed by the segments replayed on top of the snapshot
+	private final TreeSet<Long> replayed = new TreeSet<Long>();
+
+	public DayJournal(Path directory) throws IOException {
+		this(directory, SEGMENT_SIZE);
+	}
+
+	/**
+	 * Opens (or creates) the journal directory, nothing is written until replay
+	 * has been called
+	 *
+	 * @param directory
+	 *            where segments and snapshots are stored
+	 * @param segmentSize
+	 *            size in bytes a segment can reach before it is compacted
+	 * @throws IOException
+	 */
+	public DayJournal(Path directory, long segmentSize) throws IOException {
+		if (segmentSize <= 0)
+			throw new IllegalArgumentException("Invalid segment size!");
+
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+
+		Files.createDirectories(directory);
+
+		// Left behind if we crashed while writing a snapshot
+		for (Path tmp : list("", ".tmp")) {
+			Files.deleteIfExists(tmp);
+		}
+
+		writer = new Thread(this::writeLoop, "day-journal");
+		writer.setDaemon(true);
+
+		compactor = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "day-journal-compactor");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+	/**
+	 * Loads the latest snapshot into the store and applies every record written
+	 * after it, then starts recording. Must be called once before this journal is
+	 * added as a listener of the store (or replayed changes would be journaled
+	 * again)
+	 *
+	 * @param store
+	 * @return the amount of journal records replayed (on top of the snapshot)
+	 * @throws IOException
+	 */
+	public int replay(DayStore store) throws IOException {
+		if (writer.isAlive() || closed)
+			throw new IllegalStateException("Journal was already replayed!");
+
+		long snapshot = latestSnapshot();
+		if (snapshot >= 0) {
+			DaySnapshot.load(snapshotPath(snapshot), store);
+		}
+
+		int count = 0;
+		long last = snapshot;
+
+		for (long seq : sequences(SEGMENT, SEGMENT_EXT)) {
+			if (seq <= snapshot) {
+				// Already inside the snapshot, we crashed before deleting it
+				Files.deleteIfExists(segmentPath(seq));
+			} else {
+				count += replaySegment(segmentPath(seq), store, true, replayed);
+				last = seq;
+			}
+		}
+
+		// Continue writing into the newest segment, or start the one after the snapshot
+		segment = last > snapshot ? last : snapshot + 1;
+		channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+
+		writer.start();
+
+		return count;
+	}
+
+	/**
+	 * @return the epoch-days changed by the records replayed on top of the
+	 *         snapshot, which the history of the snapshot doesn't include yet
+	 */
+	public Set<Long> getReplayedDays() {
+		return Collections.unmodifiableSet(replayed);
+	}
+
+	/**
+	 * Applies every record of a segment file to the store
+	 *
+	 * @param repair
+	 *            cut off a torn record at the end of the file (crash while
+	 *            writing), so new records follow the last valid one
+	 * @param changed
+	 *            receives the epoch-day of every record
+	 * @return the amount of records replayed
+	 */
+	private static int replaySegment(Path file, DayStore store, boolean repair, Set<Long> changed)
+			throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = in.size();
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining()) {
+				if (in.read(buffer, buffer.position()) < 0)
+					break;
+			}
+			buffer.flip();
+
+			int count = 0;
+			long valid = 0;
+			CRC32 crc = new CRC32();
+
+			while (buffer.remaining() >= HEADER) {
+				int length = buffer.getInt();
+				int checksum = buffer.getInt();
+
+				if (length <= 0 || length > buffer.remaining())
+					break;
+
+				ByteBuffer record = buffer.slice();
+				record.limit(length);
+
+				crc.reset();
+				crc.update(record.duplicate());
+				if ((int) crc.getValue() != checksum)
+					break;
+
+				// Type, then the epoch-day
+				changed.add((long) record.getInt(record.position() + 1));
+				apply(store, record);
+
+				buffer.position(buffer.position() + length);
+				valid = buffer.position();
+				count++;
+			}
+
+			if (repair && valid < size) {
+				long truncated = valid;
+				Log.warn(() -> "Journal had a torn record, truncating " + file.getFileName() + " at: " + truncated);
+				in.truncate(valid);
+			}
+
+			return count;
+		}
+	}
+
+	/**
+	 * Applies a single record to the store
+	 */
+	static void apply(DayStore store, ByteBuffer record) {
+		byte type = record.get();
+		Day day = store.getDay(LocalDate.ofEpochDay(record.getInt()));
+
+		try {
+			switch (type) {
+			case ADD_FOOD:
+				day.addFood(readFood(record));
+				break;
+			case DELETE_FOOD:
+				day.deleteFood(day.getFoods().get(record.getInt()));
+				break;
+			case UPDATE_FOOD:
+				Food food = day.getFoods().get(record.getInt());
+				Food changedFood = new Food(food.getName(), readValues(record));
+				day.setFood(food, changedFood, record.getDouble());
+				break;
+			case ADD_EXERCISE:
+				Exercise exercise = new Exercise(readName(record));
+				readExercise(record, exercise);
+				day.addExercise(exercise);
+				break;
+			case DELETE_EXERCISE:
+				day.deleteExercise(day.getExercises().get(record.getInt()));
+				break;
+			case UPDATE_EXERCISE:
+				Exercise stored = day.getExercises().get(record.getInt());
+				Exercise changedExercise = new Exercise(stored.getName());
+				readExercise(record, changedExercise);
+				day.setExercise(stored, changedExercise);
+				break;
+			default:
+				Log.warn(() -> "Unknown journal record type: " + type);
+			}
+		} catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+			// Skip records that don't match the replayed days instead of losing the rest
+			Log.warn(() -> "Skipping invalid journal record for " + day.getDate() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Waits until every record appended so far is written and synced to disk
+	 *
+	 * @throws IOException
+	 *             if records couldn't be written, they are kept and written
+	 *             again with the next ones (or at least once more by close)
+	 */
+	public synchronized void flush() throws IOException {
+		long target = appended;
+
+		while (synced < target) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Flushes the pending records, stops the writer thread, compacts the segments
+	 * and closes the file
+	 *
+	 * @throws IOException
+	 *             if records still couldn't be written, they are lost
+	 */
+	public void close() throws IOException {
+		synchronized (this) {
+			if (closed)
+				return;
+
+			closed = true;
+			pending.add(CLOSE);
+		}
+
+		try {
+			if (writer.isAlive()) {
+				writer.join();
+
+				// Compact what was written this session so the next start only loads a snapshot
+				if (channel.size() > 0) {
+					long last = segment;
+					compactor.execute(() -> compact(last));
+				}
+			}
+
+			// Let the compaction finish its snapshot
+			compactor.shutdown();
+			compactor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (channel != null)
+			channel.close();
+
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Waits for the snapshot of the segments closed so far to be written (mainly
+	 * useful for tests)
+	 */
+	public void awaitCompaction() {
+		try {
+			compactor.submit(() -> {
+			}).get();
+		} catch (Exception e) {
+			Log.error("Couldn't wait for the compaction", e);
+		}
+	}
+
+	/**
+	 * Runs on the writer thread, writes every pending record and syncs once per
+	 * batch
+	 *
+	 * A batch that couldn't be written is cut off the segment again and kept, it
+	 * is written before the next records (or retried every RETRY_MILLIS) so a
+	 * failed write never drops records or reorders them
+	 */
+	private void writeLoop() {
+		// Records that couldn't be written yet, followed by the new ones
+		ArrayList<ByteBuffer> batch = new ArrayList<ByteBuffer>();
+		boolean running = true;
+
+		while (running) {
+			int retried = batch.size();
+
+			try {
+				if (retried == 0) {
+					batch.add(pending.take());
+				} else {
+					ByteBuffer next = pending.poll(RETRY_MILLIS, TimeUnit.MILLISECONDS);
+					if (next != null)
+						batch.add(next);
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+			pending.drainTo(batch);
+
+			// Nothing can be queued after the close marker
+			if (batch.size() > retried && batch.get(batch.size() - 1) == CLOSE) {
+				batch.remove(batch.size() - 1);
+				running = false;
+			}
+			int added = batch.size() - retried;
+
+			TrackerEvents.JournalFlush event = new TrackerEvents.JournalFlush();
+			event.begin();
+
+			IOException error = null;
+			long bytes = 0;
+			try {
+				bytes = write(batch);
+			} catch (IOException | RuntimeException e) {
+				error = e instanceof IOException ? (IOException) e : new IOException(e);
+				Log.error("Couldn't write " + batch.size() + " journal records, they are written again with the next ones", e);
+			}
+
+			synchronized (this) {
+				if (error == null)
+					failure = null;
+				else if (running)
+					failure = new IOException(batch.size() + " journal records couldn't be written yet", error);
+				else
+					failure = new IOException(batch.size() + " journal records couldn't be written and are lost", error);
+				synced += added;
+				notifyAll();
+			}
+
+			if (error == null) {
+				boolean rolled = rollIfFull();
+				event.end(batch.size(), bytes, rolled);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Writes and syncs the records at the end of the segment, on failure the
+	 * segment is cut back to where they started and the records can be written
+	 * again
+	 *
+	 * @return amount of bytes written
+	 */
+	private long write(ArrayList<ByteBuffer> batch) throws IOException {
+		long start = channel.size();
+		ByteBuffer[] buffers = batch.toArray(new ByteBuffer[batch.size()]);
+
+		long bytes = 0;
+		for (ByteBuffer b : buffers) {
+			b.rewind();
+			bytes += b.remaining();
+		}
+
+		try {
+			channel.position(start);
+
+			long remaining = bytes;
+			while (remaining > 0) {
+				remaining -= channel.write(buffers);
+			}
+
+			channel.force(false);
+			return bytes;
+		} catch (IOException | RuntimeException e) {
+			// Don't leave half a batch in front of its retry
+			try {
+				channel.truncate(start);
+			} catch (IOException truncate) {
+				e.addSuppressed(truncate);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Runs on the writer thread, rolls over to the next segment once the current
+	 * one is full (tried again after the next batch if it fails)
+	 *
+	 * @return whether a new segment was started
+	 */
+	private boolean rollIfFull() {
+		try {
+			if (channel.size() < segmentSize)
+				return false;
+
+			roll();
+			return true;
+		} catch (IOException e) {
+			Log.error("Couldn't start the next journal segment", e);
+			return false;
+		}
+	}
+
+	/**
+	 * Runs on the writer thread, closes the current segment and starts the next
+	 * one, the closed segment is then compacted in the background
+	 */
+	private void roll() throws IOException {
+		// Opened first, so a failure leaves the current segment in use
+		FileChannel next = FileChannel.open(segmentPath(segment + 1), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		channel.close();
+		channel = next;
+
+		long closedSegment = segment;
+		segment++;
+
+		compactor.execute(() -> compact(closedSegment));
+	}
+
+	/**
+	 * Runs on the compactor thread, writes a snapshot containing every segment up
+	 * to (and including) upTo then deletes those segments and older snapshots
+	 *
+	 * The segments are replayed into a private store, so the days used by the GUI
+	 * are never touched from this thread
+	 */
+	private void compact(long upTo) {
+		TrackerEvents.Compaction event = new TrackerEvents.Compaction();
+		event.begin();
+
+		try {
+			DayStore store = new DayStore();
+
+			long previous = latestSnapshot();
+			if (previous >= upTo)
+				return;
+
+			if (previous >= 0) {
+				DaySnapshot.load(snapshotPath(previous), store);
+			}
+
+			TreeSet<Long> changed = new TreeSet<Long>();
+			for (long seq : sequences(SEGMENT, SEGMENT_EXT)) {
+				if (seq > previous && seq <= upTo) {
+					replaySegment(segmentPath(seq), store, false, changed);
+				}
+			}
+
+			// Only the changed days are patched into the history, unless it has to be written again
+			long history = latestHistory();
+			if (history < 0 || !HistoryFile.update(store, changed, historyPath(history), previous, upTo)) {
+				// Each file either appears complete or not at all
+				history = upTo;
+				Files.deleteIfExists(historyPath(history));
+				HistoryFile.write(store, historyPath(history), upTo);
+			}
+			DaySnapshot.write(store, snapshotPath(upTo));
+
+			// Everything up to here is now inside the snapshot
+			for (long seq : sequences(SEGMENT, SEGMENT_EXT)) {
+				if (seq <= upTo)
+					Files.deleteIfExists(segmentPath(seq));
+			}
+			for (long seq : sequences(SNAPSHOT, SNAPSHOT_EXT)) {
+				if (seq < upTo)
+					deleteQuietly(snapshotPath(seq));
+			}
+			for (long seq : sequences(HISTORY, HISTORY_EXT)) {
+				if (seq < history)
+					deleteQuietly(historyPath(seq));
+			}
+
+			event.end(upTo, store.size());
+		} catch (IOException | RuntimeException e) {
+			// The segments are kept, the next compaction includes them again
+			Log.error("Couldn't compact the journal up to segment " + upTo, e);
+		}
+	}
+
+	/**
+	 * Old snapshots might still be memory mapped (Windows refuses to delete
+	 * those), they will be removed by a later compaction instead
+	 */
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			Log.warn(() -> "Couldn't delete " + file.getFileName() + " yet");
+		}
+	}
+
+	/*
+	 *
+	 * Files
+	 *
+	 */
+
+	private Path segmentPath(long seq) {
+		return directory.resolve(SEGMENT + seq + SEGMENT_EXT);
+	}
+
+	private Path snapshotPath(long seq) {
+		return directory.resolve(SNAPSHOT + seq + SNAPSHOT_EXT);
+	}
+
+	private Path historyPath(long seq) {
+		return directory.resolve(HISTORY + seq + HISTORY_EXT);
+	}
+
+	/**
+	 * Maps the history file of the latest snapshot, it contains everything up to
+	 * the last compaction (which always happens when the journal is closed) but
+	 * not the replayed days (see getReplayedDays)
+	 *
+	 * @return the history or null if nothing was compacted yet, or the history
+	 *         doesn't match the snapshot (it is written again by the next
+	 *         compaction)
+	 * @throws IOException
+	 */
+	public HistoryFile openHistory() throws IOException {
+		long snapshot = latestSnapshot();
+		long seq = latestHistory();
+
+		if (snapshot < 0 || seq < 0)
+			return null;
+
+		HistoryFile history = HistoryFile.open(historyPath(seq));
+		return history.getSnapshot() == snapshot ? history : null;
+	}
+
+	/**
+	 * @return sequence of the newest history file or -1 if there isn't any
+	 */
+	private long latestHistory() throws IOException {
+		ArrayList<Long> histories = sequences(HISTORY, HISTORY_EXT);
+		return histories.isEmpty() ? -1 : histories.get(histories.size() - 1);
+	}
+
+	/**
+	 * @return sequence of the newest snapshot or -1 if there isn't any
+	 */
+	private long latestSnapshot() throws IOException {
+		ArrayList<Long> snapshots = sequences(SNAPSHOT, SNAPSHOT_EXT);
+		return snapshots.isEmpty() ? -1 : snapshots.get(snapshots.size() - 1);
+	}
+
+	/**
+	 * @return the sorted sequence numbers of files named prefix + number + ext
+	 */
+	private ArrayList<Long> sequences(String prefix, String ext) throws IOException {
+		ArrayList<Long> seqs = new ArrayList<Long>();
+
+		for (Path file : list(prefix, ext)) {
+			String name = file.getFileName().toString();
+			try {
+				seqs.add(Long.parseLong(name.substring(prefix.length(), name.length() - ext.length())));
+			} catch (NumberFormatException e) {
+				// Not one of ours
+			}
+		}
+
+		Collections.sort(seqs);
+		return seqs;
+	}
+
+	private ArrayList<Path> list(String prefix, String ext) throws IOException {
+		ArrayList<Path> files = new ArrayList<Path>();
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, prefix + "*" + ext)) {
+			for (Path file : stream) {
+				files.add(file);
+			}
+		}
+
+		return files;
+	}
+
+	private synchronized void append(ByteBuffer record) {
+		if (closed)
+			throw new IllegalStateException("Journal is closed!");
+
+		appended++;
+		pending.add(record);
+	}
+
+	/*
+	 *
+	 * Encoding
+	 *
+	 */
+
+	/**
+	 * Creates a buffer for a record and writes its type and day
+	 *
+	 * @param size
+	 *            amount of bytes needed for the values
+	 */
+	private static ByteBuffer begin(byte type, Day day, int size) {
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER + 5 + size);
+		buffer.position(HEADER);
+		buffer.put(type);
+		buffer.putInt((int) day.getDate().toEpochDay());
+		return buffer;
+	}
+
+	/**
+	 * Fills in the length/crc32 header and queues the record
+	 */
+	private void end(ByteBuffer buffer) {
+		int length = buffer.position() - HEADER;
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER, length);
+
+		buffer.putInt(0, length);
+		buffer.putInt(4, (int) crc.getValue());
+		buffer.flip();
+
+		append(buffer);
+	}
+
+	private static byte[] nameBytes(Item item) {
+		byte[] bytes = item.getName().getBytes(StandardCharsets.UTF_8);
+
+		if (bytes.length > 0xFFFF)
+			throw new IllegalArgumentException("Name too long to journal!");
+
+		return bytes;
+	}
+
+	static void writeName(ByteBuffer buffer, byte[] name) {
+		buffer.putShort((short) name.length);
+		buffer.put(name);
+	}
+
+	static String readName(ByteBuffer buffer) {
+		byte[] name = new byte[buffer.getShort() & 0xFFFF];
+		buffer.get(name);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Writes the original (per amount) values of a food
+	 */
+	static void writeValues(ByteBuffer buffer, Food food) {
+		buffer.putDouble(food.getOgAmount());
+		buffer.putDouble(food.getOgCarbohydrates());
+		buffer.putDouble(food.getOgProteins());
+		buffer.putDouble(food.getOgFats());
+	}
+
+	/**
+	 * @return {amount, carbs, protein, fats}
+	 */
+	static double[] readValues(ByteBuffer buffer) {
+		return new double[] { buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble() };
+	}
+
+	static Food readFood(ByteBuffer buffer) {
+		String name = readName(buffer);
+		double[] values = readValues(buffer);
+		double quantity = buffer.getDouble();
+		boolean custom = buffer.get() == 1;
+
+		return createFood(name, values, quantity, custom);
+	}
+
+	/**
+	 * Recreates a food which was stored on a day
+	 *
+	 * @param values
+	 *            {amount, carbs, protein, fats}
+	 */
+	static Food createFood(String name, double[] values, double quantity, boolean custom) {
+		Food food = new Food(name, values);
+		food.setQuantity(quantity);
+
+		if (custom) {
+			food.setCustom(true);
+			// setCustom adds (custom) to the name, which the stored name already has
+			food.setName(name);
+		}
+
+		return food;
+	}
+
+	static void writeExercise(ByteBuffer buffer, Exercise exercise) {
+		buffer.putInt(exercise.getReps());
+		buffer.putInt(exercise.getSets());
+		buffer.putDouble(exercise.getWeight());
+		buffer.putDouble(exercise.getCaloriesBurned());
+		buffer.put((byte) (exercise.getCustom() ? 1 : 0));
+	}
+
+	static void readExercise(ByteBuffer buffer, Exercise exercise) {
+		exercise.setReps(buffer.getInt());
+		exercise.setSets(buffer.getInt());
+		exercise.setWeight(buffer.getDouble());
+		exercise.setCaloriesBurned(buffer.getDouble());
+		exercise.setCustom(buffer.get() == 1);
+	}
+
+	/*
+	 *
+	 * DayListener methods, each change is encoded into a record
+	 *
+	 */
+	@Override
+	public void foodAdded(Day day, Food food) {
+		byte[] name = nameBytes(food);
+
+		ByteBuffer buffer = begin(ADD_FOOD, day, 2 + name.length + 41);
+		writeName(buffer, name);
+		writeValues(buffer, food);
+		buffer.putDouble(food.getQuantity());
+		buffer.put((byte) (food.getCustom() ? 1 : 0));
+		end(buffer);
+	}
+
+	@Override
+	public void foodDeleted(Day day, int index) {
+		ByteBuffer buffer = begin(DELETE_FOOD, day, 4);
+		buffer.putInt(index);
+		end(buffer);
+	}
+
+	@Override
+	public void foodUpdated(Day day, int index) {
+		Food food = day.getFoods().get(index);
+
+		ByteBuffer buffer = begin(UPDATE_FOOD, day, 44);
+		buffer.putInt(index);
+		writeValues(buffer, food);
+		buffer.putDouble(food.getQuantity());
+		end(buffer);
+	}
+
+	@Override
+	public void exerciseAdded(Day day, Exercise exercise) {
+		byte[] name = nameBytes(exercise);
+
+		ByteBuffer buffer = begin(ADD_EXERCISE, day, 2 + name.length + 25);
+		writeName(buffer, name);
+		writeExercise(buffer, exercise);
+		end(buffer);
+	}
+
+	@Override
+	public void exerciseDeleted(Day day, int index) {
+		ByteBuffer buffer = begin(DELETE_EXERCISE, day, 4);
+		buffer.putInt(index);
+		end(buffer);
+	}
+
+	@Override
+	public void exerciseUpdated(Day day, int index) {
+		ByteBuffer buffer = begin(UPDATE_EXERCISE, day, 29);
+		buffer.putInt(index);
+		writeExercise(buffer, day.getExercises().get(index));
+		end(buffer);
+	}
+}
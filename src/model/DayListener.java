@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * Notified whenever the foods or exercises of a Day change, indexes refer to the
+ * position inside Day.getFoods()/Day.getExercises()
+ */
+public interface DayListener {
+
+	public void foodAdded(Day day, Food food);
+
+	public void foodDeleted(Day day, int index);
+
+	/**
+	 * The quantity or values of the food at index changed
+	 */
+	public void foodUpdated(Day day, int index);
+
+	public void exerciseAdded(Day day, Exercise exercise);
+
+	public void exerciseDeleted(Day day, int index);
+
+	/**
+	 * The values of the exercise at index changed
+	 */
+	public void exerciseUpdated(Day day, int index);
+}
@@ -0,0 +1,292 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Full copy of the days of a DayStore, written by the DayJournal compaction
+ *
+ * Values are stored column by column (all epoch-days, then all food amounts,
+ * then all food carbs...) so loading is a handful of bulk reads from a memory
+ * mapped file. Names are stored once in a name table and referenced by index.
+ *
+ * Layout: header, day columns, food columns, exercise columns, name table,
+ * crc32 of everything before it
+ */
+public class DaySnapshot {
+
+	private static final int MAGIC = 0x43545331; // CTS1
+	private static final int VERSION = 1;
+	// magic, version, days, foods, exercises, names
+	private static final int HEADER = 24;
+
+	private DaySnapshot() {
+
+	}
+
+	/**
+	 * Writes every day of the store into file, the snapshot is written to a
+	 * temporary file first and then atomically renamed, so file is either missing
+	 * or complete
+	 *
+	 * @param store
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void write(DayStore store, Path file) throws IOException {
+		ArrayList<Day> days = new ArrayList<Day>(store.getDays());
+
+		int foodCount = 0, exerciseCount = 0;
+		for (Day day : days) {
+			foodCount += day.getFoods().size();
+			exerciseCount += day.getExercises().size();
+		}
+
+		// Intern names so repeated foods/exercises are only stored once
+		HashMap<String, Integer> nameIndex = new HashMap<String, Integer>();
+		ArrayList<byte[]> names = new ArrayList<byte[]>();
+		int namesSize = 0;
+
+		int[] foodNames = new int[foodCount], exerciseNames = new int[exerciseCount];
+		int f = 0, e = 0;
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				foodNames[f++] = intern(food.getName(), nameIndex, names);
+			}
+			for (Exercise exercise : day.getExercises()) {
+				exerciseNames[e++] = intern(exercise.getName(), nameIndex, names);
+			}
+		}
+		for (byte[] name : names) {
+			namesSize += 2 + name.length;
+		}
+
+		int size = HEADER + (days.size() * 12) + (foodCount * 45) + (exerciseCount * 29) + namesSize + 4;
+		ByteBuffer buffer = ByteBuffer.allocate(size);
+
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(days.size());
+		buffer.putInt(foodCount);
+		buffer.putInt(exerciseCount);
+		buffer.putInt(names.size());
+
+		// Day columns
+		for (Day day : days) {
+			buffer.putInt((int) day.getDate().toEpochDay());
+		}
+		for (Day day : days) {
+			buffer.putInt(day.getFoods().size());
+		}
+		for (Day day : days) {
+			buffer.putInt(day.getExercises().size());
+		}
+
+		// Food columns
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				buffer.putDouble(food.getOgAmount());
+			}
+		}
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				buffer.putDouble(food.getOgCarbohydrates());
+			}
+		}
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				buffer.putDouble(food.getOgProteins());
+			}
+		}
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				buffer.putDouble(food.getOgFats());
+			}
+		}
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				buffer.putDouble(food.getQuantity());
+			}
+		}
+		for (Day day : days) {
+			for (Food food : day.getFoods()) {
+				buffer.put((byte) (food.getCustom() ? 1 : 0));
+			}
+		}
+		for (int i = 0; i < foodCount; i++) {
+			buffer.putInt(foodNames[i]);
+		}
+
+		// Exercise columns
+		for (Day day : days) {
+			for (Exercise exercise : day.getExercises()) {
+				buffer.putInt(exercise.getReps());
+			}
+		}
+		for (Day day : days) {
+			for (Exercise exercise : day.getExercises()) {
+				buffer.putInt(exercise.getSets());
+			}
+		}
+		for (Day day : days) {
+			for (Exercise exercise : day.getExercises()) {
+				buffer.putDouble(exercise.getWeight());
+			}
+		}
+		for (Day day : days) {
+			for (Exercise exercise : day.getExercises()) {
+				buffer.putDouble(exercise.getCaloriesBurned());
+			}
+		}
+		for (Day day : days) {
+			for (Exercise exercise : day.getExercises()) {
+				buffer.put((byte) (exercise.getCustom() ? 1 : 0));
+			}
+		}
+		for (int i = 0; i < exerciseCount; i++) {
+			buffer.putInt(exerciseNames[i]);
+		}
+
+		// Name table
+		for (byte[] name : names) {
+			DayJournal.writeName(buffer, name);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), 0, buffer.position());
+		buffer.putInt((int) crc.getValue());
+		buffer.flip();
+
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			out.force(true);
+		}
+
+		Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static int intern(String name, HashMap<String, Integer> nameIndex, ArrayList<byte[]> names) {
+		Integer index = nameIndex.get(name);
+
+		if (index == null) {
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			if (bytes.length > 0xFFFF)
+				throw new IllegalArgumentException("Name too long to store!");
+
+			index = names.size();
+			nameIndex.put(name, index);
+			names.add(bytes);
+		}
+
+		return index;
+	}
+
+	/**
+	 * Loads the days of a snapshot into the store through a memory mapped buffer
+	 *
+	 * @param file
+	 * @param store
+	 * @throws IOException
+	 *             if the file isn't a valid snapshot
+	 */
+	public static void load(Path file, DayStore store) throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+
+			if (buffer.limit() < HEADER + 4 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+				throw new IOException("Not a snapshot: " + file.getFileName());
+
+			CRC32 crc = new CRC32();
+			ByteBuffer content = buffer.duplicate();
+			content.position(0).limit(buffer.limit() - 4);
+			crc.update(content);
+			if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4))
+				throw new IOException("Corrupt snapshot: " + file.getFileName());
+
+			int dayCount = buffer.getInt();
+			int foodCount = buffer.getInt();
+			int exerciseCount = buffer.getInt();
+			int nameCount = buffer.getInt();
+
+			int[] epochDays = ints(buffer, dayCount);
+			int[] foodsPerDay = ints(buffer, dayCount);
+			int[] exercisesPerDay = ints(buffer, dayCount);
+
+			double[] amounts = doubles(buffer, foodCount);
+			double[] carbs = doubles(buffer, foodCount);
+			double[] proteins = doubles(buffer, foodCount);
+			double[] fats = doubles(buffer, foodCount);
+			double[] quantities = doubles(buffer, foodCount);
+			byte[] foodCustom = bytes(buffer, foodCount);
+			int[] foodNames = ints(buffer, foodCount);
+
+			int[] reps = ints(buffer, exerciseCount);
+			int[] sets = ints(buffer, exerciseCount);
+			double[] weights = doubles(buffer, exerciseCount);
+			double[] burned = doubles(buffer, exerciseCount);
+			byte[] exerciseCustom = bytes(buffer, exerciseCount);
+			int[] exerciseNames = ints(buffer, exerciseCount);
+
+			String[] names = new String[nameCount];
+			for (int i = 0; i < nameCount; i++) {
+				names[i] = DayJournal.readName(buffer);
+			}
+
+			// Rebuild the days
+			int f = 0, e = 0;
+			for (int d = 0; d < dayCount; d++) {
+				Day day = store.getDay(LocalDate.ofEpochDay(epochDays[d]));
+
+				for (int end = f + foodsPerDay[d]; f < end; f++) {
+					double[] values = { amounts[f], carbs[f], proteins[f], fats[f] };
+					day.addFood(DayJournal.createFood(names[foodNames[f]], values, quantities[f], foodCustom[f] == 1));
+				}
+
+				for (int end = e + exercisesPerDay[d]; e < end; e++) {
+					Exercise exercise = new Exercise(names[exerciseNames[e]]);
+					exercise.setReps(reps[e]);
+					exercise.setSets(sets[e]);
+					exercise.setWeight(weights[e]);
+					exercise.setCaloriesBurned(burned[e]);
+					exercise.setCustom(exerciseCustom[e] == 1);
+					day.addExercise(exercise);
+				}
+			}
+		}
+	}
+
+	private static int[] ints(ByteBuffer buffer, int count) {
+		int[] values = new int[count];
+		buffer.asIntBuffer().get(values);
+		buffer.position(buffer.position() + (count * 4));
+		return values;
+	}
+
+	private static double[] doubles(ByteBuffer buffer, int count) {
+		double[] values = new double[count];
+		buffer.asDoubleBuffer().get(values);
+		buffer.position(buffer.position() + (count * 8));
+		return values;
+	}
+
+	private static byte[] bytes(ByteBuffer buffer, int count) {
+		byte[] values = new byte[count];
+		buffer.get(values);
+		return values;
+	}
+}
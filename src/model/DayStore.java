@@ -0,0 +1,221 @@
+package model;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+/**
+ * The days of a user, keyed by date
+ *
+ * Only days something was logged on are stored: getDay hands out an empty Day
+ * for any other date, which stores itself here once a food or exercise is added
+ * to it. Until then the store only keeps a weak reference to it, so everyone
+ * asking for the same date gets the same Day while it is in use. Memory and
+ * loading time grow with what was logged, not with the span of dates looked at.
+ */
+public class DayStore implements DayListener {
+
+	// Days keyed by their epoch-day, used for constant time lookups
+	private HashMap<Long, Day> days = new HashMap<Long, Day>();
+	// Same days kept in date order, used for iterating over a range of dates
+	private TreeMap<Long, Day> ordered = new TreeMap<Long, Day>();
+	// Empty days handed out by getDay, not stored until something is logged on them
+	private HashMap<Long, WeakReference<Day>> empty = new HashMap<Long, WeakReference<Day>>();
+	// Notified whenever a stored day changes
+	private ArrayList<DayListener> listeners = new ArrayList<DayListener>();
+
+	/**
+	 * Finds the Day of a date, or an empty one (only stored once a food or
+	 * exercise is added to it) if nothing was logged on that date
+	 *
+	 * @param date
+	 * @return the Day of the date
+	 */
+	public Day getDay(LocalDate date) {
+		long key = date.toEpochDay();
+		Day day = days.get(key);
+		if (day != null)
+			return day;
+
+		WeakReference<Day> handedOut = empty.get(key);
+		day = handedOut == null ? null : handedOut.get();
+
+		if (day == null) {
+			// Forget the empty days nobody uses anymore
+			empty.values().removeIf(ref -> ref.get() == null);
+
+			day = new Day(date);
+			day.setStore(this);
+			empty.put(key, new WeakReference<Day>(day));
+		}
+
+		return day;
+	}
+
+	/**
+	 * Finds the Day of a date without creating one
+	 *
+	 * @param date
+	 * @return the Day or null if nothing was stored on that date
+	 */
+	public Day find(LocalDate date) {
+		return days.get(date.toEpochDay());
+	}
+
+	/**
+	 * @return the Day of an epoch-day or null if nothing was stored on it
+	 */
+	public Day find(long epochDay) {
+		return days.get(epochDay);
+	}
+
+	public boolean contains(LocalDate date) {
+		return days.containsKey(date.toEpochDay());
+	}
+
+	/**
+	 * Stores a Day (even an empty one), only one Day can exist per date
+	 *
+	 * @param day
+	 */
+	public void add(Day day) {
+		long key = day.getDate().toEpochDay();
+
+		if (days.containsKey(key))
+			throw new IllegalArgumentException("Trying to add day: This date already exists!");
+
+		days.put(key, day);
+		ordered.put(key, day);
+		empty.remove(key);
+
+		day.setStore(null);
+		day.setListener(this);
+	}
+
+	/**
+	 * Returns the stored days between two dates (both inclusive) in date order
+	 *
+	 * @param start
+	 *            first date of the range
+	 * @param end
+	 *            last date of the range
+	 * @return days in date order
+	 */
+	public Collection<Day> range(LocalDate start, LocalDate end) {
+		return range(start.toEpochDay(), end.toEpochDay());
+	}
+
+	/**
+	 * Finds the days between two epoch-days (both inclusive)
+	 * 
+	 * @param start
+	 *            first epoch-day of the range
+	 * @param end
+	 *            last epoch-day of the range
+	 * @return days in date order
+	 */
+	public Collection<Day> range(long start, long end) {
+		if (start > end)
+			return new ArrayList<Day>();
+
+		return ordered.subMap(start, true, end, true).values();
+	}
+
+	/**
+	 * @return every stored day in date order
+	 */
+	public Collection<Day> getDays() {
+		return ordered.values();
+	}
+
+	/**
+	 * @return the earliest stored day, or null if there is none
+	 */
+	public Day first() {
+		return ordered.isEmpty() ? null : ordered.firstEntry().getValue();
+	}
+
+	/**
+	 * @return the latest stored day, or null if there is none
+	 */
+	public Day last() {
+		return ordered.isEmpty() ? null : ordered.lastEntry().getValue();
+	}
+
+	public int size() {
+		return days.size();
+	}
+
+	public void clear() {
+		for (Day day : days.values()) {
+			day.setListener(null);
+		}
+		for (WeakReference<Day> ref : empty.values()) {
+			Day day = ref.get();
+			if (day != null)
+				day.setStore(null);
+		}
+
+		days.clear();
+		ordered.clear();
+		empty.clear();
+	}
+
+	public void addListener(DayListener listener) {
+		listeners.add(listener);
+	}
+
+	public boolean removeListener(DayListener listener) {
+		return listeners.remove(listener);
+	}
+
+	/*
+	 * 
+	 * DayListener methods, passes changes of stored days on to our own listeners
+	 * 
+	 */
+	@Override
+	public void foodAdded(Day day, Food food) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).foodAdded(day, food);
+		}
+	}
+
+	@Override
+	public void foodDeleted(Day day, int index) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).foodDeleted(day, index);
+		}
+	}
+
+	@Override
+	public void foodUpdated(Day day, int index) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).foodUpdated(day, index);
+		}
+	}
+
+	@Override
+	public void exerciseAdded(Day day, Exercise exercise) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).exerciseAdded(day, exercise);
+		}
+	}
+
+	@Override
+	public void exerciseDeleted(Day day, int index) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).exerciseDeleted(day, index);
+		}
+	}
+
+	@Override
+	public void exerciseUpdated(Day day, int index) {
+		for (int i = 0; i < listeners.size(); i++) {
+			listeners.get(i).exerciseUpdated(day, index);
+		}
+	}
+}
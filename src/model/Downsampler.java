@@ -0,0 +1,18 @@
+package model;
+
+/**
+ * Picks the points of a chart line to draw when it has more than fit on the
+ * chart (i.e. a year or more of exercises)
+ */
+public interface Downsampler {
+
+	/**
+	 * @param data
+	 *            the points of one line, in date order
+	 * @param budget
+	 *            the most points to keep
+	 * @return the positions (0 to data.size() - 1) of the points to keep, in
+	 *         increasing order
+	 */
+	public int[] select(ExerciseChartData data, int budget);
+}
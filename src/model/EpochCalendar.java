@@ -0,0 +1,158 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+
+/**
+ * Week, month and year boundaries of epoch-days (days since 1970-01-01, as
+ * LocalDate.toEpochDay and the DayStore keys)
+ *
+ * Weeks are plain arithmetic on the epoch-day. Months and years are looked up
+ * in tables precomputed once for the years 1900 to 2199 (the day's month, and
+ * the first day of every month), dates outside of them fall back to LocalDate.
+ * Either way nothing depends on the time zone, and in the table range nothing
+ * is allocated.
+ *
+ * Period ids number the periods in order, so two days are in the same period
+ * when their ids are equal: weeks since the week holding 1970-01-01, year * 12
+ * + month - 1 and the year.
+ */
+public final class EpochCalendar {
+
+	// Periods
+	public static final int WEEK = 0, MONTH = 1, YEAR = 2;
+
+	private static final int FIRST_YEAR = 1900;
+	private static final int YEARS = 300;
+
+	private static final long FIRST_DAY = LocalDate.of(FIRST_YEAR, 1, 1).toEpochDay();
+	private static final long LAST_DAY = LocalDate.of(FIRST_YEAR + YEARS - 1, 12, 31).toEpochDay();
+
+	// Month (since January of FIRST_YEAR) of every day in the tables
+	private static final char[] MONTH_OF_DAY = new char[(int) (LAST_DAY - FIRST_DAY + 1)];
+	// First day of every month, and the day after the last month
+	private static final long[] MONTH_STARTS = new long[YEARS * 12 + 1];
+
+	static {
+		long day = FIRST_DAY;
+		for (int month = 0; month < YEARS * 12; month++) {
+			MONTH_STARTS[month] = day;
+
+			int length = LocalDate.of(FIRST_YEAR + month / 12, month % 12 + 1, 1).lengthOfMonth();
+			for (int i = 0; i < length; i++) {
+				MONTH_OF_DAY[(int) (day++ - FIRST_DAY)] = (char) month;
+			}
+		}
+		MONTH_STARTS[YEARS * 12] = day;
+	}
+
+	// One calendar per first day of the week
+	private static final EpochCalendar[] CALENDARS = new EpochCalendar[7];
+
+	static {
+		for (DayOfWeek first : DayOfWeek.values()) {
+			CALENDARS[first.ordinal()] = new EpochCalendar(first);
+		}
+	}
+
+	private final DayOfWeek firstDayOfWeek;
+	// Days from the start of the week holding epoch-day 0 (a Thursday) to it
+	private final int weekOffset;
+
+	private EpochCalendar(DayOfWeek firstDayOfWeek) {
+		this.firstDayOfWeek = firstDayOfWeek;
+		this.weekOffset = Math.floorMod(DayOfWeek.THURSDAY.getValue() - firstDayOfWeek.getValue(), 7);
+	}
+
+	/**
+	 * @return the calendar whose weeks start on the first day of the week of the
+	 *         locale (e.g. Monday in the UK, Sunday in the US)
+	 */
+	public static EpochCalendar of(Locale locale) {
+		return of(WeekFields.of(locale).getFirstDayOfWeek());
+	}
+
+	public static EpochCalendar of(DayOfWeek firstDayOfWeek) {
+		return CALENDARS[firstDayOfWeek.ordinal()];
+	}
+
+	public DayOfWeek getFirstDayOfWeek() {
+		return firstDayOfWeek;
+	}
+
+	private static void validatePeriod(int period) {
+		if (period < WEEK || period > YEAR)
+			throw new IllegalArgumentException("Unknown period: " + period);
+	}
+
+	private static boolean inTables(long epochDay) {
+		return epochDay >= FIRST_DAY && epochDay <= LAST_DAY;
+	}
+
+	/**
+	 * @return the id of the period an epoch-day is in
+	 */
+	public long periodId(long epochDay, int period) {
+		validatePeriod(period);
+
+		if (period == WEEK)
+			return Math.floorDiv(epochDay + weekOffset, 7);
+
+		long month;
+		if (inTables(epochDay)) {
+			month = FIRST_YEAR * 12L + MONTH_OF_DAY[(int) (epochDay - FIRST_DAY)];
+		} else {
+			LocalDate date = LocalDate.ofEpochDay(epochDay);
+			month = date.getYear() * 12L + date.getMonthValue() - 1;
+		}
+
+		return period == MONTH ? month : Math.floorDiv(month, 12);
+	}
+
+	/**
+	 * @return the first epoch-day of the period an epoch-day is in
+	 */
+	public long start(long epochDay, int period) {
+		validatePeriod(period);
+
+		if (period == WEEK)
+			return epochDay - Math.floorMod(epochDay + weekOffset, 7);
+
+		if (inTables(epochDay)) {
+			int month = MONTH_OF_DAY[(int) (epochDay - FIRST_DAY)];
+			return MONTH_STARTS[period == MONTH ? month : month - month % 12];
+		}
+
+		LocalDate date = LocalDate.ofEpochDay(epochDay);
+		return (period == MONTH ? date.withDayOfMonth(1) : date.withDayOfYear(1)).toEpochDay();
+	}
+
+	/**
+	 * @return the last epoch-day of the period an epoch-day is in
+	 */
+	public long end(long epochDay, int period) {
+		validatePeriod(period);
+
+		if (period == WEEK)
+			return start(epochDay, WEEK) + 6;
+
+		if (inTables(epochDay)) {
+			int month = MONTH_OF_DAY[(int) (epochDay - FIRST_DAY)];
+			return MONTH_STARTS[period == MONTH ? month + 1 : month - month % 12 + 12] - 1;
+		}
+
+		LocalDate date = LocalDate.ofEpochDay(epochDay);
+		return (period == MONTH ? date.withDayOfMonth(date.lengthOfMonth())
+				: date.withDayOfYear(date.lengthOfYear())).toEpochDay();
+	}
+
+	public LocalDate start(LocalDate date, int period) {
+		return LocalDate.ofEpochDay(start(date.toEpochDay(), period));
+	}
+
+	public LocalDate end(LocalDate date, int period) {
+		return LocalDate.ofEpochDay(end(date.toEpochDay(), period));
+	}
+}
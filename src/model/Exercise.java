@@ -1,7 +1,6 @@
 package model;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import javafx.beans.binding.StringBinding;
 
 public class Exercise extends Item {
 	
@@ -11,6 +10,9 @@ public class Exercise extends Item {
 	private double caloriesBurned;
 	private boolean custom;
 	
+	// Table cell texts, created when first shown
+	private CachedString strExercise, strSets, strReps, strWeight, strCaloriesBurned;
+	
 	/**
 	 * Constructor
 	 * @param name
@@ -95,6 +97,7 @@ public class Exercise extends Item {
 		this.sets = nums[1].intValue();
 		this.weight = nums[2].doubleValue();
 		this.caloriesBurned = nums[3].doubleValue();
+		refreshValues();
 	}
 	
 	public String[] getStrVals() {
@@ -110,24 +113,40 @@ public class Exercise extends Item {
 	
 	// TableView Getters
 	
-	public StringProperty getStrExercise() {
-		return new SimpleStringProperty(this.getName());
+	public StringBinding getStrExercise() {
+		if(strExercise == null) strExercise = new CachedString(() -> this.getName());
+		return strExercise;
 	}
 	
-	public StringProperty getStrSets() {
-		return new SimpleStringProperty(Integer.toString(sets));
+	public StringBinding getStrSets() {
+		if(strSets == null) strSets = new CachedString(() -> Integer.toString(sets));
+		return strSets;
 	}
 	
-	public StringProperty getStrReps() {
-		return new SimpleStringProperty(Integer.toString(reps));
+	public StringBinding getStrReps() {
+		if(strReps == null) strReps = new CachedString(() -> Integer.toString(reps));
+		return strReps;
 	}
 	
-	public StringProperty getStrWeight() {
-		return new SimpleStringProperty(Double.toString(weight));
+	public StringBinding getStrWeight() {
+		if(strWeight == null) strWeight = new CachedString(() -> Double.toString(weight));
+		return strWeight;
 	}
 	
-	public StringProperty getStrCaloriesBurned() {
-		return new SimpleStringProperty(Double.toString(caloriesBurned));
+	public StringBinding getStrCaloriesBurned() {
+		if(strCaloriesBurned == null) strCaloriesBurned = new CachedString(() -> Double.toString(caloriesBurned));
+		return strCaloriesBurned;
+	}
+	
+	/**
+	 * Lets the table cells (if any were created) know every value changed, the
+	 * name is left alone
+	 */
+	private void refreshValues() {
+		CachedString.refreshIfCreated(strSets);
+		CachedString.refreshIfCreated(strReps);
+		CachedString.refreshIfCreated(strWeight);
+		CachedString.refreshIfCreated(strCaloriesBurned);
 	}
 	
 	// Getters & Setters
@@ -146,6 +165,7 @@ public class Exercise extends Item {
 
 	public void setReps(int reps) {
 		this.reps = reps;
+		CachedString.refreshIfCreated(strReps);
 	}
 
 	public int getSets() {
@@ -154,6 +174,7 @@ public class Exercise extends Item {
 
 	public void setSets(int sets) {
 		this.sets = sets;
+		CachedString.refreshIfCreated(strSets);
 	}
 
 	public double getWeight() {
@@ -162,6 +183,7 @@ public class Exercise extends Item {
 
 	public void setWeight(double weight) {
 		this.weight = weight;
+		CachedString.refreshIfCreated(strWeight);
 	}
 
 	public double getCaloriesBurned() {
@@ -170,6 +192,7 @@ public class Exercise extends Item {
 
 	public void setCaloriesBurned(double caloriesBurned) {
 		this.caloriesBurned = caloriesBurned;
+		CachedString.refreshIfCreated(strCaloriesBurned);
 	}
 	
 	// toString
@@ -183,6 +206,13 @@ public class Exercise extends Item {
 		this.weight = exercise.getWeight();
 		this.caloriesBurned = exercise.getCaloriesBurned();
 		this.custom = exercise.getCustom();
+		refreshValues();
+	}
+	
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+		CachedString.refreshIfCreated(strExercise);
 	}
 
 
@@ -0,0 +1,110 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * An exercise chart of a date range, copied out of the engine so it can be
+ * built on any thread (see ComputeService): the days of the range and the
+ * points of every exercise in it
+ *
+ * Building reduces the lines with more points than the budget and works out the
+ * dates of the axis. Dates shown are every day of the range if they fit the
+ * budget, otherwise the days of the points kept and days spread evenly in
+ * between.
+ */
+public class ExerciseChart {
+
+	// Epoch-day of every stored day of the range, in order
+	private final long[] days;
+	private final ArrayList<ExerciseChartData> points;
+	private final int budget;
+	private final Downsampler downsampler;
+
+	// Built
+	private final ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+	private final ArrayList<ExerciseChartData> lines = new ArrayList<ExerciseChartData>();
+
+	ExerciseChart(long[] days, ArrayList<ExerciseChartData> points, int budget, Downsampler downsampler) {
+		this.days = days;
+		this.points = points;
+		this.budget = budget;
+		this.downsampler = downsampler;
+	}
+
+	/**
+	 * Works out the dates and lines of the chart, stops with a
+	 * CancellationException if the thread is interrupted
+	 *
+	 * @return this chart
+	 */
+	public ExerciseChart build() {
+		TrackerEvents.ChartBuild event = new TrackerEvents.ChartBuild();
+		event.begin();
+
+		dates.clear();
+		lines.clear();
+
+		int count = 0;
+
+		for (ExerciseChartData line : points) {
+			if (Thread.currentThread().isInterrupted())
+				throw new CancellationException();
+
+			ExerciseChartData kept = line.downsample(downsampler, budget);
+			lines.add(kept);
+			count += kept.size();
+		}
+		int pointsKept = count;
+
+		if (days.length <= budget) {
+			for (long day : days) {
+				dates.add(LocalDate.ofEpochDay(day));
+			}
+
+			event.end("exercises", lines.size(), pointsKept, dates.size());
+			return this;
+		}
+
+		// Rounded up, so no more than budget days are spread in between
+		int step = (days.length + budget - 1) / budget;
+
+		long[] shown = new long[count + (days.length + step - 1) / step];
+		count = 0;
+
+		for (ExerciseChartData line : lines) {
+			for (int i = 0; i < line.size(); i++) {
+				shown[count++] = line.getEpochDay(i);
+			}
+		}
+
+		for (int i = 0; i < days.length; i += step) {
+			shown[count++] = days[i];
+		}
+
+		Arrays.sort(shown, 0, count);
+		for (int d = 0; d < count; d++) {
+			if (d == 0 || shown[d] != shown[d - 1])
+				dates.add(LocalDate.ofEpochDay(shown[d]));
+		}
+
+		event.end("exercises", lines.size(), pointsKept, dates.size());
+		return this;
+	}
+
+	/**
+	 * @return the dates shown on the axis, in order (once built)
+	 */
+	public ArrayList<LocalDate> getDates() {
+		return dates;
+	}
+
+	/**
+	 * @return the line of every exercise (once built)
+	 */
+	public ArrayList<ExerciseChartData> getLines() {
+		return lines;
+	}
+}
@@ -1,34 +1,94 @@
 package model;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-
-public class ExerciseChartData{
-	
-	String exerciseName;
-	private ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
-	private ArrayList<Double> values = new ArrayList<Double>();
-	
-	public ExerciseChartData(String name, ArrayList<LocalDate> dates, ArrayList<Double> values) {
-		this.exerciseName = name;
-		this.dates = dates;
-		this.values = values;
-	}
-	
-	public void addChartData(LocalDate date, double value) {
-		this.dates.add(date);
-		this.values.add(value);
-	}
-	
+
+/**
+ * The points of one exercise shown on a chart: a range [from, to) of its
+ * ExerciseSeries or some of its points (once downsampled), nothing is copied
+ */
+public class ExerciseChartData {
+
+	private final ExerciseSeries series;
+	private final int from, to;
+
+	// Series indexes of the points, null for every point of the range
+	private final int[] points;
+
+	public ExerciseChartData(ExerciseSeries series, int from, int to) {
+		this.series = series;
+		this.from = from;
+		this.to = to;
+		this.points = null;
+	}
+
+	private ExerciseChartData(ExerciseSeries series, int[] points) {
+		this.series = series;
+		this.from = 0;
+		this.to = points.length;
+		this.points = points;
+	}
+
 	public String getName() {
-		return this.exerciseName;
+		return series.getName();
+	}
+
+	public int size() {
+		return to - from;
 	}
-	
-	public ArrayList<LocalDate> getDates() {
-		return this.dates;
+
+	// Series index of the point at position i
+	private int index(int i) {
+		return points == null ? from + i : points[i];
+	}
+
+	public long getEpochDay(int i) {
+		return series.getEpochDay(index(i));
 	}
-	
-	public ArrayList<Double> getValues(){
-		return this.values;
+
+	public LocalDate getDate(int i) {
+		return series.getDate(index(i));
+	}
+
+	public double getValue(int i) {
+		return series.getWeight(index(i));
+	}
+
+	/**
+	 * @return the same points in a series of their own, unaffected by later
+	 *         changes of the exercise
+	 */
+	public ExerciseChartData copy() {
+		int size = size();
+		long[] days = new long[size];
+		double[] weights = new double[size];
+
+		for (int i = 0; i < size; i++) {
+			days[i] = getEpochDay(i);
+			weights[i] = getValue(i);
+		}
+
+		return new ExerciseChartData(new ExerciseSeries(series.getName(), days, weights, size), 0, size);
+	}
+
+	/**
+	 * Reduces the points to at most budget, or returns these points if they
+	 * already fit
+	 *
+	 * @param downsampler
+	 * @param budget
+	 * @return
+	 */
+	public ExerciseChartData downsample(Downsampler downsampler, int budget) {
+		if (size() <= budget)
+			return this;
+
+		int[] positions = downsampler.select(this, budget);
+		int[] selected = new int[positions.length];
+
+		for (int i = 0; i < positions.length; i++) {
+			selected[i] = index(positions[i]);
+		}
+
+		return new ExerciseChartData(series, selected);
 	}
 }
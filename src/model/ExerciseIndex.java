@@ -0,0 +1,158 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Time series of every exercise logged on the days of a DayStore, keyed by the
+ * exercise name (which is what identifies an exercise across days)
+ *
+ * The index listens to the store, so adding, editing or deleting an exercise
+ * only inserts, changes or removes its one point. A chart of any range is then
+ * a binary search per exercise instead of a walk over the days.
+ */
+public class ExerciseIndex implements DayListener {
+
+	// Series by exercise name, and in the order the exercises were first logged
+	private final HashMap<String, ExerciseSeries> series = new HashMap<String, ExerciseSeries>();
+	private final ArrayList<ExerciseSeries> ordered = new ArrayList<ExerciseSeries>();
+
+	// Names of the exercises indexed on each epoch-day, in the order of the day
+	// (a deleted exercise is only known by its index)
+	private final HashMap<Long, ArrayList<String>> names = new HashMap<Long, ArrayList<String>>();
+
+	/**
+	 * Indexes the days already in the store and keeps itself up to date with the
+	 * store's changes
+	 *
+	 * @param store
+	 */
+	public ExerciseIndex(DayStore store) {
+		for (Day day : store.getDays()) {
+			for (Exercise exercise : day.getExercises()) {
+				exerciseAdded(day, exercise);
+			}
+		}
+
+		store.addListener(this);
+	}
+
+	/**
+	 * Forgets every indexed exercise
+	 */
+	public void clear() {
+		series.clear();
+		ordered.clear();
+		names.clear();
+	}
+
+	/**
+	 * @return the series of an exercise name, or null if it was never logged
+	 */
+	public ExerciseSeries getSeries(String name) {
+		return series.get(name);
+	}
+
+	/**
+	 * @return every series, in the order the exercises were first logged
+	 */
+	public List<ExerciseSeries> getSeries() {
+		return ordered;
+	}
+
+	/**
+	 * The points of every exercise between two epoch-days (both inclusive),
+	 * exercises without points in the range are left out
+	 *
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	public ArrayList<ExerciseChartData> slice(long start, long end) {
+		ArrayList<ExerciseChartData> slices = new ArrayList<ExerciseChartData>();
+
+		for (ExerciseSeries s : ordered) {
+			ExerciseChartData slice = s.slice(start, end);
+			if (slice.size() > 0)
+				slices.add(slice);
+		}
+
+		return slices;
+	}
+
+	/**
+	 * @return how many exercises of the same name come before index on the day
+	 */
+	private static int nth(ArrayList<String> dayNames, String name, int index) {
+		int nth = 0;
+		for (int i = 0; i < index; i++) {
+			if (dayNames.get(i).equals(name))
+				nth++;
+		}
+		return nth;
+	}
+
+	/*
+	 * 
+	 * DayListener methods
+	 * 
+	 */
+
+	@Override
+	public void foodAdded(Day day, Food food) {
+	}
+
+	@Override
+	public void foodDeleted(Day day, int index) {
+	}
+
+	@Override
+	public void foodUpdated(Day day, int index) {
+	}
+
+	@Override
+	public void exerciseAdded(Day day, Exercise exercise) {
+		long epochDay = day.getDate().toEpochDay();
+
+		ArrayList<String> dayNames = names.get(epochDay);
+		if (dayNames == null) {
+			dayNames = new ArrayList<String>();
+			names.put(epochDay, dayNames);
+		}
+
+		ExerciseSeries s = series.get(exercise.getName());
+		if (s == null) {
+			s = new ExerciseSeries(exercise.getName());
+			series.put(exercise.getName(), s);
+			ordered.add(s);
+		}
+
+		// Added exercises go to the end of the day
+		s.insert(epochDay, nth(dayNames, exercise.getName(), dayNames.size()), exercise.getWeight());
+		dayNames.add(exercise.getName());
+	}
+
+	@Override
+	public void exerciseDeleted(Day day, int index) {
+		long epochDay = day.getDate().toEpochDay();
+		ArrayList<String> dayNames = names.get(epochDay);
+
+		String name = dayNames.get(index);
+		series.get(name).remove(epochDay, nth(dayNames, name, index));
+		dayNames.remove(index);
+
+		if (dayNames.isEmpty())
+			names.remove(epochDay);
+	}
+
+	@Override
+	public void exerciseUpdated(Day day, int index) {
+		long epochDay = day.getDate().toEpochDay();
+		ArrayList<String> dayNames = names.get(epochDay);
+
+		// Only the values change, the name stays
+		String name = dayNames.get(index);
+		series.get(name).set(epochDay, nth(dayNames, name, index), day.getExercises().get(index).getWeight());
+	}
+}
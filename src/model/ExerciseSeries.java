@@ -0,0 +1,117 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Weights of one exercise over time, as two parallel primitive arrays sorted by
+ * epoch-day (an exercise done several times on one day has a point for each, in
+ * the order of the day)
+ *
+ * Kept up to date by an ExerciseIndex, a date range is found by binary search
+ */
+public class ExerciseSeries {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final String name;
+
+	private long[] days = new long[INITIAL_CAPACITY];
+	private double[] weights = new double[INITIAL_CAPACITY];
+	private int size;
+
+	ExerciseSeries(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * A series holding the given points, the arrays are not copied
+	 */
+	ExerciseSeries(String name, long[] days, double[] weights, int size) {
+		this.name = name;
+		this.days = days;
+		this.weights = weights;
+		this.size = size;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getEpochDay(int i) {
+		return days[i];
+	}
+
+	public LocalDate getDate(int i) {
+		return LocalDate.ofEpochDay(days[i]);
+	}
+
+	public double getWeight(int i) {
+		return weights[i];
+	}
+
+	/**
+	 * @return the first point on or after an epoch-day (size if there is none)
+	 */
+	public int lowerBound(long epochDay) {
+		int low = 0, high = size;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (days[middle] < epochDay)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+
+		return low;
+	}
+
+	/**
+	 * @return the points between two epoch-days (both inclusive)
+	 */
+	public ExerciseChartData slice(long start, long end) {
+		int from = lowerBound(start);
+		int to = Math.max(from, lowerBound(end + 1));
+		return new ExerciseChartData(this, from, to);
+	}
+
+	/**
+	 * Inserts a point after the given amount of points of the same day
+	 */
+	void insert(long epochDay, int nth, double weight) {
+		if (size == days.length) {
+			days = Arrays.copyOf(days, size * 2);
+			weights = Arrays.copyOf(weights, size * 2);
+		}
+
+		int i = lowerBound(epochDay) + nth;
+		System.arraycopy(days, i, days, i + 1, size - i);
+		System.arraycopy(weights, i, weights, i + 1, size - i);
+
+		days[i] = epochDay;
+		weights[i] = weight;
+		size++;
+	}
+
+	/**
+	 * Removes the nth point of a day
+	 */
+	void remove(long epochDay, int nth) {
+		int i = lowerBound(epochDay) + nth;
+		System.arraycopy(days, i + 1, days, i, size - i - 1);
+		System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+		size--;
+	}
+
+	/**
+	 * Changes the weight of the nth point of a day
+	 */
+	void set(long epochDay, int nth, double weight) {
+		weights[lowerBound(epochDay) + nth] = weight;
+	}
+}
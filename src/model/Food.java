@@ -3,8 +3,7 @@ package model;
 import java.util.ArrayList;
 import java.util.Arrays;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import javafx.beans.binding.StringBinding;
 
 public class Food extends Item {
 
@@ -23,11 +22,19 @@ public class Food extends Item {
 	// Used to tell if this food was imported from the database or if we added it
 	// ourselves
 	private boolean custom;
+	// Added to the name of custom foods
+	static final String CUSTOM_SUFFIX = " (custom) ";
 
 	// static values
 	private double ogAmount;
 	private double ogCalories, ogCarbohydrates, ogProteins, ogFats;
 
+	// Entry of the FoodCatalog holding this Food, never copied
+	private int catalogId = -1;
+
+	// Table cell texts, created when first shown
+	private CachedString strName, strAmount, strCalories, strCarbs, strFats, strProts, strQuantity;
+
 	/**
 	 * Constructor which takes quantity value
 	 * 
@@ -69,11 +76,8 @@ public class Food extends Item {
 		if (bools.length < 1 && bools.length > 2)
 			throw new IllegalArgumentException("template or custom not set");
 
-		System.out.println("Length of bool array is: " + bools.length);
-
-		for (int i = 0; i < bools.length; i++) {
-			System.out.println("values of bools: " + bools[i]);
-		}
+		Log.debug(() -> "Length of bool array is: " + bools.length);
+		Log.debug(() -> "values of bools: " + Arrays.toString(bools));
 
 		if (bools.length == 2) {
 			this.template = bools[0];
@@ -82,7 +86,7 @@ public class Food extends Item {
 			this.template = bools[0];
 		}
 
-		System.out.println("Am I a custom food? " + this.getCustom());
+		Log.debug(() -> "Am I a custom food? " + this.getCustom());
 	}
 
 	/**
@@ -234,6 +238,7 @@ public class Food extends Item {
 		setFoodValues(changedFood);
 		// Set quantity too
 		this.setQuantity(quantity);
+		refreshValues();
 	}
 
 	/**
@@ -286,6 +291,9 @@ public class Food extends Item {
 	public void setQuantity(double quantity) {
 		// We cannot set the quantity if we are a cutter Food
 		if (!this.template) {
+			TrackerEvents.FoodQuantity event = new TrackerEvents.FoodQuantity();
+			event.begin();
+
 			this.quantity = quantity;
 			// Multiply everything else by quantity automatically
 			this.amount = ogAmount * quantity;
@@ -293,8 +301,11 @@ public class Food extends Item {
 			this.carbohydrates = ogCarbohydrates * quantity;
 			this.fats = ogFats * quantity;
 			this.proteins = ogProteins * quantity;
+			refreshValues();
+
+			event.end(name, quantity);
 		} else {
-			System.out.println("You tried to edit a template food!");
+			Log.warn("You tried to edit a template food!");
 		}
 	}
 
@@ -306,14 +317,31 @@ public class Food extends Item {
 		return this.quantity;
 	}
 
+	/**
+	 * @return id of the FoodCatalog entry this Food is stored as, -1 if none
+	 */
+	int getCatalogId() {
+		return catalogId;
+	}
+
+	void setCatalogId(int catalogId) {
+		this.catalogId = catalogId;
+	}
+
 	public boolean getCustom() {
 		return this.custom;
 	}
 
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+		CachedString.refreshIfCreated(strName);
+	}
+
 	public void setCustom(boolean custom) {
 		this.custom = custom;
 		// This also means we should change the name to have (custom) in brackets
-		this.setName(this.getName() + " (custom) ");
+		this.setName(this.getName() + CUSTOM_SUFFIX);
 	}
 
 	public double getAmount() {
@@ -322,6 +350,7 @@ public class Food extends Item {
 
 	public void setAmount(double amount) {
 		this.amount = amount;
+		CachedString.refreshIfCreated(strAmount);
 	}
 
 	public double getProteins() {
@@ -330,6 +359,7 @@ public class Food extends Item {
 
 	public void setProteins(double proteins) {
 		this.proteins = proteins;
+		CachedString.refreshIfCreated(strProts);
 	}
 
 	public double getCarbohydrates() {
@@ -338,6 +368,7 @@ public class Food extends Item {
 
 	public void setCarbohydrates(double carbohydrates) {
 		this.carbohydrates = carbohydrates;
+		CachedString.refreshIfCreated(strCarbs);
 	}
 
 	public double getFats() {
@@ -346,6 +377,7 @@ public class Food extends Item {
 
 	public void setFats(double fats) {
 		this.fats = fats;
+		CachedString.refreshIfCreated(strFats);
 	}
 
 	/*
@@ -353,31 +385,58 @@ public class Food extends Item {
 	 * String methods (for viewing on the table, but not their direct values)
 	 * 
 	 */
-	public StringProperty getStrName() {
-		return new SimpleStringProperty(this.getName());
+	public StringBinding getStrName() {
+		if (strName == null)
+			strName = new CachedString(() -> this.getName());
+		return strName;
 	}
 
-	public StringProperty getStrAmount() {
-		return new SimpleStringProperty(Double.toString(amount));
+	public StringBinding getStrAmount() {
+		if (strAmount == null)
+			strAmount = new CachedString(() -> Double.toString(amount));
+		return strAmount;
 	}
 
-	public StringProperty getStrCalories() {
-		return new SimpleStringProperty(Double.toString(Helper.round(calories, 2)));
+	public StringBinding getStrCalories() {
+		if (strCalories == null)
+			strCalories = new CachedString(() -> Double.toString(Helper.round(calories, 2)));
+		return strCalories;
 	}
 
-	public StringProperty getStrCarbs() {
-		return new SimpleStringProperty(Double.toString(Helper.round(carbohydrates, 2)));
+	public StringBinding getStrCarbs() {
+		if (strCarbs == null)
+			strCarbs = new CachedString(() -> Double.toString(Helper.round(carbohydrates, 2)));
+		return strCarbs;
 	}
 
-	public StringProperty getStrFats() {
-		return new SimpleStringProperty(Double.toString(Helper.round(fats, 2)));
+	public StringBinding getStrFats() {
+		if (strFats == null)
+			strFats = new CachedString(() -> Double.toString(Helper.round(fats, 2)));
+		return strFats;
 	}
 
-	public StringProperty getStrProts() {
-		return new SimpleStringProperty(Double.toString(Helper.round(proteins, 2)));
+	public StringBinding getStrProts() {
+		if (strProts == null)
+			strProts = new CachedString(() -> Double.toString(Helper.round(proteins, 2)));
+		return strProts;
 	}
 
-	public StringProperty getStrQuantity() {
-		return new SimpleStringProperty(Double.toString(quantity));
+	public StringBinding getStrQuantity() {
+		if (strQuantity == null)
+			strQuantity = new CachedString(() -> Double.toString(quantity));
+		return strQuantity;
+	}
+
+	/**
+	 * Lets the table cells (if any were created) know every value changed, the
+	 * name is left alone
+	 */
+	private void refreshValues() {
+		CachedString.refreshIfCreated(strAmount);
+		CachedString.refreshIfCreated(strCalories);
+		CachedString.refreshIfCreated(strCarbs);
+		CachedString.refreshIfCreated(strFats);
+		CachedString.refreshIfCreated(strProts);
+		CachedString.refreshIfCreated(strQuantity);
 	}
 }
@@ -0,0 +1,416 @@
+package model;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.collections.WeakListChangeListener;
+
+/**
+ * The foods we can pick from (database and custom foods), stored column by
+ * column instead of as one Food object per entry
+ *
+ * Every entry gets an id and its per amount values live in primitive double
+ * columns, names are interned in a name table. The catalog is itself the
+ * ObservableList shown by the add food table: a template Food is only created
+ * when a row is asked for (i.e. shown or selected). It is only weakly kept, so
+ * the same row is the same Food while anything still holds it and scrolling
+ * through a large database doesn't keep every row's Food around. Foods added
+ * as a Food (custom foods) are kept for good.
+ *
+ * Entries can only be appended (append, addAll or add at the end), adding at
+ * any other position or replacing one throws an
+ * UnsupportedOperationException. Removing an entry keeps its id free forever.
+ */
+public class FoodCatalog extends ObservableListBase<Food> {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	// Columns by id
+	private double[] amounts = new double[INITIAL_CAPACITY];
+	private double[] carbohydrates = new double[INITIAL_CAPACITY];
+	private double[] proteins = new double[INITIAL_CAPACITY];
+	private double[] fats = new double[INITIAL_CAPACITY];
+	// Index into the name table, -1 once removed
+	private int[] nameRefs = new int[INITIAL_CAPACITY];
+	// Food of an id if it was added as a Food
+	private Food[] foods = new Food[INITIAL_CAPACITY];
+	// Templates created for the other ids, forgotten once nothing holds them
+	private HashMap<Integer, Template> templates = new HashMap<Integer, Template>();
+	private ReferenceQueue<Food> collected = new ReferenceQueue<Food>();
+	private int count = 0;
+
+	// Interned names
+	private String[] names = new String[INITIAL_CAPACITY];
+	private HashMap<String, Integer> nameIds = new HashMap<String, Integer>();
+	private int nameCount = 0;
+
+	// Ids of the entries in list order (ascending, removed ids are left out)
+	private int[] order = new int[INITIAL_CAPACITY];
+	private int size = 0;
+
+	private NameIndex index = new NameIndex(id -> nameRefs[id] < 0 ? null : names[nameRefs[id]]);
+
+	/**
+	 * Weak reference to the template of an id
+	 */
+	private static class Template extends WeakReference<Food> {
+		private final int id;
+
+		private Template(Food food, int id, ReferenceQueue<Food> queue) {
+			super(food, queue);
+			this.id = id;
+		}
+	}
+
+	/*
+	 *
+	 * Adding and removing entries
+	 *
+	 */
+
+	/**
+	 * Appends a batch of entries as one list change
+	 *
+	 * @param names
+	 * @param values
+	 *            {amount, carbs, protein, fats} of every entry, already validated
+	 */
+	public void addAll(List<String> names, List<double[]> values) {
+		if (names.size() != values.size())
+			throw new IllegalArgumentException("Every name needs values!");
+		if (names.isEmpty())
+			return;
+
+		int from = size;
+
+		beginChange();
+		for (int i = 0; i < names.size(); i++) {
+			append(names.get(i), values.get(i), null);
+		}
+		nextAdd(from, size);
+		endChange();
+	}
+
+	/**
+	 * Appends a Food (i.e. a custom food) which becomes the template of its entry
+	 *
+	 * @param food
+	 */
+	public void append(Food food) {
+		int position = size;
+
+		beginChange();
+		append(food.getName(),
+				new double[] { food.getOgAmount(), food.getOgCarbohydrates(), food.getOgProteins(), food.getOgFats() },
+				food);
+		nextAdd(position, size);
+		endChange();
+	}
+
+	/**
+	 * Only adding at the end is supported, see append
+	 */
+	@Override
+	public void add(int position, Food food) {
+		if (position != size)
+			throw new UnsupportedOperationException("Foods can only be appended to the catalog!");
+
+		append(food);
+	}
+
+	private void append(String name, double[] values, Food food) {
+		if (count == amounts.length)
+			grow();
+
+		int id = count++;
+		amounts[id] = values[0];
+		carbohydrates[id] = values[1];
+		proteins[id] = values[2];
+		fats[id] = values[3];
+		nameRefs[id] = intern(name);
+		foods[id] = food;
+		if (food != null)
+			food.setCatalogId(id);
+
+		if (size == order.length)
+			order = Arrays.copyOf(order, size * 2);
+		order[size++] = id;
+
+		index.add(id);
+	}
+
+	private void grow() {
+		int capacity = amounts.length * 2;
+
+		amounts = Arrays.copyOf(amounts, capacity);
+		carbohydrates = Arrays.copyOf(carbohydrates, capacity);
+		proteins = Arrays.copyOf(proteins, capacity);
+		fats = Arrays.copyOf(fats, capacity);
+		nameRefs = Arrays.copyOf(nameRefs, capacity);
+		foods = Arrays.copyOf(foods, capacity);
+	}
+
+	private int intern(String name) {
+		Integer ref = nameIds.get(name);
+
+		if (ref == null) {
+			if (nameCount == names.length)
+				names = Arrays.copyOf(names, nameCount * 2);
+
+			ref = nameCount;
+			names[nameCount++] = name;
+			nameIds.put(name, ref);
+		}
+
+		return ref;
+	}
+
+	@Override
+	public Food remove(int position) {
+		if (position < 0 || position >= size)
+			throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+
+		int id = order[position];
+		Food food = get(position);
+
+		index.remove(id);
+		nameRefs[id] = -1;
+		foods[id] = null;
+		templates.remove(id);
+
+		beginChange();
+		System.arraycopy(order, position + 1, order, position, size - position - 1);
+		size--;
+		nextRemove(position, food);
+		endChange();
+
+		// Only once the listeners (e.g. search results) could tell which entry it was
+		food.setCatalogId(-1);
+
+		return food;
+	}
+
+	@Override
+	public boolean remove(Object food) {
+		int position = indexOf(food);
+		if (position < 0)
+			return false;
+
+		remove(position);
+		return true;
+	}
+
+	/**
+	 * Finds a Food by identity through the id it is stored as, without creating
+	 * the templates of other rows
+	 */
+	@Override
+	public int indexOf(Object food) {
+		if (!(food instanceof Food))
+			return -1;
+
+		int id = ((Food) food).getCatalogId();
+		if (id < 0 || id >= count || stored(id) != food)
+			return -1;
+
+		// Ids are in ascending order
+		int position = Arrays.binarySearch(order, 0, size, id);
+		return position < 0 ? -1 : position;
+	}
+
+	@Override
+	public boolean contains(Object food) {
+		return indexOf(food) >= 0;
+	}
+
+	/*
+	 *
+	 * Reading entries
+	 *
+	 */
+
+	/**
+	 * @return the template Food of the row, created the first time it is asked for
+	 */
+	@Override
+	public Food get(int position) {
+		if (position < 0 || position >= size)
+			throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+
+		return food(order[position]);
+	}
+
+	private Food food(int id) {
+		Food food = stored(id);
+
+		if (food == null) {
+			food = new Food(names[nameRefs[id]], new double[] { amounts[id], carbohydrates[id], proteins[id], fats[id] });
+			food.setTemplate(true);
+			food.setCatalogId(id);
+
+			expunge();
+			templates.put(id, new Template(food, id, collected));
+		}
+
+		return food;
+	}
+
+	/**
+	 * @return the Food of an id if it was added or its template is still held,
+	 *         null otherwise
+	 */
+	private Food stored(int id) {
+		if (foods[id] != null)
+			return foods[id];
+
+		Template template = templates.get(id);
+		return template == null ? null : template.get();
+	}
+
+	/**
+	 * Forgets the templates that were garbage collected
+	 */
+	private void expunge() {
+		Reference<? extends Food> ref;
+		while ((ref = collected.poll()) != null) {
+			Template template = (Template) ref;
+
+			// Unless the id got a new template since
+			if (templates.get(template.id) == template)
+				templates.remove(template.id);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return id of the entry shown at position
+	 */
+	public int getId(int position) {
+		return order[position];
+	}
+
+	public String getName(int id) {
+		return names[nameRefs[id]];
+	}
+
+	public double getAmount(int id) {
+		return amounts[id];
+	}
+
+	public double getCarbohydrates(int id) {
+		return carbohydrates[id];
+	}
+
+	public double getProteins(int id) {
+		return proteins[id];
+	}
+
+	public double getFats(int id) {
+		return fats[id];
+	}
+
+	public double getCalories(int id) {
+		return (carbohydrates[id] * 4) + (proteins[id] * 4) + (fats[id] * 9);
+	}
+
+	/**
+	 * @return the foods we added ourselves, in list order (without creating the
+	 *         templates of database rows)
+	 */
+	public List<Food> getCustomFoods() {
+		ArrayList<Food> custom = new ArrayList<Food>();
+
+		for (int position = 0; position < size; position++) {
+			Food food = foods[order[position]];
+			if (food != null && food.getCustom())
+				custom.add(food);
+		}
+
+		return custom;
+	}
+
+	/**
+	 * Finds the entries whose name contains the query, best matches first
+	 *
+	 * @param query
+	 * @return read only list which creates the template Foods as they are shown,
+	 *         entries removed from the catalog afterwards drop out of it (entries
+	 *         added afterwards need a new search)
+	 */
+	public ObservableList<Food> search(String query) {
+		return new SearchResults(index.search(query));
+	}
+
+	/**
+	 * Ids found by a search, kept in step with the removals of the catalog
+	 */
+	private class SearchResults extends ObservableListBase<Food> {
+
+		private final int[] ids;
+		private int size;
+
+		// Held by the results, the catalog only holds it weakly so forgotten results can be collected
+		private final ListChangeListener<Food> removals = this::removeRemoved;
+
+		private SearchResults(int[] ids) {
+			this.ids = ids;
+			this.size = ids.length;
+
+			FoodCatalog.this.addListener(new WeakListChangeListener<Food>(removals));
+		}
+
+		@Override
+		public Food get(int i) {
+			if (i < 0 || i >= size)
+				throw new IndexOutOfBoundsException("Position " + i + " of " + size);
+
+			return food(ids[i]);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Drops the ids of the entries the catalog removed
+		 */
+		private void removeRemoved(ListChangeListener.Change<? extends Food> change) {
+			// The removed Foods still know their id while the change is reported
+			HashMap<Integer, Food> removed = new HashMap<Integer, Food>();
+			while (change.next()) {
+				for (Food food : change.getRemoved()) {
+					removed.put(food.getCatalogId(), food);
+				}
+			}
+			if (removed.isEmpty())
+				return;
+
+			int kept = 0;
+
+			beginChange();
+			for (int i = 0; i < size; i++) {
+				Food food = removed.get(ids[i]);
+				if (food != null) {
+					nextRemove(kept, food);
+				} else {
+					ids[kept++] = ids[i];
+				}
+			}
+			size = kept;
+			endChange();
+		}
+	}
+}
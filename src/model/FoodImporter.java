@@ -0,0 +1,310 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streams a nutrition database dump (CSV or tab separated, one food per row)
+ * into the food catalog
+ *
+ * Lines are read in batches which are parsed and validated on a thread pool,
+ * while the calling thread appends the finished batches (in file order) to the
+ * FoodCatalog, one list change per batch. Only a fixed amount of batches is
+ * in flight at once, so memory stays bounded whatever the size of the file.
+ * Rows that can't be used are written to the reject file with their line number
+ * and reason instead of throwing.
+ *
+ * The header row decides which columns are used, values are per amount grams
+ * (100 if there is no amount column). A file without a name, carbohydrates,
+ * proteins or fats column is refused as a whole.
+ */
+public class FoodImporter {
+
+	// Lines per batch
+	private static final int BATCH = 4096;
+
+	// Accepted header names of each column
+	private static final String[] NAME = { "name", "product_name", "description" };
+	private static final String[][] VALUES = { { "amount", "amount_g" },
+			{ "carbohydrates", "carbohydrates_100g", "carbs", "carbohydrate" },
+			{ "proteins", "proteins_100g", "protein" }, { "fats", "fat_100g", "fat", "fats_100g" } };
+
+	private final int threads;
+
+	// Column of the name and of each value (amount, carbs, protein, fats), -1 if missing
+	private int nameColumn;
+	private int[] valueColumns = new int[4];
+	private char separator;
+
+	private int imported, rejected;
+
+	public FoodImporter() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public FoodImporter(int threads) {
+		if (threads < 1)
+			throw new IllegalArgumentException("Importer needs at least one thread!");
+
+		this.threads = threads;
+	}
+
+	/**
+	 * Parsed rows of one batch
+	 */
+	private static class Batch {
+		ArrayList<String> names = new ArrayList<String>();
+		ArrayList<double[]> values = new ArrayList<double[]>();
+		// Rejected rows as "line,reason,row"
+		ArrayList<String> rejects = new ArrayList<String>();
+	}
+
+	/**
+	 * Imports every valid row of the file
+	 *
+	 * @param file
+	 *            CSV or tab separated file with a header row
+	 * @param rejectFile
+	 *            receives the rows that weren't imported (overwritten)
+	 * @param catalog
+	 *            receives the new foods a batch at a time, on the calling thread
+	 * @return amount of foods imported
+	 * @throws IOException
+	 *             if the file can't be read or is missing a name or macro column
+	 */
+	public int importFoods(Path file, Path rejectFile, FoodCatalog catalog) throws IOException {
+		imported = rejected = 0;
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "food-importer");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+				BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+			String header = in.readLine();
+			if (header == null)
+				return 0;
+
+			readHeader(header);
+			rejects.write("line,reason,row");
+			rejects.newLine();
+
+			// Batches being parsed, in file order
+			ArrayDeque<Future<Batch>> pending = new ArrayDeque<Future<Batch>>();
+			long lineNumber = 1;
+
+			ArrayList<String> lines = new ArrayList<String>(BATCH);
+			String line;
+			while ((line = in.readLine()) != null) {
+				lines.add(line);
+
+				if (lines.size() == BATCH) {
+					pending.add(submit(pool, lines, lineNumber + 1));
+					lineNumber += lines.size();
+					lines = new ArrayList<String>(BATCH);
+
+					// Bound the memory by waiting for the oldest batch
+					if (pending.size() >= threads * 2)
+						insert(pending.poll(), catalog, rejects);
+				}
+			}
+			if (!lines.isEmpty())
+				pending.add(submit(pool, lines, lineNumber + 1));
+
+			while (!pending.isEmpty()) {
+				insert(pending.poll(), catalog, rejects);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return imported;
+	}
+
+	/**
+	 * @return amount of rows rejected by the last import
+	 */
+	public int getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * @return amount of foods added by the last import
+	 */
+	public int getImported() {
+		return imported;
+	}
+
+	private void readHeader(String header) throws IOException {
+		separator = header.indexOf('\t') >= 0 ? '\t' : ',';
+
+		ArrayList<String> columns = split(header, separator);
+		for (int i = 0; i < columns.size(); i++) {
+			columns.set(i, columns.get(i).trim().toLowerCase());
+		}
+
+		nameColumn = find(columns, NAME);
+		if (nameColumn < 0)
+			throw new IOException("Food database has no name column!");
+
+		for (int v = 0; v < VALUES.length; v++) {
+			valueColumns[v] = find(columns, VALUES[v]);
+
+			// Only the amount has a default, a missing macro would import every food as 0
+			if (v > 0 && valueColumns[v] < 0)
+				throw new IOException("Food database has no " + VALUES[v][0] + " column!");
+		}
+	}
+
+	private static int find(ArrayList<String> columns, String[] names) {
+		for (String name : names) {
+			int i = columns.indexOf(name);
+			if (i >= 0)
+				return i;
+		}
+		return -1;
+	}
+
+	private Future<Batch> submit(ExecutorService pool, ArrayList<String> lines, long firstLine) {
+		return pool.submit(() -> parse(lines, firstLine));
+	}
+
+	/**
+	 * Runs on the pool, parses and validates every line of a batch
+	 */
+	private Batch parse(ArrayList<String> lines, long firstLine) {
+		Batch batch = new Batch();
+
+		for (int i = 0; i < lines.size(); i++) {
+			String line = lines.get(i);
+			if (line.isEmpty())
+				continue;
+
+			ArrayList<String> fields = split(line, separator);
+			String reason = null;
+
+			String name = field(fields, nameColumn).trim();
+			double[] values = { 100, 0, 0, 0 };
+
+			if (name.isEmpty())
+				reason = "missing name";
+
+			for (int v = 0; v < values.length && reason == null; v++) {
+				if (valueColumns[v] < 0)
+					continue;
+
+				String text = field(fields, valueColumns[v]).trim();
+				if (text.isEmpty()) {
+					reason = "missing " + VALUES[v][0];
+					break;
+				}
+
+				try {
+					values[v] = Double.parseDouble(text);
+				} catch (NumberFormatException e) {
+					reason = "invalid " + VALUES[v][0];
+					break;
+				}
+
+				// Same rules as Food.validateArray
+				if (Double.isNaN(values[v]) || Double.isInfinite(values[v]))
+					reason = "invalid " + VALUES[v][0];
+				else if (values[v] < 0)
+					reason = "negative " + VALUES[v][0];
+			}
+
+			if (reason == null && values[0] == 0)
+				reason = "amount cannot be 0";
+
+			if (reason == null) {
+				batch.names.add(name);
+				batch.values.add(values);
+			} else {
+				batch.rejects.add((firstLine + i) + "," + reason + "," + quote(line));
+			}
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Runs on the calling thread, appends a finished batch to the catalog
+	 */
+	private void insert(Future<Batch> future, FoodCatalog catalog, BufferedWriter rejects) throws IOException {
+		Batch batch;
+		try {
+			batch = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Food import interrupted!", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Food import failed!", e.getCause());
+		}
+
+		catalog.addAll(batch.names, batch.values);
+		imported += batch.names.size();
+
+		for (String reject : batch.rejects) {
+			rejects.write(reject);
+			rejects.newLine();
+		}
+		rejected += batch.rejects.size();
+	}
+
+	private static String field(ArrayList<String> fields, int column) {
+		return column < fields.size() ? fields.get(column) : "";
+	}
+
+	/**
+	 * Splits a row on the separator, fields may be quoted with " (a doubled ""
+	 * inside quotes is a quote)
+	 */
+	static ArrayList<String> split(String line, char separator) {
+		ArrayList<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+
+			if (quoted) {
+				if (c == '"') {
+					if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+						field.append('"');
+						i++;
+					} else {
+						quoted = false;
+					}
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == separator) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+
+		return fields;
+	}
+
+	static String quote(String text) {
+		return "\"" + text.replace("\"", "\"\"") + "\"";
+	}
+}
@@ -0,0 +1,99 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of recorded values (i.e. nanoseconds), with percentiles that are
+ * at most about 3% off
+ *
+ * Values are counted in buckets laid out like an HDR histogram: 32 buckets of
+ * width 1 up to 64, then every power of two split into 32 buckets. Recording is
+ * an increment of one bucket, so it is lock free and never allocates.
+ */
+public class Histogram {
+
+	private static final int SUB_BITS = 5;
+	private static final int SUB_BUCKETS = 1 << SUB_BITS;
+	// Enough buckets for any positive long
+	private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return the lowest value counted in a bucket
+	 */
+	static long lowest(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+
+		int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+		return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+	}
+
+	/**
+	 * @param value
+	 *            negative values are counted as 0
+	 */
+	public void record(long value) {
+		if (value < 0)
+			value = 0;
+
+		buckets.incrementAndGet(bucket(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * @param percentile
+	 *            between 0 and 100
+	 * @return the highest value of the bucket the percentile falls into (never
+	 *         above the max), 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("Invalid percentile!");
+
+		long n = count.sum();
+		if (n == 0)
+			return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank)
+				return Math.min(i + 1 < BUCKETS ? lowest(i + 1) - 1 : Long.MAX_VALUE, getMax());
+		}
+
+		return getMax();
+	}
+}
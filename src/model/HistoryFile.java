@@ -0,0 +1,530 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Per day totals of the whole history in a memory mapped file, used for
+ * multi-year analytics without walking Day/Food objects
+ *
+ * There is one column per value holding a double for every date from the first
+ * logged day on (empty days are 0), plus a column per exercise holding the
+ * heaviest weight lifted that day (NaN if it wasn't done). Opening only maps the
+ * file, so queries scan primitive doubles straight from the page cache.
+ *
+ * Columns have room for more days and there is room for more exercise columns
+ * than needed, so when the journal is compacted only the days that changed are
+ * patched in place (see update). The file is only written again as a whole once
+ * that room runs out. The header holds the snapshot the file matches, which is
+ * -1 while it is being patched.
+ *
+ * Layout: header, value columns, exercise weight columns, exercise names
+ */
+public class HistoryFile {
+
+	// Value columns
+	public static final int CALORIES = 0, CARBOHYDRATES = 1, PROTEINS = 2, FATS = 3, BURNED = 4;
+	private static final int COLUMNS = 5;
+
+	private static final int MAGIC = 0x43544831; // CTH1
+	private static final int VERSION = 2;
+	// magic, version, snapshot, first epoch-day, day count, day capacity, exercise count, exercise capacity,
+	// padding (keeps doubles aligned)
+	private static final int HEADER = 40;
+	private static final int SNAPSHOT = 8, FIRST = 16, DAY_COUNT = 20, DAY_CAPACITY = 24, EXERCISE_COUNT = 28,
+			EXERCISE_CAPACITY = 32;
+
+	// Least room left for new days and exercises when the file is written
+	private static final int SPARE_DAYS = 366, SPARE_EXERCISES = 16;
+
+	private final long snapshot;
+	private final long firstEpochDay;
+	private final int dayCount;
+	private final DoubleBuffer[] columns;
+	private final DoubleBuffer[] weights;
+	private final String[] exerciseNames;
+	private final HashMap<String, Integer> exerciseIds = new HashMap<String, Integer>();
+
+	private HistoryFile(MappedByteBuffer buffer) throws IOException {
+		if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+			throw new IOException("Not a history file!");
+
+		snapshot = buffer.getLong(SNAPSHOT);
+		firstEpochDay = buffer.getInt(FIRST);
+		dayCount = buffer.getInt(DAY_COUNT);
+		int dayCapacity = buffer.getInt(DAY_CAPACITY);
+		int exerciseCount = buffer.getInt(EXERCISE_COUNT);
+		int exerciseCapacity = buffer.getInt(EXERCISE_CAPACITY);
+
+		columns = new DoubleBuffer[COLUMNS];
+		weights = new DoubleBuffer[exerciseCount];
+
+		for (int c = 0; c < COLUMNS; c++) {
+			columns[c] = column(buffer, columnPosition(c, dayCapacity));
+		}
+		for (int e = 0; e < exerciseCount; e++) {
+			weights[e] = column(buffer, columnPosition(COLUMNS + e, dayCapacity));
+		}
+
+		exerciseNames = new String[exerciseCount];
+		buffer.position((int) columnPosition(COLUMNS + exerciseCapacity, dayCapacity));
+		for (int e = 0; e < exerciseCount; e++) {
+			exerciseNames[e] = DayJournal.readName(buffer);
+			exerciseIds.put(exerciseNames[e], e);
+		}
+	}
+
+	private static long columnPosition(int column, int dayCapacity) {
+		return HEADER + ((long) column * dayCapacity * 8);
+	}
+
+	private DoubleBuffer column(ByteBuffer buffer, long position) {
+		ByteBuffer view = buffer.duplicate();
+		view.position((int) position).limit((int) position + (dayCount * 8));
+		return view.slice().asDoubleBuffer();
+	}
+
+	/**
+	 * Maps an existing history file
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static HistoryFile open(Path file) throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			// The mapping stays valid after the channel is closed
+			return new HistoryFile(in.map(FileChannel.MapMode.READ_ONLY, 0, in.size()));
+		}
+	}
+
+	/**
+	 * @return the value of a column for a day (as written into the file)
+	 */
+	static double value(Day day, int column) {
+		switch (column) {
+		case CALORIES:
+			return day.getTotalFoodCalories();
+		case CARBOHYDRATES:
+			return day.getTotalCarbohydrates();
+		case PROTEINS:
+			return day.getTotalProteins();
+		case FATS:
+			return day.getTotalFats();
+		case BURNED:
+			return day.getTotalExerciseCalories();
+		default:
+			throw new IllegalArgumentException("Unknown column: " + column);
+		}
+	}
+
+	/**
+	 * Sets the heaviest weight of every exercise done on a day (by id, the others
+	 * are NaN)
+	 */
+	private static void heaviest(Day day, HashMap<String, Integer> ids, double[] weights) {
+		Arrays.fill(weights, Double.NaN);
+		if (day == null)
+			return;
+
+		for (Exercise exercise : day.getExercises()) {
+			int id = ids.get(exercise.getName());
+			if (Double.isNaN(weights[id]) || exercise.getWeight() > weights[id])
+				weights[id] = exercise.getWeight();
+		}
+	}
+
+	public static void write(DayStore store, Path file) throws IOException {
+		write(store, file, -1);
+	}
+
+	/**
+	 * Writes the daily totals of every day in the store, through a temporary file
+	 * which is atomically renamed (file must not exist yet, mapped files can't be
+	 * replaced on every platform)
+	 *
+	 * @param store
+	 * @param file
+	 * @param snapshot
+	 *            sequence of the snapshot the store was loaded from
+	 * @throws IOException
+	 */
+	public static void write(DayStore store, Path file, long snapshot) throws IOException {
+		ArrayList<Day> days = new ArrayList<Day>(store.getDays());
+
+		long first = days.isEmpty() ? 0 : days.get(0).getDate().toEpochDay();
+		int count = days.isEmpty() ? 0 : (int) (days.get(days.size() - 1).getDate().toEpochDay() - first + 1);
+
+		// Give every exercise name an id (column)
+		HashMap<String, Integer> ids = new HashMap<String, Integer>();
+		ArrayList<byte[]> names = new ArrayList<byte[]>();
+		int namesSize = 0;
+		for (Day day : days) {
+			for (Exercise exercise : day.getExercises()) {
+				if (!ids.containsKey(exercise.getName())) {
+					byte[] name = exercise.getName().getBytes(StandardCharsets.UTF_8);
+					ids.put(exercise.getName(), names.size());
+					names.add(name);
+					namesSize += 2 + name.length;
+				}
+			}
+		}
+
+		int dayCapacity = count + Math.max(count / 2, SPARE_DAYS);
+		int exerciseCapacity = names.size() + Math.max(names.size() / 2, SPARE_EXERCISES);
+
+		double[][] values = new double[COLUMNS + exerciseCapacity][dayCapacity];
+		for (int e = COLUMNS; e < values.length; e++) {
+			Arrays.fill(values[e], Double.NaN);
+		}
+
+		double[] weights = new double[names.size()];
+		for (Day day : days) {
+			int i = (int) (day.getDate().toEpochDay() - first);
+
+			for (int c = 0; c < COLUMNS; c++) {
+				values[c][i] = value(day, c);
+			}
+
+			heaviest(day, ids, weights);
+			for (int e = 0; e < weights.length; e++) {
+				values[COLUMNS + e][i] = weights[e];
+			}
+		}
+
+		ByteBuffer buffer = ByteBuffer
+				.allocate((int) columnPosition(COLUMNS + exerciseCapacity, dayCapacity) + namesSize);
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putLong(snapshot);
+		buffer.putInt((int) first);
+		buffer.putInt(count);
+		buffer.putInt(dayCapacity);
+		buffer.putInt(names.size());
+		buffer.putInt(exerciseCapacity);
+		buffer.position(HEADER);
+
+		for (double[] column : values) {
+			buffer.asDoubleBuffer().put(column);
+			buffer.position(buffer.position() + (dayCapacity * 8));
+		}
+		for (byte[] name : names) {
+			DayJournal.writeName(buffer, name);
+		}
+		buffer.flip();
+
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) {
+				out.write(buffer);
+			}
+			out.force(true);
+		}
+
+		Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Patches the days that changed since the file was written into it, the
+	 * other days are left untouched
+	 *
+	 * @param store
+	 *            every day, as of the new snapshot
+	 * @param changed
+	 *            epoch-days that changed since the previous snapshot
+	 * @param file
+	 * @param previous
+	 *            sequence of the snapshot the file has to match
+	 * @param snapshot
+	 *            sequence of the new snapshot
+	 * @return false if the file has to be written as a whole instead: it doesn't
+	 *         match the previous snapshot, or there is no room for a changed day
+	 *         or a new exercise
+	 * @throws IOException
+	 */
+	public static boolean update(DayStore store, Collection<Long> changed, Path file, long previous, long snapshot)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER);
+			readAt(channel, header, 0);
+
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getLong(SNAPSHOT) != previous)
+				return false;
+
+			long first = header.getInt(FIRST);
+			int count = header.getInt(DAY_COUNT);
+			int dayCapacity = header.getInt(DAY_CAPACITY);
+			int exerciseCount = header.getInt(EXERCISE_COUNT);
+			int exerciseCapacity = header.getInt(EXERCISE_CAPACITY);
+
+			if (count == 0 && !changed.isEmpty())
+				first = Collections.min(changed);
+
+			long namesStart = columnPosition(COLUMNS + exerciseCapacity, dayCapacity);
+			ByteBuffer namesBuffer = ByteBuffer.allocate((int) (channel.size() - namesStart));
+			readAt(channel, namesBuffer, namesStart);
+
+			HashMap<String, Integer> ids = new HashMap<String, Integer>();
+			for (int e = 0; e < exerciseCount; e++) {
+				ids.put(DayJournal.readName(namesBuffer), e);
+			}
+
+			// Every changed day and new exercise has to fit
+			ArrayList<byte[]> added = new ArrayList<byte[]>();
+			for (long epochDay : changed) {
+				if (epochDay < first || epochDay - first >= dayCapacity)
+					return false;
+
+				Day day = store.find(epochDay);
+				if (day == null)
+					continue;
+
+				for (Exercise exercise : day.getExercises()) {
+					if (!ids.containsKey(exercise.getName())) {
+						ids.put(exercise.getName(), exerciseCount + added.size());
+						added.add(exercise.getName().getBytes(StandardCharsets.UTF_8));
+					}
+				}
+			}
+			if (exerciseCount + added.size() > exerciseCapacity)
+				return false;
+
+			// A crash from here on leaves a file that matches no snapshot, so it is written again
+			header.putLong(SNAPSHOT, -1);
+			writeAt(channel, header, 0);
+			channel.force(false);
+
+			// New exercise columns start without a weight on any day
+			double[] empty = new double[dayCapacity];
+			Arrays.fill(empty, Double.NaN);
+			ByteBuffer column = ByteBuffer.allocate(dayCapacity * 8);
+			column.asDoubleBuffer().put(empty);
+			for (int e = exerciseCount; e < exerciseCount + added.size(); e++) {
+				writeAt(channel, column, columnPosition(COLUMNS + e, dayCapacity));
+			}
+
+			ByteBuffer cell = ByteBuffer.allocate(8);
+			double[] weights = new double[exerciseCount + added.size()];
+			for (long epochDay : changed) {
+				int i = (int) (epochDay - first);
+				Day day = store.find(epochDay);
+
+				for (int c = 0; c < COLUMNS; c++) {
+					cell.putDouble(0, day == null ? 0 : value(day, c));
+					writeAt(channel, cell, columnPosition(c, dayCapacity) + (i * 8L));
+				}
+
+				heaviest(day, ids, weights);
+				for (int e = 0; e < weights.length; e++) {
+					cell.putDouble(0, weights[e]);
+					writeAt(channel, cell, columnPosition(COLUMNS + e, dayCapacity) + (i * 8L));
+				}
+
+				count = Math.max(count, i + 1);
+			}
+
+			// Names are last, new ones are appended
+			int addedSize = 0;
+			for (byte[] name : added) {
+				addedSize += 2 + name.length;
+			}
+			ByteBuffer names = ByteBuffer.allocate(addedSize);
+			for (byte[] name : added) {
+				DayJournal.writeName(names, name);
+			}
+			names.flip();
+			writeAt(channel, names, channel.size());
+
+			header.putLong(SNAPSHOT, snapshot);
+			header.putInt(FIRST, (int) first);
+			header.putInt(DAY_COUNT, count);
+			header.putInt(EXERCISE_COUNT, exerciseCount + added.size());
+			writeAt(channel, header, 0);
+			channel.force(true);
+
+			return true;
+		}
+	}
+
+	private static void readAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		buffer.clear();
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0)
+				throw new IOException("Truncated history file!");
+		}
+		buffer.flip();
+	}
+
+	private static void writeAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		ByteBuffer data = buffer.duplicate();
+		data.position(0);
+		while (data.hasRemaining()) {
+			position += channel.write(data, position);
+		}
+	}
+
+	/**
+	 * @return sequence of the snapshot the file matches, -1 if it was written
+	 *         without one or a patch didn't finish
+	 */
+	public long getSnapshot() {
+		return snapshot;
+	}
+
+	/*
+	 *
+	 * Queries
+	 *
+	 */
+
+	/**
+	 * @return first logged date or null if the history is empty
+	 */
+	public LocalDate getFirstDate() {
+		return dayCount == 0 ? null : LocalDate.ofEpochDay(firstEpochDay);
+	}
+
+	/**
+	 * @return last logged date or null if the history is empty
+	 */
+	public LocalDate getLastDate() {
+		return dayCount == 0 ? null : LocalDate.ofEpochDay(firstEpochDay + dayCount - 1);
+	}
+
+	/**
+	 * @return the amount of days between the first and last date
+	 */
+	public int size() {
+		return dayCount;
+	}
+
+	/**
+	 * @param column
+	 *            CALORIES, CARBOHYDRATES, PROTEINS, FATS or BURNED
+	 * @param date
+	 * @return the total of that day, 0 if outside the history
+	 */
+	public double get(int column, LocalDate date) {
+		long i = date.toEpochDay() - firstEpochDay;
+		return (i < 0 || i >= dayCount) ? 0 : columns[column].get((int) i);
+	}
+
+	/**
+	 * Sum of a column between two dates (both inclusive)
+	 */
+	public double sum(int column, LocalDate start, LocalDate end) {
+		DoubleBuffer values = columns[column];
+		int from = from(start), to = to(end);
+
+		double sum = 0;
+		for (int i = from; i <= to; i++) {
+			sum += values.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Average of a column per day between two dates (both inclusive), days that
+	 * weren't logged count as 0
+	 */
+	public double average(int column, LocalDate start, LocalDate end) {
+		long days = end.toEpochDay() - start.toEpochDay() + 1;
+		return days <= 0 ? 0 : sum(column, start, end) / days;
+	}
+
+	/**
+	 * Highest daily value of a column between two dates (both inclusive)
+	 */
+	public double max(int column, LocalDate start, LocalDate end) {
+		DoubleBuffer values = columns[column];
+		int from = from(start), to = to(end);
+
+		double max = 0;
+		for (int i = from; i <= to; i++) {
+			max = Math.max(max, values.get(i));
+		}
+		return max;
+	}
+
+	public int getExerciseCount() {
+		return exerciseNames.length;
+	}
+
+	/**
+	 * @return id of the exercise or -1 if it was never logged
+	 */
+	public int getExerciseId(String name) {
+		Integer id = exerciseIds.get(name);
+		return id == null ? -1 : id;
+	}
+
+	public String getExerciseName(int id) {
+		return exerciseNames[id];
+	}
+
+	/**
+	 * @return heaviest weight of the exercise on that date, NaN if it wasn't done
+	 */
+	public double getWeight(int exerciseId, LocalDate date) {
+		long i = date.toEpochDay() - firstEpochDay;
+		return (i < 0 || i >= dayCount) ? Double.NaN : weights[exerciseId].get((int) i);
+	}
+
+	/**
+	 * @return heaviest weight of the exercise between two dates (both inclusive),
+	 *         NaN if it wasn't done
+	 */
+	public double maxWeight(int exerciseId, LocalDate start, LocalDate end) {
+		DoubleBuffer values = weights[exerciseId];
+		int from = from(start), to = to(end);
+
+		double max = Double.NaN;
+		for (int i = from; i <= to; i++) {
+			double weight = values.get(i);
+			if (!Double.isNaN(weight) && (Double.isNaN(max) || weight > max))
+				max = weight;
+		}
+		return max;
+	}
+
+	/**
+	 * Copies the daily values of a column into an array, days outside the history
+	 * are 0
+	 *
+	 * @param into
+	 *            receives one value per day starting at start
+	 */
+	public void copy(int column, LocalDate start, double[] into) {
+		long offset = start.toEpochDay() - firstEpochDay;
+
+		for (int i = 0; i < into.length; i++) {
+			long day = offset + i;
+			into[i] = (day < 0 || day >= dayCount) ? 0 : columns[column].get((int) day);
+		}
+	}
+
+	// Index of the first day to scan (clamped into the history)
+	private int from(LocalDate start) {
+		return (int) Math.min(dayCount, Math.max(0, start.toEpochDay() - firstEpochDay));
+	}
+
+	// Index of the last day to scan (clamped into the history)
+	private int to(LocalDate end) {
+		return (int) Math.max(-1, Math.min(dayCount - 1, end.toEpochDay() - firstEpochDay));
+	}
+}
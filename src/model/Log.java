@@ -0,0 +1,146 @@
+package model;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Logging of the whole program: messages below the level are dropped after a
+ * single comparison, messages that cost something to build are passed as a
+ * Supplier so they are only built when they are logged
+ *
+ * Messages are handed to an Appender, by default an AsyncAppender which writes
+ * them out on its own thread so logging never waits for the console. The level
+ * is INFO unless set with -Dcaloriestracker.log=DEBUG (or TRACE, WARN, ERROR,
+ * OFF), an unknown level falls back on INFO with a warning.
+ */
+public final class Log {
+
+	public enum Level {
+		TRACE, DEBUG, INFO, WARN, ERROR, OFF
+	}
+
+	/**
+	 * Where logged messages go
+	 */
+	public interface Appender {
+
+		/**
+		 * @param millis
+		 *            when it was logged
+		 * @param level
+		 * @param thread
+		 *            name of the thread that logged it
+		 * @param message
+		 * @param error
+		 *            null if none
+		 */
+		public void append(long millis, Level level, String thread, String message, Throwable error);
+	}
+
+	private static volatile Level level = Level.INFO;
+	private static volatile Appender appender = new AsyncAppender(System.out, System.err, 1024);
+
+	static {
+		// Only once there is an appender to warn about a bad level
+		String property = System.getProperty("caloriestracker.log");
+		if (property != null)
+			setLevel(property);
+	}
+
+	private Log() {
+
+	}
+
+	public static Level getLevel() {
+		return level;
+	}
+
+	public static void setLevel(Level level) {
+		Log.level = level;
+	}
+
+	/**
+	 * Sets the level by name, ignoring case and surrounding spaces
+	 *
+	 * @param name
+	 * @return false if the name isn't a level, INFO is used instead
+	 */
+	public static boolean setLevel(String name) {
+		try {
+			setLevel(Level.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+			return true;
+		} catch (IllegalArgumentException e) {
+			setLevel(Level.INFO);
+			warn(() -> "Unknown log level \"" + name + "\", using INFO");
+			return false;
+		}
+	}
+
+	public static Appender getAppender() {
+		return appender;
+	}
+
+	/**
+	 * @param appender
+	 * @return the previous appender (e.g. to close it)
+	 */
+	public static Appender setAppender(Appender appender) {
+		Appender previous = Log.appender;
+		Log.appender = appender;
+		return previous;
+	}
+
+	public static boolean isEnabled(Level at) {
+		return at.compareTo(level) >= 0 && at != Level.OFF;
+	}
+
+	public static boolean isDebugEnabled() {
+		return isEnabled(Level.DEBUG);
+	}
+
+	public static void log(Level at, String message, Throwable error) {
+		if (isEnabled(at))
+			appender.append(System.currentTimeMillis(), at, Thread.currentThread().getName(), message, error);
+	}
+
+	public static void log(Level at, Supplier<String> message) {
+		if (isEnabled(at))
+			appender.append(System.currentTimeMillis(), at, Thread.currentThread().getName(), message.get(), null);
+	}
+
+	public static void trace(String message) {
+		log(Level.TRACE, message, null);
+	}
+
+	public static void trace(Supplier<String> message) {
+		log(Level.TRACE, message);
+	}
+
+	public static void debug(String message) {
+		log(Level.DEBUG, message, null);
+	}
+
+	public static void debug(Supplier<String> message) {
+		log(Level.DEBUG, message);
+	}
+
+	public static void info(String message) {
+		log(Level.INFO, message, null);
+	}
+
+	public static void info(Supplier<String> message) {
+		log(Level.INFO, message);
+	}
+
+	public static void warn(String message) {
+		log(Level.WARN, message, null);
+	}
+
+	public static void warn(Supplier<String> message) {
+		log(Level.WARN, message);
+	}
+
+	public static void error(String message, Throwable error) {
+		log(Level.ERROR, message, error);
+	}
+}
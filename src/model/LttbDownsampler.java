@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * Largest-Triangle-Three-Buckets: keeps the first and last point and one point
+ * per bucket in between, the one forming the largest triangle with the point
+ * kept before it and the average of the next bucket. Keeps the shape of the
+ * line (peaks included) with evenly spread points.
+ *
+ * x is the epoch-day of a point, y its weight
+ */
+public class LttbDownsampler implements Downsampler {
+
+	@Override
+	public int[] select(ExerciseChartData data, int budget) {
+		if (budget < 3)
+			throw new IllegalArgumentException("Budget needs at least 3 points!");
+
+		int size = data.size();
+		if (size <= budget)
+			return MinMaxDownsampler.all(size);
+
+		int[] selected = new int[budget];
+		selected[budget - 1] = size - 1;
+
+		// Points between the first and the last spread over budget - 2 buckets
+		double bucket = (double) (size - 2) / (budget - 2);
+		int a = 0;
+
+		for (int b = 0; b < budget - 2; b++) {
+			int from = (int) (b * bucket) + 1;
+			int to = (int) ((b + 1) * bucket) + 1;
+
+			// Average of the next bucket (the last point after the last bucket)
+			int nextFrom = to;
+			int nextTo = Math.min((int) ((b + 2) * bucket) + 1, size);
+			if (nextFrom >= size - 1) {
+				nextFrom = size - 1;
+				nextTo = size;
+			}
+
+			double cx = 0, cy = 0;
+			for (int i = nextFrom; i < nextTo; i++) {
+				cx += data.getEpochDay(i);
+				cy += data.getValue(i);
+			}
+			cx /= nextTo - nextFrom;
+			cy /= nextTo - nextFrom;
+
+			double ax = data.getEpochDay(a), ay = data.getValue(a);
+			double largest = -1;
+			int kept = from;
+
+			for (int i = from; i < to; i++) {
+				// Twice the area, only compared
+				double area = Math.abs((ax - cx) * (data.getValue(i) - ay) - (ax - data.getEpochDay(i)) * (cy - ay));
+				if (area > largest) {
+					largest = area;
+					kept = i;
+				}
+			}
+
+			selected[b + 1] = kept;
+			a = kept;
+		}
+
+		return selected;
+	}
+}
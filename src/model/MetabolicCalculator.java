@@ -0,0 +1,165 @@
+package model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Calculates BMR, TDEE and goal calories for a whole population at once (i.e.
+ * the nightly recompute of every account)
+ *
+ * Every person is an index into primitive arrays, gender and units are codes
+ * instead of strings. The arrays are split into chunks which are calculated in
+ * parallel on a fork-join pool. The results are bit-identical to
+ * Profile.calculateBMR: every formula is written out with the same operations
+ * in the same order.
+ */
+public class MetabolicCalculator {
+
+	// Gender codes
+	public static final byte MALE = 0;
+	public static final byte FEMALE = 1;
+
+	// Units codes
+	public static final byte METRIC = 0;
+	public static final byte IMPERIAL = 1;
+
+	// People per task, smaller ranges are calculated on the current thread
+	private static final int CHUNK = 8192;
+
+	private final ForkJoinPool pool;
+
+	public MetabolicCalculator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public MetabolicCalculator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return the gender code of a Person's gender
+	 */
+	public static byte gender(String gender) {
+		if (gender.equals("Male"))
+			return MALE;
+		if (gender.equals("Female"))
+			return FEMALE;
+
+		throw new IllegalArgumentException("Illegal gender set!");
+	}
+
+	/**
+	 * @return the units code of a Person's units (anything but Imperial is
+	 *         Metric, as in Profile.calculateBMR)
+	 */
+	public static byte units(String units) {
+		return units.equals("Imperial") ? IMPERIAL : METRIC;
+	}
+
+	/**
+	 * Fills bmr, tdee and goal for everyone in the arrays
+	 *
+	 * @param gender
+	 *            MALE or FEMALE
+	 * @param units
+	 *            METRIC or IMPERIAL (kg/cm or lbs/feet)
+	 * @param weight
+	 * @param height
+	 * @param age
+	 * @param activityLevel
+	 *            multiplier of the BMR (Activity.getActivityLevel)
+	 * @param goalMultiplier
+	 *            multiplier of the TDEE (Goal.getMultiplier)
+	 * @param bmr
+	 * @param tdee
+	 * @param goal
+	 */
+	public void calculate(byte[] gender, byte[] units, double[] weight, double[] height, int[] age,
+			double[] activityLevel, double[] goalMultiplier, double[] bmr, double[] tdee, double[] goal) {
+		int count = gender.length;
+
+		if (units.length != count || weight.length != count || height.length != count || age.length != count
+				|| activityLevel.length != count || goalMultiplier.length != count || bmr.length != count
+				|| tdee.length != count || goal.length != count)
+			throw new IllegalArgumentException("Every array needs a value per person!");
+
+		Batch batch = new Batch(gender, units, weight, height, age, activityLevel, goalMultiplier, bmr, tdee, goal,
+				0, count);
+
+		if (count <= CHUNK) {
+			batch.compute();
+		} else {
+			pool.invoke(batch);
+		}
+	}
+
+	/**
+	 * Range [from, to) of the arrays, split in halves until it is a chunk
+	 */
+	private static class Batch extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final byte[] gender, units;
+		private final double[] weight, height;
+		private final int[] age;
+		private final double[] activityLevel, goalMultiplier;
+		private final double[] bmr, tdee, goal;
+		private final int from, to;
+
+		Batch(byte[] gender, byte[] units, double[] weight, double[] height, int[] age, double[] activityLevel,
+				double[] goalMultiplier, double[] bmr, double[] tdee, double[] goal, int from, int to) {
+			this.gender = gender;
+			this.units = units;
+			this.weight = weight;
+			this.height = height;
+			this.age = age;
+			this.activityLevel = activityLevel;
+			this.goalMultiplier = goalMultiplier;
+			this.bmr = bmr;
+			this.tdee = tdee;
+			this.goal = goal;
+			this.from = from;
+			this.to = to;
+		}
+
+		private Batch half(int from, int to) {
+			return new Batch(gender, units, weight, height, age, activityLevel, goalMultiplier, bmr, tdee, goal, from,
+					to);
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > CHUNK) {
+				int middle = (from + to) >>> 1;
+				invokeAll(half(from, middle), half(middle, to));
+				return;
+			}
+
+			for (int i = from; i < to; i++) {
+				double w = weight[i], h = height[i];
+				int a = age[i];
+				double value;
+
+				// Same operations in the same order as Profile.calculateBMR
+				if (gender[i] == MALE) {
+					if (units[i] == IMPERIAL) {
+						value = 66 + (13.75 * (w / 2.20462) + (5 * (h / 0.0328084)) - (6.8 * a));
+					} else {
+						value = 66 + (13.75 * w) + (5 * h) - (6.8 * a);
+					}
+				} else {
+					if (units[i] == IMPERIAL) {
+						value = 665 + (9.6 * (w / 2.20462) + (1.8 * (h / 0.0328084)) - (4.7 * a));
+					} else {
+						value = 655 + (9.6 * w) + (1.8 * h) - (4.7 * a);
+					}
+				}
+
+				bmr[i] = value;
+				tdee[i] = value * activityLevel[i];
+				goal[i] = tdee[i] * goalMultiplier[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters, gauges and timers of the program, by name (e.g. "summary.update")
+ *
+ * Metrics are created on first use and can be updated from any thread. The
+ * snapshot is a JSON object, timers are given in milliseconds: count, mean,
+ * p50, p90, p99 and max.
+ */
+public class MetricsRegistry {
+
+	private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>();
+	private final ConcurrentHashMap<String, LongSupplier> gauges = new ConcurrentHashMap<String, LongSupplier>();
+	private final ConcurrentHashMap<String, Histogram> timers = new ConcurrentHashMap<String, Histogram>();
+
+	public LongAdder counter(String name) {
+		return counters.computeIfAbsent(name, n -> new LongAdder());
+	}
+
+	/**
+	 * Registers a value that is read when a snapshot is taken (replacing the
+	 * previous gauge of the name)
+	 */
+	public void gauge(String name, LongSupplier value) {
+		gauges.put(name, value);
+	}
+
+	/**
+	 * @return the histogram of the durations of a name, in nanoseconds
+	 */
+	public Histogram timer(String name) {
+		return timers.computeIfAbsent(name, n -> new Histogram());
+	}
+
+	/**
+	 * @return the time to pass to stop
+	 */
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Records the time since start under a name
+	 *
+	 * @param name
+	 * @param start
+	 *            what start() returned
+	 */
+	public void stop(String name, long start) {
+		timer(name).record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Runs something and records how long it took under a name
+	 */
+	public void time(String name, Runnable work) {
+		long start = start();
+		try {
+			work.run();
+		} finally {
+			stop(name, start);
+		}
+	}
+
+	private static double millis(double nanos) {
+		return Math.round(nanos / 1000) / 1000.0;
+	}
+
+	private static void appendName(StringBuilder json, String name) {
+		json.append('"');
+		for (char c : name.toCharArray()) {
+			if (c == '"' || c == '\\')
+				json.append('\\');
+			json.append(c);
+		}
+		json.append("\": ");
+	}
+
+	/**
+	 * @return every metric as JSON, names in order
+	 */
+	public String snapshot() {
+		StringBuilder json = new StringBuilder("{\n  \"counters\": {");
+
+		String separator = "\n    ";
+		for (Map.Entry<String, LongAdder> counter : new TreeMap<String, LongAdder>(counters).entrySet()) {
+			json.append(separator);
+			appendName(json, counter.getKey());
+			json.append(counter.getValue().sum());
+			separator = ",\n    ";
+		}
+
+		json.append("\n  },\n  \"gauges\": {");
+		separator = "\n    ";
+		for (Map.Entry<String, LongSupplier> gauge : new TreeMap<String, LongSupplier>(gauges).entrySet()) {
+			json.append(separator);
+			appendName(json, gauge.getKey());
+			json.append(gauge.getValue().getAsLong());
+			separator = ",\n    ";
+		}
+
+		json.append("\n  },\n  \"timers\": {");
+		separator = "\n    ";
+		for (Map.Entry<String, Histogram> timer : new TreeMap<String, Histogram>(timers).entrySet()) {
+			Histogram h = timer.getValue();
+
+			json.append(separator);
+			appendName(json, timer.getKey());
+			json.append("{ \"count\": ").append(h.getCount());
+			json.append(", \"mean_ms\": ").append(millis(h.getMean()));
+			json.append(", \"p50_ms\": ").append(millis(h.getPercentile(50)));
+			json.append(", \"p90_ms\": ").append(millis(h.getPercentile(90)));
+			json.append(", \"p99_ms\": ").append(millis(h.getPercentile(99)));
+			json.append(", \"max_ms\": ").append(millis(h.getMax())).append(" }");
+			separator = ",\n    ";
+		}
+
+		json.append("\n  }\n}\n");
+		return json.toString();
+	}
+
+	/**
+	 * Writes the snapshot into a file (through a temporary file, so the file is
+	 * always complete)
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(Path file) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			writer.write(snapshot());
+		}
+
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
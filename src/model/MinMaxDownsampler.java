@@ -0,0 +1,55 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Splits the line into budget / 2 buckets and keeps the lowest and highest
+ * point of each, so no peak or dip is ever dropped
+ */
+public class MinMaxDownsampler implements Downsampler {
+
+	/**
+	 * @return the positions of every point of a line
+	 */
+	static int[] all(int size) {
+		int[] all = new int[size];
+		for (int i = 0; i < size; i++) {
+			all[i] = i;
+		}
+		return all;
+	}
+
+	@Override
+	public int[] select(ExerciseChartData data, int budget) {
+		if (budget < 2)
+			throw new IllegalArgumentException("Budget needs at least 2 points!");
+
+		int size = data.size();
+		if (size <= budget)
+			return all(size);
+
+		int buckets = budget / 2;
+		int[] selected = new int[buckets * 2];
+		int count = 0;
+
+		for (int b = 0; b < buckets; b++) {
+			int from = (int) ((long) b * size / buckets);
+			int to = (int) ((long) (b + 1) * size / buckets);
+
+			int min = from, max = from;
+			for (int i = from + 1; i < to; i++) {
+				if (data.getValue(i) < data.getValue(min))
+					min = i;
+				if (data.getValue(i) > data.getValue(max))
+					max = i;
+			}
+
+			// In date order, once if they are the same point
+			selected[count++] = Math.min(min, max);
+			if (min != max)
+				selected[count++] = Math.max(min, max);
+		}
+
+		return Arrays.copyOf(selected, count);
+	}
+}
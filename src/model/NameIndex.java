@@ -0,0 +1,218 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Trigram inverted index over names identified by int ids, the search engine
+ * behind SearchIndex and FoodCatalog
+ *
+ * Every lowercased name is split into its 3 character sequences and each one
+ * keeps a sorted list of the ids containing it. A search only looks at the ids
+ * found in all the query's trigrams (starting from the shortest list), instead
+ * of testing every name. Queries shorter than a trigram fall back to scanning
+ * the names.
+ *
+ * Names aren't copied, they are read through the owner's lookup (which returns
+ * null for removed ids). Ids must be added in ascending order.
+ *
+ * Results keep the "name contains the query" behaviour, ranked by: name starts
+ * with the query, a word starts with the query, shorter names first
+ */
+public class NameIndex {
+
+	// Name of an id, null once removed
+	private final IntFunction<String> names;
+	// Ids (ascending) of the names containing each trigram
+	private HashMap<Long, Postings> postings = new HashMap<Long, Postings>();
+	// One past the highest id added
+	private int end = 0;
+
+	/**
+	 * Sorted growable list of ids
+	 */
+	private static class Postings {
+		int[] ids = new int[4];
+		int size = 0;
+
+		void add(int id) {
+			// Ids are added in ascending order so appending keeps the list sorted
+			if (size > 0 && ids[size - 1] == id)
+				return;
+			if (size == ids.length)
+				ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = id;
+		}
+
+		void remove(int id) {
+			int i = Arrays.binarySearch(ids, 0, size, id);
+			if (i < 0)
+				return;
+			System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+			size--;
+		}
+	}
+
+	/**
+	 * @param names
+	 *            returns the name of an id, or null if it was removed
+	 */
+	public NameIndex(IntFunction<String> names) {
+		this.names = names;
+	}
+
+	/**
+	 * Indexes the current name of id
+	 *
+	 * @param id
+	 *            must be higher than every id added before
+	 */
+	public void add(int id) {
+		if (id < end)
+			throw new IllegalArgumentException("Ids must be added in ascending order!");
+
+		end = id + 1;
+
+		String name = normalize(names.apply(id));
+		for (int i = 0; i + 3 <= name.length(); i++) {
+			long trigram = trigram(name, i);
+
+			Postings list = postings.get(trigram);
+			if (list == null) {
+				list = new Postings();
+				postings.put(trigram, list);
+			}
+			list.add(id);
+		}
+	}
+
+	/**
+	 * Removes id from the index, must be called while its name can still be
+	 * looked up
+	 *
+	 * @param id
+	 */
+	public void remove(int id) {
+		String name = normalize(names.apply(id));
+
+		for (int i = 0; i + 3 <= name.length(); i++) {
+			long trigram = trigram(name, i);
+
+			Postings list = postings.get(trigram);
+			if (list != null) {
+				list.remove(id);
+				if (list.size == 0)
+					postings.remove(trigram);
+			}
+		}
+	}
+
+	/**
+	 * Finds every id whose name contains the query (ignoring case and surrounding
+	 * spaces)
+	 *
+	 * @param query
+	 * @return ranked ids, every id in order if the query is empty
+	 */
+	public int[] search(String query) {
+		String text = normalize(query);
+
+		// Sort keys of the matches (rank, name length, id) so sorting them ranks the ids
+		long[] found = new long[16];
+		int count = 0;
+
+		String wordStart = " " + text;
+
+		int[] candidates = text.length() < 3 ? null : candidates(text);
+		int candidateCount = candidates == null ? end : candidates.length;
+
+		for (int i = 0; i < candidateCount; i++) {
+			int id = candidates == null ? i : candidates[i];
+
+			// Having every trigram doesn't guarantee they are in the right order
+			String name = names.apply(id);
+			if (name == null || !(name = normalize(name)).contains(text))
+				continue;
+
+			if (count == found.length)
+				found = Arrays.copyOf(found, count * 2);
+			found[count++] = text.isEmpty() ? id : key(rank(name, text, wordStart), name.length(), id);
+		}
+
+		Arrays.sort(found, 0, count);
+
+		int[] ids = new int[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = (int) found[i];
+		}
+		return ids;
+	}
+
+	/**
+	 * Intersects the postings of every trigram of the text, smallest first so the
+	 * candidates only shrink
+	 *
+	 * @return ids having every trigram, ascending
+	 */
+	private int[] candidates(String text) {
+		ArrayList<Postings> lists = new ArrayList<Postings>();
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			Postings list = postings.get(trigram(text, i));
+			if (list == null)
+				return new int[0];
+			lists.add(list);
+		}
+		Collections.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+		int[] candidates = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+		int count = candidates.length;
+
+		// Both lists are sorted, so one pass over each keeps the common ids
+		for (int l = 1; l < lists.size() && count > 0; l++) {
+			Postings list = lists.get(l);
+			int kept = 0, j = 0;
+
+			for (int i = 0; i < count && j < list.size; i++) {
+				while (j < list.size && list.ids[j] < candidates[i]) {
+					j++;
+				}
+				if (j < list.size && list.ids[j] == candidates[i])
+					candidates[kept++] = candidates[i];
+			}
+			count = kept;
+		}
+
+		return Arrays.copyOf(candidates, count);
+	}
+
+	/**
+	 * Packs rank (bits 61-62), name length (bits 32-60) and id (bits 0-31)
+	 */
+	private static long key(int rank, int length, int id) {
+		return ((long) rank << 61) | ((long) Math.min(length, (1 << 29) - 1) << 32) | id;
+	}
+
+	/**
+	 * @return 0 if the name starts with the text, 1 if one of its words does, 2
+	 *         otherwise
+	 */
+	private static int rank(String name, String text, String wordStart) {
+		if (name.startsWith(text))
+			return 0;
+		if (name.contains(wordStart))
+			return 1;
+		return 2;
+	}
+
+	private static String normalize(String text) {
+		return text == null ? "" : text.toLowerCase().trim();
+	}
+
+	// Packs the 3 characters at i into one key
+	private static long trigram(String text, int i) {
+		return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+	}
+}
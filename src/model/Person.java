@@ -1,242 +1,157 @@
 package model;
 
-public class Person {
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
-	private static Person instance = new Person();
+public class Person {
 
 	/*
 	 * Keep track of users: age, height, weight
+	 *
+	 * Everything lives in one immutable Profile which is swapped as a whole on
+	 * every change, so a reader on any thread sees a matching BMR/TDEE/goal
+	 * without locking
 	 */
-	private Goal currentGoal = new Goal("Maintain Weight", 1.0);
-	private Activity activity = new Activity("Sedentary", 1.2);
-	
-	private String firstName = "Hello";
-	private String lastName = "World";
-	private String units = "Metric";
-	private String gender = "Male";
-	private int age = 20;
-	private double weight = 70;
-	private double height = 183;
-	private double bodyfat = 0.19;
-	private double waist = 85;
-	private double BMI = 0;
-	private double BMR = 0;
-	private double TDEE = 0;
-	private  double goalCalories = 2169;
-	
-	/* Singleton class */
-	private Person() {
-
-	}
-	
-	
+	private final AtomicReference<Profile> profile = new AtomicReference<Profile>(new Profile());
+
+	/* One per user, held by their TrackerEngine */
+	public Person() {
+
+	}
+
 	/**
-	 * 
-	 * Calculates the 'Basal Metabolic Rate' of a person based off his gender,
-	 * weight and height
-	 * 
-	 * Also converts back into Metric for the calculation if we are in Imperial
-	 * units
-	 * 
-	 * Formula for Males BMR = 66 + (13.75 x weight in kg) + (5 x height in cm) 
-	 * (6.8 x age in yrs)
-	 * 
-	 * Formula for Females BMR = 655 + (9.6 x weight in kg) + (1.8 x height in cm) 
-	 * (4.7 x age in Yrs)
-	 * 
+	 * @return the current snapshot, read several values from it when they need
+	 *         to match each other
 	 */
-	public void calculateBMR() {
-		
-		if (getGender().equals("Male")) {
-			// Check what units we are in and convert to Metric
-			if (getUnits().equals("Imperial")) {
-				// Use the converted BMR
-				setBMR(66
-						+ (13.75 * (getWeight() / 2.20462) + (5 * (getHeight() / 0.0328084)) - (6.8 * getAge())));
-			} else {
-				setBMR(66 + (13.75 * getWeight()) + (5 * getHeight()) - (6.8 * getAge()));
-			}
-
-		} else if (getGender().equals("Female")) {
-			if (getUnits().equals("Imperial")) {
-				// Use converted BMR to metric
-				setBMR(665
-						+ (9.6 * (getWeight() / 2.20462) + (1.8 * (getHeight() / 0.0328084)) - (4.7 * getAge())));
-			} else {
-				setBMR(655 + (9.6 * getWeight()) + (1.8 * getHeight()) - (4.7 * getAge()));
-			}
-
-		}
+	public Profile getProfile() {
+		return profile.get();
+	}
+
+	public void setProfile(Profile profile) {
+		this.profile.set(profile);
 	}
 
 	/**
-	 * 
-	 * Calculates a Person's Total Daily Energy Expenditure based off his BMR and
-	 * activity level
+	 * Applies a change to the current snapshot and swaps the result in, the
+	 * change is applied again if another thread swapped in a snapshot first (so
+	 * it must not have side effects)
+	 *
+	 * @param change
+	 *            e.g. p -> p.withWeight(80).withAge(30)
+	 * @return the new snapshot
 	 */
-	public void calculateTDEE() {
-		this.setTDEE(getBMR() * getActivity().getActivityLevel());
-	}
-	
-	
-	// static block initialization for exception handling
-	static {
-		try {
-			instance = new Person();
-		} catch (Exception e) {
-			throw new RuntimeException("Exception occured in creating singleton user instance");
-		}
-	}
-	
+	public Profile update(UnaryOperator<Profile> change) {
+		return profile.updateAndGet(change);
+	}
+
 	public Activity getActivity() {
-		return activity;
+		return getProfile().getActivity();
 	}
 
 	public void setActivity(Activity activity) {
-		this.activity= activity;
+		update(p -> p.withActivity(activity));
 	}
 
 	public void setBodyfat(double bodyfat) {
-		
-		validateValue(bodyfat);
-		
-		// Greater than 100%
-		if(bodyfat > 1.0) throw new IllegalArgumentException("Illegal bodyfat set!");
-		
-		this.bodyfat = bodyfat;
+		update(p -> p.withBodyfat(bodyfat));
 	}
 
 	public void setWaist(double waist) {
-		this.waist = waist;
-	}
-	
-	public void setTDEE(double value) {
-		this.TDEE = value;
+		update(p -> p.withWaist(waist));
 	}
 
 	public double getTDEE() {
-		return TDEE;
+		return getProfile().getTDEE();
 	}
 
 	public String getFirstName() {
-		return firstName;
+		return getProfile().getFirstName();
 	}
 
 	public void setFirstName(String firstName) {
-		this.firstName = firstName;
+		update(p -> p.withFirstName(firstName));
 	}
 
 	public String getLastName() {
-		return lastName;
+		return getProfile().getLastName();
 	}
 
 	public void setLastName(String lastName) {
-		this.lastName = lastName;
+		update(p -> p.withLastName(lastName));
 	}
 
 	public String getGender() {
-		return gender;
-	}
-
-	public static Person getInstance() {
-		return instance;
+		return getProfile().getGender();
 	}
 
 	public int getAge() {
-		return age;
-	}
-	
-	private void validateValue(double value) {
-		if(value < 0) throw new IllegalArgumentException("Negative value set!");
+		return getProfile().getAge();
 	}
 
 	public void setAge(int age) {
-		validateValue(age);
-		this.age = age;
+		update(p -> p.withAge(age));
 	}
 
 	public double getWeight() {
-		return weight;
+		return getProfile().getWeight();
 	}
 
 	public void setWeight(double weight) {
-		validateValue(weight);
-		this.weight = weight;
+		update(p -> p.withWeight(weight));
 	}
 
 	public double getHeight() {
-		return height;
+		return getProfile().getHeight();
 	}
 
 	public void setHeight(double height) {
-		validateValue(height);
-		this.height = height;
+		update(p -> p.withHeight(height));
 	}
 
 	public void setGender(String gender) {
-		
-		if(!gender.equals("Male") && !gender.equals("Female")) throw new IllegalArgumentException("Illegal gender set!");
-		
-		this.gender = gender;
-		
-		
-		// After setting gender we need to update everything
-		updatePerson();
-	}
-	
-	private void updatePerson() {
-		calculateBMR();
-		calculateTDEE();
-		
-		setGoalCalories(getTDEE() * currentGoal.getMultiplier());
+		update(p -> p.withGender(gender));
 	}
 
 	public double getBodyfat() {
-		return bodyfat;
+		return getProfile().getBodyfat();
 	}
 
 	public double getWaist() {
-		return waist;
+		return getProfile().getWaist();
 	}
 
 	public double getGoalCalories() {
-		return goalCalories;
+		return getProfile().getGoalCalories();
 	}
-	
+
+	/**
+	 * Overrides the calories of the goal, until the next change
+	 */
 	public void setGoalCalories(double value) {
-		validateValue(value);
-		this.goalCalories = value;
+		update(p -> p.withGoalCalories(value));
 	}
 
 	public Goal getCurrentGoal() {
-		return currentGoal;
+		return getProfile().getCurrentGoal();
 	}
 
 	public void setCurrentGoal(Goal currentGoal) {
-		this.currentGoal = currentGoal;
+		update(p -> p.withCurrentGoal(currentGoal));
 	}
 
 	public String getUnits() {
-		return units;
+		return getProfile().getUnits();
 	}
 
 	public void setUnits(String units) {
-		this.units = units;
+		update(p -> p.withUnits(units));
 	}
 
 	public double getBMR() {
-		return BMR;
-	}
-
-	public void setBMR(double bMR) {
-		BMR = bMR;
+		return getProfile().getBMR();
 	}
 
 	public double getBMI() {
-		return BMI;
-	}
-
-	public void setBMI(double bMI) {
-		BMI = bMI;
+		return getProfile().getBMI();
 	}
 }
@@ -0,0 +1,271 @@
+package model;
+
+/**
+ * An immutable snapshot of a Person: what they told us (age, weight, height,
+ * goal...) and what we work out from it (BMI, BMR, TDEE and goal calories)
+ *
+ * The derived values are calculated once, when the snapshot is created, so a
+ * snapshot always holds a matching BMR/TDEE/goal. Every change creates a new
+ * snapshot, which the Person swaps in as a whole.
+ */
+public final class Profile {
+
+	private final String firstName;
+	private final String lastName;
+	private final String units;
+	private final String gender;
+	private final int age;
+	private final double weight;
+	private final double height;
+	private final double bodyfat;
+	private final double waist;
+	private final Goal currentGoal;
+	private final Activity activity;
+
+	// Derived
+	private final double BMI;
+	private final double BMR;
+	private final double TDEE;
+	private final double goalCalories;
+
+	/**
+	 * The profile of a new Person
+	 */
+	public Profile() {
+		this("Hello", "World", "Metric", "Male", 20, 70, 183, 0.19, 85, new Goal("Maintain Weight", 1.0),
+				new Activity("Sedentary", 1.2), Double.NaN);
+	}
+
+	/**
+	 * @param goalCalories
+	 *            NaN to use the calories of the goal
+	 */
+	private Profile(String firstName, String lastName, String units, String gender, int age, double weight,
+			double height, double bodyfat, double waist, Goal currentGoal, Activity activity, double goalCalories) {
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.units = units;
+		this.gender = gender;
+		this.age = age;
+		this.weight = weight;
+		this.height = height;
+		this.bodyfat = bodyfat;
+		this.waist = waist;
+		this.currentGoal = currentGoal;
+		this.activity = activity;
+
+		this.BMI = calculateBMI(units, weight, height);
+		this.BMR = calculateBMR(gender, units, weight, height, age);
+		this.TDEE = BMR * activity.getActivityLevel();
+		this.goalCalories = Double.isNaN(goalCalories) ? TDEE * currentGoal.getMultiplier() : goalCalories;
+	}
+
+	/**
+	 *
+	 * Calculates the 'Basal Metabolic Rate' of a person based off their gender,
+	 * weight and height
+	 *
+	 * Also converts back into Metric for the calculation if we are in Imperial
+	 * units
+	 *
+	 * Formula for Males BMR = 66 + (13.75 x weight in kg) + (5 x height in cm) -
+	 * (6.8 x age in yrs)
+	 *
+	 * Formula for Females BMR = 655 + (9.6 x weight in kg) + (1.8 x height in cm) -
+	 * (4.7 x age in Yrs)
+	 *
+	 * MetabolicCalculator repeats these formulas for whole populations, keep them
+	 * the same
+	 */
+	public static double calculateBMR(String gender, String units, double weight, double height, int age) {
+		if (gender.equals("Male")) {
+			// Check what units we are in and convert to Metric
+			if (units.equals("Imperial")) {
+				// Use the converted BMR
+				return 66 + (13.75 * (weight / 2.20462) + (5 * (height / 0.0328084)) - (6.8 * age));
+			} else {
+				return 66 + (13.75 * weight) + (5 * height) - (6.8 * age);
+			}
+
+		} else if (gender.equals("Female")) {
+			if (units.equals("Imperial")) {
+				// Use converted BMR to metric
+				return 665 + (9.6 * (weight / 2.20462) + (1.8 * (height / 0.0328084)) - (4.7 * age));
+			} else {
+				return 655 + (9.6 * weight) + (1.8 * height) - (4.7 * age);
+			}
+
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Body Mass Index, weight in kg / (height in m)^2 (converted from Imperial
+	 * units)
+	 */
+	public static double calculateBMI(String units, double weight, double height) {
+		if (units.equals("Imperial")) {
+			weight = weight / 2.20462;
+			height = height / 0.0328084;
+		}
+
+		double meters = height / 100;
+		return meters > 0 ? weight / (meters * meters) : 0;
+	}
+
+	private static void validateValue(double value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Negative value set!");
+	}
+
+	/*
+	 *
+	 * Changes, every one returns a new snapshot (and recalculates the derived
+	 * values)
+	 *
+	 */
+
+	public Profile withFirstName(String firstName) {
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withLastName(String lastName) {
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withUnits(String units) {
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withGender(String gender) {
+		if (!gender.equals("Male") && !gender.equals("Female"))
+			throw new IllegalArgumentException("Illegal gender set!");
+
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withAge(int age) {
+		validateValue(age);
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withWeight(double weight) {
+		validateValue(weight);
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withHeight(double height) {
+		validateValue(height);
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withBodyfat(double bodyfat) {
+		validateValue(bodyfat);
+
+		// Greater than 100%
+		if (bodyfat > 1.0)
+			throw new IllegalArgumentException("Illegal bodyfat set!");
+
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withWaist(double waist) {
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withCurrentGoal(Goal currentGoal) {
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, Double.NaN);
+	}
+
+	public Profile withActivity(Activity activity) {
+		// Copied, the level of an Activity can still be changed
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				new Activity(activity.getName(), activity.getActivityLevel()), Double.NaN);
+	}
+
+	/**
+	 * Overrides the calories of the goal, until the next change
+	 */
+	public Profile withGoalCalories(double goalCalories) {
+		validateValue(goalCalories);
+		return new Profile(firstName, lastName, units, gender, age, weight, height, bodyfat, waist, currentGoal,
+				activity, goalCalories);
+	}
+
+	/*
+	 *
+	 * Getters
+	 *
+	 */
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public String getUnits() {
+		return units;
+	}
+
+	public String getGender() {
+		return gender;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+
+	public double getHeight() {
+		return height;
+	}
+
+	public double getBodyfat() {
+		return bodyfat;
+	}
+
+	public double getWaist() {
+		return waist;
+	}
+
+	public Goal getCurrentGoal() {
+		return currentGoal;
+	}
+
+	public Activity getActivity() {
+		return activity;
+	}
+
+	public double getBMI() {
+		return BMI;
+	}
+
+	public double getBMR() {
+		return BMR;
+	}
+
+	public double getTDEE() {
+		return TDEE;
+	}
+
+	public double getGoalCalories() {
+		return goalCalories;
+	}
+}
@@ -0,0 +1,271 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers sum/average/min/max of the daily calories and macros between any two
+ * dates in logarithmic time
+ *
+ * The epoch-days are split in chunks of CHUNK_DAYS days, each one a segment
+ * tree whose nodes hold the sum, min, max and amount of logged days of their
+ * range. Only chunks with a logged day exist (kept sorted by chunk number), so
+ * a date far away from the others costs one chunk instead of growing the
+ * index up to it. The index listens to a DayStore so editing a food only
+ * updates the path from that day up to the root of its chunk (the day's
+ * running totals make the new leaf value O(1) to read).
+ *
+ * Columns are the ones of HistoryFile: HistoryFile.CALORIES, CARBOHYDRATES,
+ * PROTEINS, FATS and BURNED
+ */
+public class RangeIndex implements DayListener {
+
+	private static final int COLUMNS = 5;
+	// Days covered by a chunk (a power of 2)
+	private static final int CHUNK_DAYS = 256;
+
+	// Positions in the array the queries fold their nodes into
+	private static final int SUM = 0, MIN = 1, MAX = 2, COUNT = 3;
+
+	// Chunks by epoch-day / CHUNK_DAYS (rounded down)
+	private final TreeMap<Long, Chunk> chunks = new TreeMap<Long, Chunk>();
+
+	/**
+	 * Segment tree over the days of a chunk, nodes are stored heap style: root
+	 * at 1, children of n at 2n and 2n + 1, leaves from CHUNK_DAYS
+	 */
+	private static class Chunk {
+		private final double[][] sum = new double[COLUMNS][CHUNK_DAYS * 2];
+		private final double[][] min = new double[COLUMNS][CHUNK_DAYS * 2];
+		private final double[][] max = new double[COLUMNS][CHUNK_DAYS * 2];
+		private final int[] count = new int[CHUNK_DAYS * 2];
+
+		private Chunk() {
+			for (int c = 0; c < COLUMNS; c++) {
+				Arrays.fill(min[c], Double.POSITIVE_INFINITY);
+				Arrays.fill(max[c], Double.NEGATIVE_INFINITY);
+			}
+		}
+
+		private void setLeaf(int node, int column, double value) {
+			sum[column][node] = value;
+			min[column][node] = value;
+			max[column][node] = value;
+		}
+
+		private void clearLeaf(int node, int column) {
+			sum[column][node] = 0;
+			min[column][node] = Double.POSITIVE_INFINITY;
+			max[column][node] = Double.NEGATIVE_INFINITY;
+		}
+
+		/**
+		 * Recalculates a node from its two children
+		 */
+		private void pull(int node) {
+			int left = node * 2, right = left + 1;
+
+			for (int c = 0; c < COLUMNS; c++) {
+				sum[c][node] = sum[c][left] + sum[c][right];
+				min[c][node] = Math.min(min[c][left], min[c][right]);
+				max[c][node] = Math.max(max[c][left], max[c][right]);
+			}
+			count[node] = count[left] + count[right];
+		}
+
+		/**
+		 * Adds a node of the column into the folded result
+		 */
+		private void fold(int node, int column, double[] result) {
+			result[SUM] += sum[column][node];
+			result[MIN] = Math.min(result[MIN], min[column][node]);
+			result[MAX] = Math.max(result[MAX], max[column][node]);
+			result[COUNT] += count[node];
+		}
+	}
+
+	/**
+	 * Indexes the days already in the store and keeps itself up to date with the
+	 * store's changes
+	 *
+	 * @param store
+	 */
+	public RangeIndex(DayStore store) {
+		for (Day day : store.getDays()) {
+			update(day);
+		}
+
+		store.addListener(this);
+	}
+
+	/**
+	 * Forgets every indexed day
+	 */
+	public void clear() {
+		chunks.clear();
+	}
+
+	/**
+	 * Reads the current totals of the day into its leaf and updates every node
+	 * above it
+	 *
+	 * @param day
+	 */
+	public void update(Day day) {
+		long epochDay = day.getDate().toEpochDay();
+		long key = Math.floorDiv(epochDay, CHUNK_DAYS);
+		boolean logged = !day.getFoods().isEmpty() || !day.getExercises().isEmpty();
+
+		Chunk chunk = chunks.get(key);
+		if (chunk == null) {
+			if (!logged)
+				return;
+
+			chunk = new Chunk();
+			chunks.put(key, chunk);
+		}
+
+		int node = (int) (epochDay - key * CHUNK_DAYS) + CHUNK_DAYS;
+
+		if (logged) {
+			chunk.setLeaf(node, HistoryFile.CALORIES, day.getTotalFoodCalories());
+			chunk.setLeaf(node, HistoryFile.CARBOHYDRATES, day.getTotalCarbohydrates());
+			chunk.setLeaf(node, HistoryFile.PROTEINS, day.getTotalProteins());
+			chunk.setLeaf(node, HistoryFile.FATS, day.getTotalFats());
+			chunk.setLeaf(node, HistoryFile.BURNED, day.getTotalExerciseCalories());
+			chunk.count[node] = 1;
+		} else {
+			for (int c = 0; c < COLUMNS; c++) {
+				chunk.clearLeaf(node, c);
+			}
+			chunk.count[node] = 0;
+		}
+
+		for (node /= 2; node >= 1; node /= 2) {
+			chunk.pull(node);
+		}
+
+		// Nothing logged in the chunk anymore
+		if (chunk.count[1] == 0)
+			chunks.remove(key);
+	}
+
+	/*
+	 *
+	 * Queries, start and end are both inclusive
+	 *
+	 */
+
+	/**
+	 * @param column
+	 *            HistoryFile.CALORIES, CARBOHYDRATES, PROTEINS, FATS or BURNED
+	 * @return total of the column between the dates
+	 */
+	public double sum(int column, LocalDate start, LocalDate end) {
+		return fold(column, start, end)[SUM];
+	}
+
+	/**
+	 * @return amount of days with at least one food or exercise between the dates
+	 */
+	public int count(LocalDate start, LocalDate end) {
+		return (int) fold(HistoryFile.CALORIES, start, end)[COUNT];
+	}
+
+	/**
+	 * @return average of the column per logged day, 0 if nothing was logged
+	 */
+	public double average(int column, LocalDate start, LocalDate end) {
+		double[] result = fold(column, start, end);
+		return result[COUNT] == 0 ? 0 : result[SUM] / result[COUNT];
+	}
+
+	/**
+	 * @return lowest value of the column on a logged day, NaN if nothing was logged
+	 */
+	public double min(int column, LocalDate start, LocalDate end) {
+		double lowest = fold(column, start, end)[MIN];
+		return lowest == Double.POSITIVE_INFINITY ? Double.NaN : lowest;
+	}
+
+	/**
+	 * @return highest value of the column on a logged day, NaN if nothing was logged
+	 */
+	public double max(int column, LocalDate start, LocalDate end) {
+		double highest = fold(column, start, end)[MAX];
+		return highest == Double.NEGATIVE_INFINITY ? Double.NaN : highest;
+	}
+
+	/**
+	 * Folds the (at most 2 log CHUNK_DAYS) nodes exactly covering the dates in
+	 * every chunk between them
+	 *
+	 * @return sum, min, max and count of the column
+	 */
+	private double[] fold(int column, LocalDate start, LocalDate end) {
+		double[] result = { 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0 };
+
+		long from = start.toEpochDay(), to = end.toEpochDay();
+		if (from > to)
+			return result;
+
+		for (Map.Entry<Long, Chunk> entry : chunks
+				.subMap(Math.floorDiv(from, CHUNK_DAYS), true, Math.floorDiv(to, CHUNK_DAYS), true).entrySet()) {
+			Chunk chunk = entry.getValue();
+			long first = entry.getKey() * CHUNK_DAYS;
+
+			// Clamp the range into the chunk's days
+			int left = (int) (Math.max(from, first) - first) + CHUNK_DAYS;
+			int right = (int) (Math.min(to, first + CHUNK_DAYS - 1) - first) + CHUNK_DAYS + 1;
+
+			while (left < right) {
+				if ((left & 1) == 1)
+					chunk.fold(left++, column, result);
+				if ((right & 1) == 1)
+					chunk.fold(--right, column, result);
+
+				left /= 2;
+				right /= 2;
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 *
+	 * DayListener methods, every change refreshes the leaf of its day
+	 *
+	 */
+	@Override
+	public void foodAdded(Day day, Food food) {
+		update(day);
+	}
+
+	@Override
+	public void foodDeleted(Day day, int index) {
+		update(day);
+	}
+
+	@Override
+	public void foodUpdated(Day day, int index) {
+		update(day);
+	}
+
+	@Override
+	public void exerciseAdded(Day day, Exercise exercise) {
+		update(day);
+	}
+
+	@Override
+	public void exerciseDeleted(Day day, int index) {
+		update(day);
+	}
+
+	@Override
+	public void exerciseUpdated(Day day, int index) {
+		update(day);
+	}
+}
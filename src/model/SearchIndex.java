@@ -0,0 +1,111 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Trigram search over the names of a list of items (used by the exercise
+ * search), see NameIndex
+ */
+public class SearchIndex<T extends Item> {
+
+	// Indexed items by index id (null once removed)
+	private ArrayList<T> items = new ArrayList<T>();
+	// Index id of every indexed item
+	private IdentityHashMap<T, Integer> ids = new IdentityHashMap<T, Integer>();
+
+	private NameIndex index = new NameIndex(id -> items.get(id) == null ? null : items.get(id).getName());
+
+	public SearchIndex() {
+
+	}
+
+	/**
+	 * Creates an index following the items of a list
+	 *
+	 * @param list
+	 */
+	public SearchIndex(ObservableList<T> list) {
+		follow(list);
+	}
+
+	/**
+	 * Adds every item of the list and keeps the index up to date with the list's
+	 * additions and removals
+	 *
+	 * @param list
+	 */
+	public void follow(ObservableList<T> list) {
+		for (T item : list) {
+			add(item);
+		}
+
+		list.addListener((ListChangeListener<T>) change -> {
+			while (change.next()) {
+				for (T item : change.getRemoved()) {
+					remove(item);
+				}
+				for (T item : change.getAddedSubList()) {
+					add(item);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Indexes an item by its current name, adding the same item twice does nothing
+	 *
+	 * @param item
+	 */
+	public void add(T item) {
+		if (ids.containsKey(item))
+			return;
+
+		int id = items.size();
+		items.add(item);
+		ids.put(item, id);
+
+		index.add(id);
+	}
+
+	/**
+	 * Removes an item from the index
+	 *
+	 * @param item
+	 * @return true if the item was indexed
+	 */
+	public boolean remove(T item) {
+		Integer id = ids.remove(item);
+		if (id == null)
+			return false;
+
+		index.remove(id);
+		items.set(id, null);
+		return true;
+	}
+
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Finds every item whose name contains the query (ignoring case and
+	 * surrounding spaces)
+	 *
+	 * @param query
+	 * @return ranked items, every item if the query is empty
+	 */
+	public List<T> search(String query) {
+		int[] found = index.search(query);
+
+		ArrayList<T> results = new ArrayList<T>(found.length);
+		for (int id : found) {
+			results.add(items.get(id));
+		}
+		return results;
+	}
+}
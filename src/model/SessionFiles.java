@@ -0,0 +1,215 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The parts of a user's session that the DayJournal doesn't record: the
+ * profile and the custom foods and exercises
+ *
+ * Every file is written to a temporary file first and then atomically renamed,
+ * so it is either missing or complete
+ */
+class SessionFiles {
+
+	static final String PROFILE = "profile.properties";
+	static final String FOODS = "custom-foods.csv";
+	static final String EXERCISES = "custom-exercises.csv";
+
+	private SessionFiles() {
+
+	}
+
+	/*
+	 *
+	 * Profile
+	 *
+	 */
+
+	static void writeProfile(Person owner, Path file) throws IOException {
+		Profile person = owner.getProfile();
+		Properties profile = new Properties();
+
+		profile.setProperty("firstName", person.getFirstName());
+		profile.setProperty("lastName", person.getLastName());
+		profile.setProperty("units", person.getUnits());
+		profile.setProperty("gender", person.getGender());
+		profile.setProperty("age", Integer.toString(person.getAge()));
+		profile.setProperty("weight", Double.toString(person.getWeight()));
+		profile.setProperty("height", Double.toString(person.getHeight()));
+		profile.setProperty("bodyfat", Double.toString(person.getBodyfat()));
+		profile.setProperty("waist", Double.toString(person.getWaist()));
+		profile.setProperty("goal", person.getCurrentGoal().getName());
+		profile.setProperty("goalMultiplier", Double.toString(person.getCurrentGoal().getMultiplier()));
+		profile.setProperty("activity", person.getActivity().getName());
+		profile.setProperty("activityLevel", Double.toString(person.getActivity().getActivityLevel()));
+		profile.setProperty("goalCalories", Double.toString(person.getGoalCalories()));
+
+		Path tmp = tmp(file);
+		try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			profile.store(out, "Calories Tracker profile");
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Copies a saved profile into person, nothing changes if the file is missing
+	 */
+	static void readProfile(Path file, Person person) throws IOException {
+		if (!Files.exists(file))
+			return;
+
+		Properties profile = new Properties();
+		try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			profile.load(in);
+		}
+
+		try {
+			Profile saved = new Profile().withFirstName(profile.getProperty("firstName"))
+					.withLastName(profile.getProperty("lastName"))
+					.withUnits(profile.getProperty("units"))
+					.withGender(profile.getProperty("gender"))
+					.withAge(Integer.parseInt(profile.getProperty("age")))
+					.withWeight(Double.parseDouble(profile.getProperty("weight")))
+					.withHeight(Double.parseDouble(profile.getProperty("height")))
+					.withBodyfat(Double.parseDouble(profile.getProperty("bodyfat")))
+					.withWaist(Double.parseDouble(profile.getProperty("waist")))
+					.withCurrentGoal(new Goal(profile.getProperty("goal"),
+							Double.parseDouble(profile.getProperty("goalMultiplier"))))
+					.withActivity(new Activity(profile.getProperty("activity"),
+							Double.parseDouble(profile.getProperty("activityLevel"))))
+					.withGoalCalories(Double.parseDouble(profile.getProperty("goalCalories")));
+
+			person.setProfile(saved);
+		} catch (NullPointerException | IllegalArgumentException e) {
+			throw new IOException("Corrupt profile " + file, e);
+		}
+	}
+
+	/*
+	 *
+	 * Custom foods and exercises
+	 *
+	 */
+
+	static void writeFoods(List<Food> foods, Path file) throws IOException {
+		ArrayList<String> lines = new ArrayList<String>();
+		lines.add("name,amount,carbohydrates,proteins,fats");
+
+		for (Food food : foods) {
+			// The suffix is added again when the food is read back as a custom food
+			String name = food.getName();
+			if (name.endsWith(Food.CUSTOM_SUFFIX))
+				name = name.substring(0, name.length() - Food.CUSTOM_SUFFIX.length());
+
+			lines.add(FoodImporter.quote(name) + "," + food.getOgAmount() + "," + food.getOgCarbohydrates()
+					+ "," + food.getOgProteins() + "," + food.getOgFats());
+		}
+
+		write(lines, file);
+	}
+
+	/**
+	 * @return the saved custom foods, an empty list if the file is missing
+	 */
+	static List<Food> readFoods(Path file) throws IOException {
+		ArrayList<Food> foods = new ArrayList<Food>();
+
+		for (ArrayList<String> fields : read(file, 5)) {
+			try {
+				double[] values = new double[4];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = Double.parseDouble(fields.get(i + 1));
+				}
+
+				foods.add(new Food(fields.get(0), values, new boolean[] { true, true }));
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Corrupt food in " + file + ": " + fields, e);
+			}
+		}
+
+		return foods;
+	}
+
+	static void writeExercises(List<Exercise> exercises, Path file) throws IOException {
+		ArrayList<String> lines = new ArrayList<String>();
+		lines.add("name,reps,sets,weight,caloriesBurned");
+
+		for (Exercise exercise : exercises) {
+			lines.add(FoodImporter.quote(exercise.getName()) + "," + exercise.getReps() + "," + exercise.getSets() + ","
+					+ exercise.getWeight() + "," + exercise.getCaloriesBurned());
+		}
+
+		write(lines, file);
+	}
+
+	/**
+	 * @return the saved custom exercises, an empty list if the file is missing
+	 */
+	static List<Exercise> readExercises(Path file) throws IOException {
+		ArrayList<Exercise> exercises = new ArrayList<Exercise>();
+
+		for (ArrayList<String> fields : read(file, 5)) {
+			try {
+				Number[] values = { Integer.parseInt(fields.get(1)), Integer.parseInt(fields.get(2)),
+						Double.parseDouble(fields.get(3)), Double.parseDouble(fields.get(4)) };
+
+				exercises.add(new Exercise(fields.get(0), values, true));
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Corrupt exercise in " + file + ": " + fields, e);
+			}
+		}
+
+		return exercises;
+	}
+
+	private static void write(List<String> lines, Path file) throws IOException {
+		Path tmp = tmp(file);
+		try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			for (String line : lines) {
+				out.write(line);
+				out.newLine();
+			}
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads the rows after the header, every row must have the given number of
+	 * fields
+	 */
+	private static List<ArrayList<String>> read(Path file, int fields) throws IOException {
+		ArrayList<ArrayList<String>> rows = new ArrayList<ArrayList<String>>();
+		if (!Files.exists(file))
+			return rows;
+
+		try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			// Skip the header
+			String line = in.readLine();
+
+			while ((line = in.readLine()) != null) {
+				ArrayList<String> row = FoodImporter.split(line, ',');
+				if (row.size() != fields)
+					throw new IOException("Corrupt row in " + file + ": " + line);
+
+				rows.add(row);
+			}
+		}
+
+		return rows;
+	}
+
+	private static Path tmp(Path file) {
+		return file.resolveSibling(file.getFileName() + ".tmp");
+	}
+}
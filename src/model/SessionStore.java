@@ -0,0 +1,347 @@
+package model;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The sessions (a TrackerEngine each) of every logged in user, keyed by user id
+ * and saved under directory/&lt;id&gt;
+ *
+ * Users are spread over stripes, each with its own map and lock, so loading or
+ * saving one user only blocks the users of the same stripe. Every open holds
+ * the session until it is released: only sessions nobody holds and that haven't
+ * been used for a while are evicted (saved to disk and loaded again by the next
+ * open), either by evictIdle or on a schedule.
+ *
+ * The store only guards its maps, a TrackerEngine itself must only be used by
+ * one thread at a time (i.e. the requests of its user)
+ */
+public class SessionStore {
+
+	private static final int DEFAULT_STRIPES = 64;
+
+	// Ids of the users by email, saved in the directory
+	private static final String ACCOUNTS = "accounts.properties";
+
+	private static class Session {
+		final TrackerEngine engine;
+		volatile long lastUsed;
+		// Opens not released yet (guarded by the lock of the stripe)
+		int holders;
+
+		Session(TrackerEngine engine, long now) {
+			this.engine = engine;
+			this.lastUsed = now;
+		}
+	}
+
+	private final Path directory;
+
+	// Stripe of a user is its id modulo the number of stripes
+	private final ReentrantLock[] locks;
+	private final ArrayList<HashMap<Integer, Session>> stripes;
+
+	// Loaded on first use
+	private Properties accounts;
+
+	// Runs the scheduled eviction, if any
+	private ScheduledExecutorService evictor;
+
+	public SessionStore(Path directory) {
+		this(directory, DEFAULT_STRIPES);
+	}
+
+	public SessionStore(Path directory, int stripes) {
+		if (stripes < 1)
+			throw new IllegalArgumentException("Invalid stripe count!");
+
+		this.directory = directory;
+		this.locks = new ReentrantLock[stripes];
+		this.stripes = new ArrayList<HashMap<Integer, Session>>(stripes);
+
+		for (int i = 0; i < stripes; i++) {
+			locks[i] = new ReentrantLock();
+			this.stripes.add(new HashMap<Integer, Session>());
+		}
+	}
+
+	private int stripe(int id) {
+		return Math.floorMod(id, locks.length);
+	}
+
+	/**
+	 * @return the directory the session of a user is saved in
+	 */
+	public Path getDirectory(int id) {
+		return directory.resolve(Integer.toString(id));
+	}
+
+	/**
+	 * Finds the id of a user by email (ignoring case and surrounding spaces),
+	 * giving a new user the next free id
+	 *
+	 * @param email
+	 * @return the id the session of the user is kept under
+	 * @throws IOException
+	 *             if the ids couldn't be read or the new id couldn't be saved
+	 */
+	public synchronized int userId(String email) throws IOException {
+		Path file = directory.resolve(ACCOUNTS);
+
+		if (accounts == null) {
+			accounts = new Properties();
+			if (Files.exists(file)) {
+				try (InputStream in = Files.newInputStream(file)) {
+					accounts.load(in);
+				}
+			}
+		}
+
+		String key = email.trim().toLowerCase(Locale.ROOT);
+		String id = accounts.getProperty(key);
+		if (id != null)
+			return Integer.parseInt(id);
+
+		int next = accounts.size() + 1;
+		accounts.setProperty(key, Integer.toString(next));
+
+		// Through a temporary file, so the ids are never half written
+		Files.createDirectories(directory);
+		Path tmp = file.resolveSibling(ACCOUNTS + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			accounts.store(out, "User ids by email");
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		return next;
+	}
+
+	/**
+	 * Finds the session of a user, loading it from disk (or starting a new one) if
+	 * it isn't in memory, and holds it (it isn't evicted) until it is released
+	 *
+	 * @param user
+	 * @return
+	 * @throws IOException
+	 */
+	public TrackerEngine open(User user) throws IOException {
+		int id = user.getId();
+		int stripe = stripe(id);
+		long now = System.currentTimeMillis();
+
+		locks[stripe].lock();
+		try {
+			Session session = stripes.get(stripe).get(id);
+
+			if (session == null) {
+				TrackerEngine engine = new TrackerEngine();
+				engine.open(getDirectory(id));
+
+				session = new Session(engine, now);
+				stripes.get(stripe).put(id, session);
+			}
+
+			session.lastUsed = now;
+			session.holders++;
+			return session.engine;
+		} finally {
+			locks[stripe].unlock();
+		}
+	}
+
+	/**
+	 * Stops holding the session of a user (i.e. on logout), it stays in memory
+	 * until it is idle for long enough to be evicted
+	 *
+	 * @param id
+	 * @return false if the session wasn't in memory
+	 */
+	public boolean release(int id) {
+		int stripe = stripe(id);
+
+		locks[stripe].lock();
+		try {
+			Session session = stripes.get(stripe).get(id);
+			if (session == null)
+				return false;
+
+			session.lastUsed = System.currentTimeMillis();
+			if (session.holders > 0)
+				session.holders--;
+			return true;
+		} finally {
+			locks[stripe].unlock();
+		}
+	}
+
+	/**
+	 * @return the session of a user if it is in memory (without holding it),
+	 *         otherwise null
+	 */
+	public TrackerEngine find(int id) {
+		int stripe = stripe(id);
+
+		locks[stripe].lock();
+		try {
+			Session session = stripes.get(stripe).get(id);
+			if (session == null)
+				return null;
+
+			session.lastUsed = System.currentTimeMillis();
+			return session.engine;
+		} finally {
+			locks[stripe].unlock();
+		}
+	}
+
+	/**
+	 * Saves the session of a user and removes it from memory (i.e. on logout)
+	 *
+	 * @param id
+	 * @return false if the session wasn't in memory
+	 * @throws IOException
+	 */
+	public boolean close(int id) throws IOException {
+		int stripe = stripe(id);
+
+		locks[stripe].lock();
+		try {
+			Session session = stripes.get(stripe).remove(id);
+			if (session == null)
+				return false;
+
+			session.engine.close();
+			return true;
+		} finally {
+			locks[stripe].unlock();
+		}
+	}
+
+	/**
+	 * Saves and removes the sessions nobody holds that haven't been used for a
+	 * while, one stripe at a time
+	 *
+	 * @param idleMillis
+	 * @return the number of sessions evicted
+	 * @throws IOException
+	 *             the first failure, the other sessions are still evicted
+	 */
+	public int evictIdle(long idleMillis) throws IOException {
+		return evict(System.currentTimeMillis() - idleMillis, false);
+	}
+
+	/**
+	 * Evicts the idle sessions every period on a background thread, until
+	 * closeAll
+	 *
+	 * @param idleMillis
+	 *            how long a released session stays in memory
+	 * @param periodMillis
+	 *            time between two evictions
+	 */
+	public synchronized void scheduleEviction(long idleMillis, long periodMillis) {
+		if (evictor != null)
+			throw new IllegalStateException("Eviction is already scheduled!");
+
+		evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "session-evictor");
+			t.setDaemon(true);
+			return t;
+		});
+
+		evictor.scheduleWithFixedDelay(() -> {
+			try {
+				int evicted = evictIdle(idleMillis);
+				if (evicted > 0)
+					Log.info(() -> "Evicted " + evicted + " idle sessions");
+			} catch (IOException e) {
+				Log.error("Couldn't save an idle session", e);
+			}
+		}, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops the scheduled eviction, saves and removes every session (i.e. on
+	 * exit)
+	 *
+	 * @throws IOException
+	 *             the first failure, the other sessions are still saved
+	 */
+	public void closeAll() throws IOException {
+		synchronized (this) {
+			if (evictor != null) {
+				evictor.shutdownNow();
+				evictor = null;
+			}
+		}
+
+		evict(Long.MAX_VALUE, true);
+	}
+
+	private int evict(long usedBefore, boolean held) throws IOException {
+		IOException failure = null;
+		int evicted = 0;
+
+		for (int stripe = 0; stripe < locks.length; stripe++) {
+			locks[stripe].lock();
+			try {
+				Iterator<Map.Entry<Integer, Session>> it = stripes.get(stripe).entrySet().iterator();
+
+				while (it.hasNext()) {
+					Session session = it.next().getValue();
+					if (session.lastUsed >= usedBefore || (session.holders > 0 && !held))
+						continue;
+
+					it.remove();
+					evicted++;
+
+					try {
+						session.engine.close();
+					} catch (IOException e) {
+						if (failure == null)
+							failure = e;
+					}
+				}
+			} finally {
+				locks[stripe].unlock();
+			}
+		}
+
+		if (failure != null)
+			throw failure;
+
+		return evicted;
+	}
+
+	/**
+	 * @return the number of sessions in memory
+	 */
+	public int size() {
+		int size = 0;
+
+		for (int stripe = 0; stripe < locks.length; stripe++) {
+			locks[stripe].lock();
+			try {
+				size += stripes.get(stripe).size();
+			} finally {
+				locks[stripe].unlock();
+			}
+		}
+
+		return size;
+	}
+}
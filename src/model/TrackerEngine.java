@@ -0,0 +1,646 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * Everything the tracker knows about one person: their days, the food and
+ * exercise catalogs and the profile, with the operations the tabs perform on
+ * them
+ *
+ * Nothing in here touches the GUI, so it can be driven by the controllers, a
+ * batch job or a benchmark alike
+ */
+public class TrackerEngine {
+
+	// Chart time lines
+	public static final String WEEKLY = "Weekly", MONTHLY = "Monthly", YEARLY = "Yearly", ALL_TIME = "All time";
+
+	// Most points per exercise line of a chart when no budget is given
+	public static final int DEFAULT_BUDGET = 200;
+
+	private final Person person;
+
+	// Store of days, indexed by date
+	private final DayStore days = new DayStore();
+
+	// Calorie and macro totals of the days for date range queries (kept up to date by the store)
+	private final RangeIndex totals = new RangeIndex(days);
+
+	// Weights of every exercise logged on the days over time (kept up to date by the store)
+	private final ExerciseIndex exerciseSeries = new ExerciseIndex(days);
+
+	// Foods we can add to a day (stored column by column, searchable by name)
+	private FoodCatalog foods = new FoodCatalog();
+
+	// Exercises we can add to a day and the search index over their names
+	private final ObservableList<Exercise> exercises = FXCollections.observableArrayList();
+	private final SearchIndex<Exercise> exerciseIndex = new SearchIndex<Exercise>(exercises);
+
+	// Every exercise name added to a day, once
+	private final ArrayList<Exercise> loggedExercises = new ArrayList<Exercise>();
+
+	// Whether the foods database (or the sample foods) and the sample exercises were loaded into the catalogs
+	private boolean foodsLoaded, exercisesLoaded;
+
+	// Week, month and year boundaries of the charts (weeks start as in the default locale)
+	private EpochCalendar calendar = EpochCalendar.of(Locale.getDefault());
+
+	// Reduces the chart lines that have more points than the budget
+	private Downsampler downsampler = new LttbDownsampler();
+
+	// Records every change made to the days so they survive a restart
+	private DayJournal journal;
+
+	// Daily totals as of the last compaction, mapped from the journal (null if there is none)
+	private HistoryFile history;
+	// Epoch-days changed since the history was written, their totals are read from the days instead
+	private final TreeSet<Long> changedDays = new TreeSet<Long>();
+
+	// Where open saved the session, null until then
+	private Path directory;
+
+	public TrackerEngine() {
+		this(new Person());
+	}
+
+	public TrackerEngine(Person person) {
+		this.person = person;
+
+		days.addListener(new DayListener() {
+			public void foodAdded(Day day, Food food) {
+				changedDays.add(day.getDate().toEpochDay());
+			}
+
+			public void foodDeleted(Day day, int index) {
+				changedDays.add(day.getDate().toEpochDay());
+			}
+
+			public void foodUpdated(Day day, int index) {
+				changedDays.add(day.getDate().toEpochDay());
+			}
+
+			public void exerciseAdded(Day day, Exercise exercise) {
+				changedDays.add(day.getDate().toEpochDay());
+			}
+
+			public void exerciseDeleted(Day day, int index) {
+				changedDays.add(day.getDate().toEpochDay());
+			}
+
+			public void exerciseUpdated(Day day, int index) {
+				changedDays.add(day.getDate().toEpochDay());
+			}
+		});
+	}
+
+	public Person getPerson() {
+		return person;
+	}
+
+	public DayStore getDays() {
+		return days;
+	}
+
+	public RangeIndex getTotals() {
+		return totals;
+	}
+
+	public ExerciseIndex getExerciseSeries() {
+		return exerciseSeries;
+	}
+
+	public FoodCatalog getFoods() {
+		return foods;
+	}
+
+	public ObservableList<Exercise> getExercises() {
+		return exercises;
+	}
+
+	public ArrayList<Exercise> getLoggedExercises() {
+		return loggedExercises;
+	}
+
+	/**
+	 * Copies the daily totals of a column into an array, one per day from start
+	 * on (days nothing was logged on are 0)
+	 *
+	 * The totals are read from the mapped history file, only the days changed
+	 * since it was written are read from their Day
+	 *
+	 * @param column
+	 *            HistoryFile.CALORIES, CARBOHYDRATES, PROTEINS, FATS or BURNED
+	 * @param start
+	 * @param into
+	 */
+	public void dailyTotals(int column, LocalDate start, double[] into) {
+		if (column < HistoryFile.CALORIES || column > HistoryFile.BURNED)
+			throw new IllegalArgumentException("Unknown column: " + column);
+
+		long first = start.toEpochDay(), last = first + into.length - 1;
+
+		if (history == null) {
+			Arrays.fill(into, 0);
+			for (Day day : days.range(first, last)) {
+				into[(int) (day.getDate().toEpochDay() - first)] = HistoryFile.value(day, column);
+			}
+			return;
+		}
+
+		history.copy(column, start, into);
+		for (long epochDay : changedDays.subSet(first, true, last, true)) {
+			Day day = days.find(epochDay);
+			into[(int) (epochDay - first)] = day == null ? 0 : HistoryFile.value(day, column);
+		}
+	}
+
+	/**
+	 * Finds the Day of a date, an empty one is only stored once something is
+	 * logged on it
+	 *
+	 * @param date
+	 * @return
+	 */
+	public Day getDay(LocalDate date) {
+		return days.getDay(date);
+	}
+
+	/**
+	 * Loads a saved session from a directory: the profile, the custom foods and
+	 * exercises and the days (whose changes are recorded from then on)
+	 *
+	 * A directory that doesn't exist yet starts an empty session there
+	 *
+	 * @param directory
+	 * @throws IOException
+	 */
+	public void open(Path directory) throws IOException {
+		if (this.directory != null)
+			throw new IllegalStateException("Session is already open in " + this.directory);
+
+		Files.createDirectories(directory);
+
+		SessionFiles.readProfile(directory.resolve(SessionFiles.PROFILE), person);
+		for (Food food : SessionFiles.readFoods(directory.resolve(SessionFiles.FOODS))) {
+			foods.append(food);
+		}
+		exercises.addAll(SessionFiles.readExercises(directory.resolve(SessionFiles.EXERCISES)));
+
+		openJournal(directory.resolve("journal"));
+
+		// Logged exercises aren't saved, they are found again on the days
+		for (Day day : days.getDays()) {
+			for (Exercise exercise : day.getExercises()) {
+				logExercise(exercise);
+			}
+		}
+
+		this.directory = directory;
+	}
+
+	/**
+	 * Saves the profile and the custom foods and exercises into the directory the
+	 * session was opened from and waits for the journal to be written, nothing is
+	 * saved if the session wasn't opened
+	 *
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		if (directory == null)
+			return;
+
+		SessionFiles.writeProfile(person, directory.resolve(SessionFiles.PROFILE));
+		SessionFiles.writeFoods(foods.getCustomFoods(), directory.resolve(SessionFiles.FOODS));
+		SessionFiles.writeExercises(getCustomExercises(), directory.resolve(SessionFiles.EXERCISES));
+
+		if (journal != null)
+			journal.flush();
+	}
+
+	/**
+	 * Saves the session (see save) and closes the journal
+	 *
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		try {
+			save();
+		} finally {
+			closeJournal();
+			directory = null;
+		}
+	}
+
+	/**
+	 * Replays the saved days from the journal in a directory and starts recording
+	 * changes
+	 *
+	 * @param directory
+	 * @return the number of records replayed, or 0 if the journal was already open
+	 * @throws IOException
+	 */
+	public int openJournal(Path directory) throws IOException {
+		if (journal != null)
+			return 0;
+
+		DayJournal opened = new DayJournal(directory);
+		int count = opened.replay(days);
+
+		days.addListener(opened);
+		journal = opened;
+
+		// The history holds the snapshot, not what was replayed on top of it
+		history = opened.openHistory();
+		changedDays.clear();
+		changedDays.addAll(opened.getReplayedDays());
+
+		return count;
+	}
+
+	/**
+	 * Writes out any pending journal records and stops recording changes
+	 *
+	 * @throws IOException
+	 */
+	public void closeJournal() throws IOException {
+		if (journal == null)
+			return;
+
+		DayJournal closing = journal;
+		journal = null;
+		history = null;
+
+		days.removeListener(closing);
+		closing.close();
+	}
+
+	/**
+	 * Streams a foods database into a new catalog, doesn't touch the engine so it
+	 * can run off the FX thread
+	 *
+	 * @param file
+	 * @param rejectFile
+	 *            where the rows that couldn't be used are written
+	 * @param importer
+	 *            holds the imported and rejected counts afterwards
+	 * @return the imported foods, for setImportedFoods
+	 * @throws IOException
+	 */
+	public static FoodCatalog readFoods(Path file, Path rejectFile, FoodImporter importer) throws IOException {
+		FoodCatalog imported = new FoodCatalog();
+		importer.importFoods(file, rejectFile, imported);
+		return imported;
+	}
+
+	/**
+	 * Replaces the food catalog with one read by readFoods, the custom foods are
+	 * carried over (after the imported ones)
+	 *
+	 * @param imported
+	 */
+	public void setImportedFoods(FoodCatalog imported) {
+		for (Food custom : foods.getCustomFoods()) {
+			imported.append(custom);
+		}
+		foods = imported;
+		foodsLoaded = true;
+	}
+
+	/**
+	 * Whether the foods database (or the sample foods) is in the catalog, custom
+	 * foods don't count
+	 */
+	public boolean isFoodsLoaded() {
+		return foodsLoaded;
+	}
+
+	/**
+	 * Fills the catalog with a few sample foods, used when there is no foods
+	 * database
+	 */
+	public void loadSampleFoods() {
+		// Temporarily used instead of database
+		Food f1 = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70 }, new boolean[] { true });
+		Food f2 = new Food("Protein Powder", new double[] { 30, 3.77, 23.71, 0.2 }, new boolean[] { true });
+		Food f3 = new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }, new boolean[] { true });
+		Food f4 = new Food("Semi Skimmed Milk", new double[] { 100, 4.80, 3.60, 1.80 }, new boolean[] { true });
+
+		for (Food food : Arrays.asList(f1, f2, f3, f4)) {
+			foods.append(food);
+		}
+		foodsLoaded = true;
+	}
+
+	/**
+	 * Adds a food we made ourselves to the catalog, a food that isn't marked as
+	 * custom yet is copied and marked
+	 *
+	 * @param food
+	 * @return the template stored in the catalog
+	 */
+	public Food addCustomFood(Food food) {
+		Food custom = food;
+
+		if (!food.getCustom()) {
+			custom = new Food(food);
+			custom.setTemplate(true);
+			custom.setCustom(true);
+		}
+
+		foods.append(custom);
+		return custom;
+	}
+
+	/**
+	 * Whether the sample exercises are in the catalog, custom exercises don't
+	 * count
+	 */
+	public boolean isExercisesLoaded() {
+		return exercisesLoaded;
+	}
+
+	/**
+	 * Fills the catalog with the common exercises
+	 */
+	public void loadSampleExercises() {
+		Exercise e1 = new Exercise("Bench Press");
+		Exercise e2 = new Exercise("Squat");
+		Exercise e3 = new Exercise("Deadlift");
+		Exercise e4 = new Exercise("Overhead Press");
+		Exercise e5 = new Exercise("Barbell Row");
+
+		exercises.addAll(Arrays.asList(e1, e2, e3, e4, e5));
+		exercisesLoaded = true;
+	}
+
+	/**
+	 * Adds an exercise we made ourselves to the catalog
+	 *
+	 * @param exercise
+	 */
+	public void addCustomExercise(Exercise exercise) {
+		exercise.setCustom(true);
+		exercises.add(exercise);
+	}
+
+	public List<Exercise> getCustomExercises() {
+		ArrayList<Exercise> custom = new ArrayList<Exercise>();
+		for (Exercise exercise : exercises) {
+			if (exercise.getCustom())
+				custom.add(exercise);
+		}
+		return custom;
+	}
+
+	/**
+	 * Adds a quantity of a food to a day, if a food with the same name is already
+	 * on that day its quantity is increased instead
+	 *
+	 * @param date
+	 * @param food
+	 *            the food to copy values from
+	 * @param quantity
+	 * @return the food stored on the day
+	 */
+	public Food addFood(LocalDate date, Food food, double quantity) {
+		Day day = getDay(date);
+
+		// Assumes we don't have foods with exactly the same name.. (try adding id in later)
+		for (Food entry : day.getFoods()) {
+			if (entry.getName().equals(food.getName())) {
+				day.setQuantity(entry, entry.getQuantity() + quantity);
+				return entry;
+			}
+		}
+
+		Food entry = new Food(food, quantity);
+		day.addFood(entry);
+		return entry;
+	}
+
+	/**
+	 * Adds a copy of an exercise to a day
+	 *
+	 * @param date
+	 * @param exercise
+	 *            the exercise to copy values from
+	 * @return the exercise stored on the day
+	 */
+	public Exercise addExercise(LocalDate date, Exercise exercise) {
+		Exercise entry = new Exercise(exercise);
+		getDay(date).addExercise(entry);
+		logExercise(entry);
+		return entry;
+	}
+
+	/**
+	 * Remembers the name of an exercise added to a day
+	 *
+	 * @param exercise
+	 * @return true if an exercise of that name was already logged
+	 */
+	public boolean logExercise(Exercise exercise) {
+		for (Exercise logged : loggedExercises) {
+			if (logged.getName().equals(exercise.getName()))
+				return true;
+		}
+
+		loggedExercises.add(exercise);
+		return false;
+	}
+
+	/**
+	 * Exercises of the catalog matching a search, best matches first (every
+	 * exercise for an empty search)
+	 *
+	 * @param query
+	 * @return
+	 */
+	public List<Exercise> searchExercises(String query) {
+		if (query == null || query.trim().isEmpty())
+			return exercises;
+
+		return exerciseIndex.search(query);
+	}
+
+	public EpochCalendar getCalendar() {
+		return calendar;
+	}
+
+	/**
+	 * @param calendar
+	 *            where the weeks of the charts start
+	 */
+	public void setCalendar(EpochCalendar calendar) {
+		this.calendar = calendar;
+	}
+
+	public Downsampler getDownsampler() {
+		return downsampler;
+	}
+
+	/**
+	 * @param downsampler
+	 *            e.g. a MinMaxDownsampler to never drop a peak
+	 */
+	public void setDownsampler(Downsampler downsampler) {
+		this.downsampler = downsampler;
+	}
+
+	/**
+	 * @return the EpochCalendar period of a chart time line
+	 */
+	public static int period(String mode) {
+		switch (mode) {
+		case WEEKLY:
+			return EpochCalendar.WEEK;
+		case MONTHLY:
+			return EpochCalendar.MONTH;
+		case YEARLY:
+			return EpochCalendar.YEAR;
+		default:
+			throw new IllegalArgumentException("Unknown time line: " + mode);
+		}
+	}
+
+	/**
+	 * First day of the week, month or year a date is in
+	 *
+	 * @param date
+	 * @param mode
+	 *            WEEKLY, MONTHLY or YEARLY
+	 * @return
+	 */
+	public LocalDate periodStart(LocalDate date, String mode) {
+		return calendar.start(date, period(mode));
+	}
+
+	/**
+	 * Last day of the week, month or year a date is in
+	 *
+	 * @param date
+	 * @param mode
+	 *            WEEKLY, MONTHLY or YEARLY
+	 * @return
+	 */
+	public LocalDate periodEnd(LocalDate date, String mode) {
+		return calendar.end(date, period(mode));
+	}
+
+	/**
+	 * Copies the exercise chart of the week, month or year a date is in, or of
+	 * every day (ALL_TIME), out of the engine: it can be built on another thread
+	 * while the engine keeps changing
+	 *
+	 * @param date
+	 * @param mode
+	 *            WEEKLY, MONTHLY, YEARLY or ALL_TIME
+	 * @param budget
+	 *            the most points per exercise (e.g. the width of the chart)
+	 * @return
+	 */
+	public ExerciseChart exerciseChart(LocalDate date, String mode, int budget) {
+		if (mode.equals(ALL_TIME)) {
+			if (days.size() == 0)
+				return exerciseChart(0, -1, budget);
+
+			return exerciseChart(days.first().getDate().toEpochDay(), days.last().getDate().toEpochDay(), budget);
+		}
+
+		int period = period(mode);
+		long epochDay = date.toEpochDay();
+
+		return exerciseChart(calendar.start(epochDay, period), calendar.end(epochDay, period), budget);
+	}
+
+	/**
+	 * Copies the exercise chart between two epoch-days (both inclusive) out of
+	 * the engine, i.e. views of several years
+	 *
+	 * @param start
+	 * @param end
+	 * @param budget
+	 * @return
+	 */
+	public ExerciseChart exerciseChart(long start, long end, int budget) {
+		if (budget < 3)
+			throw new IllegalArgumentException("Budget needs at least 3 points!");
+
+		// Days between start and end (both inclusive), already in date order
+		Collection<Day> range = days.range(start, end);
+		long[] dates = new long[range.size()];
+
+		int i = 0;
+		for (Day day : range) {
+			dates[i++] = day.getDate().toEpochDay();
+		}
+
+		// The weights are slices of the exercise index
+		ArrayList<ExerciseChartData> points = exerciseSeries.slice(start, end);
+		for (i = 0; i < points.size(); i++) {
+			points.set(i, points.get(i).copy());
+		}
+
+		return new ExerciseChart(dates, points, budget, downsampler);
+	}
+
+	/**
+	 * Destructively loads the exercise chart of the week, month or year a date is
+	 * in, or of every day (ALL_TIME): the dates shown on the chart and the
+	 * weights of every exercise name
+	 *
+	 * E.g. Day 1: {name: Deadlift, weight: 40}, Day 2: {name: Deadlift, weight:
+	 * 45} is loaded as ExerciseChartData {name: Deadlift, weight[]: 40, 45 }
+	 *
+	 * @param date
+	 * @param mode
+	 *            WEEKLY, MONTHLY, YEARLY or ALL_TIME
+	 * @param budget
+	 *            the most points per exercise (e.g. the width of the chart)
+	 * @param chartDates
+	 * @param chartData
+	 */
+	public void loadExerciseChart(LocalDate date, String mode, int budget, ArrayList<LocalDate> chartDates,
+			ArrayList<ExerciseChartData> chartData) {
+		ExerciseChart chart = exerciseChart(date, mode, budget).build();
+
+		chartDates.addAll(chart.getDates());
+		chartData.addAll(chart.getLines());
+	}
+
+	public void loadExerciseChart(LocalDate date, String mode, ArrayList<LocalDate> chartDates,
+			ArrayList<ExerciseChartData> chartData) {
+		loadExerciseChart(date, mode, DEFAULT_BUDGET, chartDates, chartData);
+	}
+
+	/**
+	 * Closes the session and flushes out the days and logged exercises, the
+	 * catalogs are kept
+	 *
+	 * @throws IOException
+	 *             if the session couldn't be written out
+	 */
+	public void reset() throws IOException {
+		try {
+			close();
+		} finally {
+			days.clear();
+			totals.clear();
+			exerciseSeries.clear();
+			loggedExercises.clear();
+			changedDays.clear();
+		}
+	}
+}
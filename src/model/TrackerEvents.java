@@ -0,0 +1,161 @@
+package model;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events of the tracker, so a recording (i.e. -XX:StartFlightRecording
+ * or JDK Mission Control) shows which change, chart or flush ran next to a GC
+ * pause or a dropped frame
+ *
+ * Every event is timed between begin() and end(...). The fields are only filled
+ * when the event is going to be recorded: while no recording is running the JVM
+ * leaves begin/end as empty calls, so they cost nothing.
+ */
+public final class TrackerEvents {
+
+	private TrackerEvents() {
+	}
+
+	@Name("caloriestracker.DayChange")
+	@Label("Day Change")
+	@Category({ "Calories Tracker", "Model" })
+	@Description("A food or exercise added to, changed on or deleted from a day")
+	public static class DayChange extends Event {
+
+		@Label("Action")
+		String action;
+
+		@Label("Date")
+		String date;
+
+		@Label("Foods")
+		int foods;
+
+		@Label("Exercises")
+		int exercises;
+
+		@Label("Calories")
+		double calories;
+
+		/**
+		 * Records the change with the day as it is after it
+		 */
+		public void end(Day day, String action) {
+			if (!shouldCommit())
+				return;
+
+			this.action = action;
+			this.date = day.getDate().toString();
+			this.foods = day.getFoods().size();
+			this.exercises = day.getExercises().size();
+			this.calories = day.getTotalFoodCalories();
+			commit();
+		}
+	}
+
+	@Name("caloriestracker.FoodQuantity")
+	@Label("Food Quantity")
+	@Category({ "Calories Tracker", "Model" })
+	@Description("The quantity of a food changed, and every value scaled with it")
+	public static class FoodQuantity extends Event {
+
+		@Label("Food")
+		String food;
+
+		@Label("Quantity")
+		double quantity;
+
+		public void end(String food, double quantity) {
+			if (!shouldCommit())
+				return;
+
+			this.food = food;
+			this.quantity = quantity;
+			commit();
+		}
+	}
+
+	@Name("caloriestracker.ChartBuild")
+	@Label("Chart Build")
+	@Category({ "Calories Tracker", "Charts" })
+	@Description("The points of a chart worked out for the GUI")
+	public static class ChartBuild extends Event {
+
+		@Label("Chart")
+		String chart;
+
+		@Label("Lines")
+		int lines;
+
+		@Label("Points")
+		int points;
+
+		@Label("Dates")
+		int dates;
+
+		public void end(String chart, int lines, int points, int dates) {
+			if (!shouldCommit())
+				return;
+
+			this.chart = chart;
+			this.lines = lines;
+			this.points = points;
+			this.dates = dates;
+			commit();
+		}
+	}
+
+	@Name("caloriestracker.JournalFlush")
+	@Label("Journal Flush")
+	@Category({ "Calories Tracker", "Persistence" })
+	@Description("A batch of journal records written and synced to disk")
+	public static class JournalFlush extends Event {
+
+		@Label("Records")
+		int records;
+
+		@Label("Size")
+		@DataAmount
+		long bytes;
+
+		@Label("Segment Rolled")
+		boolean rolled;
+
+		public void end(int records, long bytes, boolean rolled) {
+			if (!shouldCommit())
+				return;
+
+			this.records = records;
+			this.bytes = bytes;
+			this.rolled = rolled;
+			commit();
+		}
+	}
+
+	@Name("caloriestracker.Compaction")
+	@Label("Journal Compaction")
+	@Category({ "Calories Tracker", "Persistence" })
+	@Description("Journal segments folded into a snapshot and a history file")
+	public static class Compaction extends Event {
+
+		@Label("Segment")
+		long segment;
+
+		@Label("Days")
+		int days;
+
+		public void end(long segment, int days) {
+			if (!shouldCommit())
+				return;
+
+			this.segment = segment;
+			this.days = days;
+			commit();
+		}
+	}
+}
@@ -9,4 +9,25 @@ public class User {
 	private int id;
 	private String email;
 	private String password;
+	
+	public User(int id, String email, String password) {
+		this.id = id;
+		this.email = email;
+		this.password = password;
+	}
+	
+	/**
+	 * @return the id the user's session and saved data are kept under
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	public String getEmail() {
+		return email;
+	}
+	
+	public String getPassword() {
+		return password;
+	}
 }
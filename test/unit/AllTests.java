@@ -5,7 +5,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ ExercisesTest.class, FoodTest.class, GoalTest.class, StatisticsTest.class, DayTest.class, PersonTest.class })
+@SuiteClasses({ ExercisesTest.class, FoodTest.class, GoalTest.class, StatisticsTest.class, DayTest.class, DayStoreTest.class, DayJournalTest.class, HistoryFileTest.class, RangeIndexTest.class, ExerciseIndexTest.class, DownsamplerTest.class, SearchIndexTest.class, FoodImporterTest.class, FoodCatalogTest.class, TrackerEngineTest.class, EpochCalendarTest.class, SessionStoreTest.class, ComputeServiceTest.class, LogTest.class, MetricsTest.class, TrackerEventsTest.class, MetabolicCalculatorTest.class, PersonTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,140 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.ComputeService;
+
+public class ComputeServiceTest {
+
+	// Published runnables, run by the test itself (as the FX thread would)
+	private LinkedBlockingQueue<Runnable> fxThread;
+	private ComputeService compute;
+	private ArrayList<String> published;
+
+	@Before
+	public void setUp() {
+		fxThread = new LinkedBlockingQueue<Runnable>();
+		compute = new ComputeService(Executors.newCachedThreadPool(), Executors.newFixedThreadPool(2),
+				fxThread::add);
+		published = new ArrayList<String>();
+	}
+
+	@After
+	public void tearDown() {
+		compute.shutdown();
+	}
+
+	private void runFxThread() throws InterruptedException {
+		Runnable next;
+		while ((next = fxThread.poll(200, TimeUnit.MILLISECONDS)) != null) {
+			next.run();
+		}
+	}
+
+	@Test
+	public void givenWorkWhenSubmitThenPublishResultOnPublisher() throws Exception {
+		compute.submit("chart", () -> "built", published::add).get();
+		compute.submitIO("load", () -> "loaded", published::add).get();
+
+		// Nothing is published until the publisher runs it
+		assertTrue(published.isEmpty());
+
+		runFxThread();
+		assertEquals(2, published.size());
+		assertTrue(published.contains("built"));
+		assertTrue(published.contains("loaded"));
+	}
+
+	@Test
+	public void givenRunningRequestWhenSubmitSameKeyThenCancelStaleOne() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+
+		Future<String> stale = compute.submit("chart", () -> {
+			started.countDown();
+			Thread.sleep(10000);
+			return "stale";
+		}, published::add);
+
+		started.await();
+		compute.submit("chart", () -> "latest", published::add).get();
+
+		assertTrue(stale.isCancelled());
+		runFxThread();
+		assertEquals(1, published.size());
+		assertEquals("latest", published.get(0));
+	}
+
+	@Test
+	public void givenFinishedRequestWhenNewerSubmittedBeforePublishingThenOnlyNewerPublished() throws Exception {
+		compute.submitIO("load", () -> "first", published::add).get();
+		Future<String> second = compute.submitIO("load", () -> "second", published::add);
+		second.get();
+
+		runFxThread();
+		assertEquals(1, published.size());
+		assertEquals("second", published.get(0));
+	}
+
+	@Test
+	public void givenRequestsOfDifferentKeysWhenSubmitThenBothPublished() throws Exception {
+		compute.submit("chart", () -> "chart", published::add).get();
+		compute.submit("totals", () -> "totals", published::add).get();
+
+		runFxThread();
+		assertEquals(2, published.size());
+	}
+
+	@Test
+	public void givenStaleLoadWhenFinishedThenResultDiscarded() throws Exception {
+		CountDownLatch started = new CountDownLatch(1), release = new CountDownLatch(1);
+		ArrayList<String> discarded = new ArrayList<String>();
+
+		Future<String> stale = compute.submitIO("load", () -> {
+			started.countDown();
+			release.await();
+			return "first";
+		}, published::add, discarded::add);
+		started.await();
+		compute.submitIO("load", () -> "second", published::add, discarded::add).get();
+
+		// The stale load still runs to the end, its result is handed to discard
+		release.countDown();
+		assertTrue(stale.isCancelled());
+		for (int i = 0; i < 50 && discarded.isEmpty(); i++) {
+			runFxThread();
+		}
+
+		assertEquals(1, published.size());
+		assertEquals("second", published.get(0));
+		assertEquals(1, discarded.size());
+		assertEquals("first", discarded.get(0));
+	}
+
+	@Test
+	public void givenCancelledKeyWhenFinishedThenNothingPublished() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> request = compute.submitIO("load", () -> {
+			release.await();
+			return "loaded";
+		}, published::add);
+
+		assertTrue(compute.cancel("load"));
+		release.countDown();
+
+		assertTrue(request.isCancelled());
+		runFxThread();
+		assertTrue(published.isEmpty());
+		assertFalse(compute.cancel("load"));
+	}
+}
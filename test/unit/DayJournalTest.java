@@ -0,0 +1,171 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import model.Day;
+import model.DayJournal;
+import model.DayStore;
+import model.Exercise;
+import model.Food;
+import model.HistoryFile;
+
+public class DayJournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final LocalDate DATE = LocalDate.parse("2018-06-01");
+
+	/**
+	 * Opens a journal on the store, replaying what is already in the file
+	 */
+	private DayJournal open(Path directory, DayStore store) throws Exception {
+		DayJournal journal = new DayJournal(directory);
+		journal.replay(store);
+		store.addListener(journal);
+		return journal;
+	}
+
+	@Test
+	public void givenJournaledChangesWhenReplayedThenDaysRestored() throws Exception {
+		Path file = folder.getRoot().toPath();
+
+		DayStore store = new DayStore();
+		DayJournal journal = open(file, store);
+
+		Day day = store.getDay(DATE);
+		Food milk = new Food(new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70 }), 2);
+		Food rice = new Food(new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }), 1);
+		day.addFood(milk);
+		day.addFood(rice);
+		day.setQuantity(rice, 3);
+		day.deleteFood(milk);
+
+		Exercise squat = new Exercise("Squat", new Number[] { 5, 5, 100.0, 150.0 });
+		day.addExercise(squat);
+		day.setExercise(squat, new Exercise("Squat", new Number[] { 5, 5, 105.0, 155.0 }));
+		journal.close();
+
+		DayStore replayed = new DayStore();
+		open(file, replayed).close();
+
+		Day restored = replayed.find(DATE);
+		assertNotNull(restored);
+		assertEquals(1, restored.getFoods().size());
+		assertEquals("White Rice", restored.getFoods().get(0).getName());
+		assertEquals(3, restored.getFoods().get(0).getQuantity(), 0.0);
+		assertEquals(rice.getCalories(), restored.getFoods().get(0).getCalories(), 0.0001);
+
+		assertEquals(1, restored.getExercises().size());
+		assertEquals(105, restored.getExercises().get(0).getWeight(), 0.0);
+		assertEquals(155, restored.getExercises().get(0).getCaloriesBurned(), 0.0);
+	}
+
+	@Test
+	public void givenTornRecordWhenReplayedThenValidRecordsKept() throws Exception {
+		Path file = folder.getRoot().toPath();
+
+		DayStore store = new DayStore();
+		DayJournal journal = open(file, store);
+		store.getDay(DATE).addFood(new Food("Protein Powder", new double[] { 30, 3.77, 23.71, 0.2 }));
+		store.getDay(DATE).addFood(new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }));
+		// Crash without closing (closing would compact the segment away)
+		journal.flush();
+		store.removeListener(journal);
+
+		// Cut the last record in half, as if we crashed while writing it
+		File raw = file.resolve("journal-0.log").toFile();
+		try (RandomAccessFile f = new RandomAccessFile(raw, "rw")) {
+			f.setLength(f.length() - 10);
+		}
+
+		DayStore replayed = new DayStore();
+		journal = new DayJournal(file);
+		assertEquals(1, journal.replay(replayed));
+		replayed.addListener(journal);
+
+		// New records must follow the last valid one
+		replayed.getDay(DATE).addFood(new Food("Semi Skimmed Milk", new double[] { 100, 4.80, 3.60, 1.80 }));
+		journal.close();
+
+		DayStore again = new DayStore();
+		open(file, again).close();
+		assertEquals(2, again.find(DATE).getFoods().size());
+		assertEquals("Semi Skimmed Milk", again.find(DATE).getFoods().get(1).getName());
+	}
+
+	@Test
+	public void givenFullSegmentsWhenCompactedThenSnapshotAndTailRestored() throws Exception {
+		Path directory = folder.getRoot().toPath();
+
+		// Tiny segments so nearly every batch rolls over and gets compacted
+		DayStore store = new DayStore();
+		DayJournal journal = new DayJournal(directory, 64);
+		journal.replay(store);
+		store.addListener(journal);
+
+		LocalDate date = DATE;
+		for (int i = 0; i < 50; i++) {
+			Day day = store.getDay(date.plusDays(i % 10));
+			day.addFood(new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70, 1 + i }));
+			day.addExercise(new Exercise("Deadlift", new Number[] { 5, 3, 100.0 + i, 120.0 }));
+			journal.flush();
+		}
+		journal.awaitCompaction();
+		journal.close();
+
+		// Compaction removed the segments behind the latest snapshot
+		File[] snapshots = directory.toFile().listFiles((dir, name) -> name.startsWith("snapshot-"));
+		assertEquals(1, snapshots.length);
+
+		// Later compactions patched the same history file instead of writing new ones
+		File[] histories = directory.toFile().listFiles((dir, name) -> name.startsWith("history-"));
+		assertEquals(1, histories.length);
+
+		DayStore replayed = new DayStore();
+		DayJournal reopened = open(directory, replayed);
+		HistoryFile history = reopened.openHistory();
+		reopened.close();
+
+		assertEquals(10, replayed.size());
+		assertEquals(DATE, history.getFirstDate());
+		assertEquals(149, history.maxWeight(history.getExerciseId("Deadlift"), DATE, DATE.plusDays(9)), 0.0);
+		for (Day day : store.getDays()) {
+			Day restored = replayed.find(day.getDate());
+			assertEquals(day.getFoods().size(), restored.getFoods().size());
+			assertEquals(day.getExercises().size(), restored.getExercises().size());
+			assertEquals(day.getTotalFoodCalories(), restored.getTotalFoodCalories(), 0.0001);
+
+			for (int i = 0; i < day.getExercises().size(); i++) {
+				assertEquals(day.getExercises().get(i).getWeight(), restored.getExercises().get(i).getWeight(), 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void givenCustomFoodWhenReplayedThenNameKept() throws Exception {
+		Path file = folder.getRoot().toPath();
+
+		DayStore store = new DayStore();
+		DayJournal journal = open(file, store);
+		Food chicken = new Food("Chicken", new double[] { 100, 0, 22, 0.1 }, new boolean[] { false, true });
+		store.getDay(DATE).addFood(new Food(chicken, 1));
+		journal.close();
+
+		DayStore replayed = new DayStore();
+		open(file, replayed).close();
+
+		Food restored = replayed.find(DATE).getFoods().get(0);
+		assertTrue(restored.getCustom());
+		assertEquals(chicken.getName(), restored.getName());
+	}
+}
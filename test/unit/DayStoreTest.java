@@ -0,0 +1,112 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import model.Day;
+import model.DayListener;
+import model.DayStore;
+import model.Exercise;
+import model.Food;
+
+public class DayStoreTest {
+
+	@Test
+	public void givenSameDateWhenGetDayThenReturnSameDay() {
+		DayStore store = new DayStore();
+		LocalDate date = LocalDate.parse("2016-03-04");
+
+		Day day1 = store.getDay(date);
+		Day day2 = store.getDay(date);
+
+		assertSame(day1, day2);
+	}
+
+	@Test
+	public void givenNothingLoggedWhenGetDayThenDayNotStored() {
+		DayStore store = new DayStore();
+		LocalDate date = LocalDate.parse("2016-03-04");
+
+		Day day = store.getDay(date);
+
+		assertEquals(0, store.size());
+		assertNull(store.find(date));
+		assertTrue(store.range(date, date).isEmpty());
+		assertEquals(0, day.getTotalFoodCalories(), 0.0);
+	}
+
+	@Test
+	public void givenEmptyDayWhenFoodAddedThenDayStoredAndListenersNotified() {
+		DayStore store = new DayStore();
+		LocalDate date = LocalDate.parse("2016-03-04");
+		ArrayList<String> changes = new ArrayList<String>();
+		store.addListener(new DayListener() {
+			public void foodAdded(Day day, Food food) {
+				changes.add(day.getDate() + " " + food.getName());
+			}
+
+			public void foodDeleted(Day day, int index) {
+			}
+
+			public void foodUpdated(Day day, int index) {
+			}
+
+			public void exerciseAdded(Day day, Exercise exercise) {
+			}
+
+			public void exerciseDeleted(Day day, int index) {
+			}
+
+			public void exerciseUpdated(Day day, int index) {
+			}
+		});
+
+		// Two views of the same date share the empty day
+		Day diet = store.getDay(date);
+		Day exercises = store.getDay(date);
+		diet.addFood(new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70, 1 }));
+		exercises.addExercise(new Exercise("Squat", new Number[] { 5, 5, 100.0, 150.0 }));
+
+		assertEquals(1, store.size());
+		assertSame(diet, store.find(date));
+		assertSame(diet, store.getDay(date));
+		assertEquals(1, diet.getExercises().size());
+		assertEquals("[2016-03-04 Whole Milk]", changes.toString());
+	}
+
+	@Test
+	public void givenUnknownDateWhenFindThenReturnNull() {
+		DayStore store = new DayStore();
+		assertNull(store.find(LocalDate.parse("2016-03-05")));
+		assertFalse(store.contains(LocalDate.parse("2016-03-05")));
+	}
+
+	@Test
+	public void givenUnorderedDaysWhenRangeThenReturnInDateOrder() {
+		DayStore store = new DayStore();
+		store.add(new Day(LocalDate.parse("2016-04-10")));
+		store.add(new Day(LocalDate.parse("2016-04-01")));
+		store.add(new Day(LocalDate.parse("2016-04-05")));
+		store.add(new Day(LocalDate.parse("2016-05-01")));
+
+		ArrayList<Day> range = new ArrayList<Day>(
+				store.range(LocalDate.parse("2016-04-01"), LocalDate.parse("2016-04-10")));
+
+		assertEquals(3, range.size());
+		assertEquals(LocalDate.parse("2016-04-01"), range.get(0).getDate());
+		assertEquals(LocalDate.parse("2016-04-05"), range.get(1).getDate());
+		assertEquals(LocalDate.parse("2016-04-10"), range.get(2).getDate());
+	}
+
+	@Test
+	public void givenEndBeforeStartWhenRangeThenReturnEmpty() {
+		DayStore store = new DayStore();
+		store.add(new Day(LocalDate.parse("2016-06-01")));
+
+		assertTrue(store.range(LocalDate.parse("2016-06-02"), LocalDate.parse("2016-06-01")).isEmpty());
+	}
+}
@@ -1,5 +1,7 @@
 package unit;
 
+import static org.junit.Assert.assertEquals;
+
 import java.time.LocalDate;
 
 import org.junit.Rule;
@@ -7,6 +9,9 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import model.Day;
+import model.DayStore;
+import model.Exercise;
+import model.Food;
 
 public class DayTest {
 	@Rule
@@ -17,10 +22,57 @@ public class DayTest {
 		exception.expect(IllegalArgumentException.class);
 		exception.expectMessage("This date already exists!");
 		
-		// Create a LocalDate, and attempt to create two days with the same date
+		// Create a LocalDate, and attempt to store two days with the same date
+		DayStore store = new DayStore();
+		LocalDate date = LocalDate.now();
+		store.add(new Day(date));
+		store.add(new Day(date));
+	}
+
+	@Test
+	public void givenSeparateStoresWhenSameDateAddedThenNoException() {
+		// Day identity is scoped to a store, so other stores (users) can hold the same date
 		LocalDate date = LocalDate.now();
-		Day day1 = new Day(date);
-		Day day2 = new Day(date);
+		new DayStore().add(new Day(date));
+		new DayStore().add(new Day(date));
+	}
+
+	@Test
+	public void givenFoodChangesWhenTotalsReadThenTotalsMatchFoods() {
+		Day day = new Day(LocalDate.now());
+		Food milk = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70, 1 });
+		Food rice = new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70, 1 });
+
+		day.addFood(milk);
+		day.addFood(rice);
+		day.setQuantity(rice, 2.5);
+
+		assertEquals(milk.getCalories() + rice.getCalories(), day.getTotalFoodCalories(), 0.0001);
+		assertEquals(4.70 + (78.90 * 2.5), day.getTotalCarbohydrates(), 0.0001);
+		assertEquals(3.50 + (6.70 * 2.5), day.getTotalProteins(), 0.0001);
+		assertEquals(3.70 + (0.70 * 2.5), day.getTotalFats(), 0.0001);
+
+		day.deleteFood(milk);
+		assertEquals(rice.getCalories(), day.getTotalFoodCalories(), 0.0001);
+
+		day.deleteFood(rice);
+		assertEquals(0, day.getTotalFoodCalories(), 0.0);
+		assertEquals(0, day.getTotalFats(), 0.0);
+	}
+
+	@Test
+	public void givenExerciseChangesWhenTotalReadThenTotalMatchesExercises() {
+		Day day = new Day(LocalDate.now());
+		Exercise squat = new Exercise("Squat", new Number[] { 5, 5, 100.0, 150.0 });
+		Exercise bench = new Exercise("Bench Press", new Number[] { 5, 5, 60.0, 80.0 });
+
+		day.addExercise(squat);
+		day.addExercise(bench);
+		day.setExercise(squat, new Exercise("Squat", new Number[] { 5, 5, 100.0, 170.0 }));
+		assertEquals(250, day.getTotalExerciseCalories(), 0.0001);
+
+		day.deleteExercise(bench);
+		assertEquals(170, day.getTotalExerciseCalories(), 0.0001);
 	}
 
 }
@@ -0,0 +1,158 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import model.DayStore;
+import model.Downsampler;
+import model.Exercise;
+import model.ExerciseChartData;
+import model.ExerciseIndex;
+import model.LttbDownsampler;
+import model.MinMaxDownsampler;
+import model.TrackerEngine;
+
+public class DownsamplerTest {
+
+	private static final LocalDate START = LocalDate.parse("2015-01-01");
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	/**
+	 * A squat every day, slowly going up with a single peak on the given day
+	 */
+	private ExerciseChartData line(int days, int peak) {
+		DayStore store = new DayStore();
+		ExerciseIndex index = new ExerciseIndex(store);
+
+		for (int i = 0; i < days; i++) {
+			double weight = i == peak ? 500 : 50 + i % 10;
+			store.getDay(START.plusDays(i)).addExercise(new Exercise("Squat", new Number[] { 5, 5, weight, 150.0 }));
+		}
+
+		return index.getSeries("Squat").slice(START.toEpochDay(), START.plusDays(days).toEpochDay());
+	}
+
+	private void assertIncreasing(int[] positions, int size) {
+		for (int i = 0; i < positions.length; i++) {
+			assertTrue(positions[i] >= 0 && positions[i] < size);
+			if (i > 0)
+				assertTrue(positions[i] > positions[i - 1]);
+		}
+	}
+
+	@Test
+	public void givenLongLineWhenLttbThenKeepEndsAndPeakWithinBudget() {
+		ExerciseChartData data = line(2000, 1234);
+		int[] kept = new LttbDownsampler().select(data, 100);
+
+		assertEquals(100, kept.length);
+		assertIncreasing(kept, data.size());
+		assertEquals(0, kept[0]);
+		assertEquals(1999, kept[99]);
+
+		boolean peak = false;
+		for (int position : kept) {
+			peak |= position == 1234;
+		}
+		assertTrue(peak);
+	}
+
+	@Test
+	public void givenLongLineWhenMinMaxThenKeepHighestAndLowest() {
+		ExerciseChartData data = line(2000, 1234);
+		ExerciseChartData reduced = data.downsample(new MinMaxDownsampler(), 100);
+
+		assertTrue(reduced.size() <= 100);
+
+		double min = Double.MAX_VALUE, max = 0;
+		for (int i = 0; i < reduced.size(); i++) {
+			min = Math.min(min, reduced.getValue(i));
+			max = Math.max(max, reduced.getValue(i));
+			if (i > 0)
+				assertTrue(reduced.getEpochDay(i) > reduced.getEpochDay(i - 1));
+		}
+		assertEquals(500, max, 0.0001);
+		assertEquals(50, min, 0.0001);
+	}
+
+	@Test
+	public void givenShortLineWhenDownsampleThenKeepEveryPoint() {
+		ExerciseChartData data = line(50, 10);
+
+		for (Downsampler downsampler : new Downsampler[] { new LttbDownsampler(), new MinMaxDownsampler() }) {
+			assertSame(data, data.downsample(downsampler, 100));
+			assertEquals(50, downsampler.select(data, 100).length);
+		}
+	}
+
+	@Test
+	public void givenTinyBudgetWhenLttbThenThrowException() {
+		thrown.expect(IllegalArgumentException.class);
+		new LttbDownsampler().select(line(50, 10), 2);
+	}
+
+	@Test
+	public void givenYearsOfExercisesWhenLoadAllTimeChartThenLinesAndAxisFitBudget() {
+		TrackerEngine engine = new TrackerEngine();
+		for (int i = 0; i < 1500; i++) {
+			engine.addExercise(START.plusDays(i), new Exercise("Squat", new Number[] { 5, 5, 50.0 + i % 30, 150.0 }));
+		}
+
+		ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+		ArrayList<ExerciseChartData> data = new ArrayList<ExerciseChartData>();
+		engine.loadExerciseChart(START, TrackerEngine.ALL_TIME, 100, dates, data);
+
+		assertEquals(1, data.size());
+		assertEquals(100, data.get(0).size());
+
+		// Every point kept has its date on the axis, in order
+		for (int i = 0; i < data.get(0).size(); i++) {
+			assertTrue(dates.contains(data.get(0).getDate(i)));
+		}
+		for (int i = 1; i < dates.size(); i++) {
+			assertTrue(dates.get(i).isAfter(dates.get(i - 1)));
+		}
+		assertTrue(dates.size() <= 200);
+	}
+
+	@Test
+	public void givenDaysBetweenBudgetAndTwiceBudgetWhenLoadChartThenAxisFitsBudget() {
+		TrackerEngine engine = new TrackerEngine();
+		for (int i = 0; i < 199; i++) {
+			engine.addExercise(START.plusDays(i), new Exercise("Squat", new Number[] { 5, 5, 50.0 + i % 30, 150.0 }));
+		}
+
+		ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+		ArrayList<ExerciseChartData> data = new ArrayList<ExerciseChartData>();
+		engine.loadExerciseChart(START, TrackerEngine.ALL_TIME, 100, dates, data);
+
+		assertEquals(100, data.get(0).size());
+		assertTrue(dates.size() <= 200);
+		for (int i = 0; i < data.get(0).size(); i++) {
+			assertTrue(dates.contains(data.get(0).getDate(i)));
+		}
+	}
+
+	@Test
+	public void givenDailyExerciseWhenLoadYearlyChartWithDefaultBudgetThenBuilt() {
+		TrackerEngine engine = new TrackerEngine();
+		for (int i = 0; i < 365; i++) {
+			engine.addExercise(START.plusDays(i), new Exercise("Squat", new Number[] { 5, 5, 50.0 + i % 30, 150.0 }));
+		}
+
+		ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+		ArrayList<ExerciseChartData> data = new ArrayList<ExerciseChartData>();
+		engine.loadExerciseChart(START, TrackerEngine.YEARLY, TrackerEngine.DEFAULT_BUDGET, dates, data);
+
+		assertEquals(TrackerEngine.DEFAULT_BUDGET, data.get(0).size());
+		assertTrue(dates.size() <= 2 * TrackerEngine.DEFAULT_BUDGET);
+	}
+}
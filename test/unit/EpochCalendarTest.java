@@ -0,0 +1,84 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+import java.util.Locale;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import model.EpochCalendar;
+
+public class EpochCalendarTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private void assertMatchesLocalDate(EpochCalendar calendar, LocalDate date) {
+		long day = date.toEpochDay();
+		DayOfWeek first = calendar.getFirstDayOfWeek();
+
+		LocalDate week = date.with(TemporalAdjusters.previousOrSame(first));
+		assertEquals(week.toEpochDay(), calendar.start(day, EpochCalendar.WEEK));
+		assertEquals(week.plusDays(6).toEpochDay(), calendar.end(day, EpochCalendar.WEEK));
+
+		assertEquals(date.withDayOfMonth(1).toEpochDay(), calendar.start(day, EpochCalendar.MONTH));
+		assertEquals(date.withDayOfMonth(date.lengthOfMonth()).toEpochDay(), calendar.end(day, EpochCalendar.MONTH));
+		assertEquals(date.getYear() * 12L + date.getMonthValue() - 1, calendar.periodId(day, EpochCalendar.MONTH));
+
+		assertEquals(date.withDayOfYear(1).toEpochDay(), calendar.start(day, EpochCalendar.YEAR));
+		assertEquals(date.withDayOfYear(date.lengthOfYear()).toEpochDay(), calendar.end(day, EpochCalendar.YEAR));
+		assertEquals(date.getYear(), calendar.periodId(day, EpochCalendar.YEAR));
+	}
+
+	@Test
+	public void givenEveryDayWhenBoundsThenMatchLocalDate() {
+		// Includes days before and after the precomputed tables
+		for (DayOfWeek first : DayOfWeek.values()) {
+			EpochCalendar calendar = EpochCalendar.of(first);
+
+			for (LocalDate date = LocalDate.parse("1895-01-01"); date.isBefore(LocalDate.parse("2205-01-01")); date = date
+					.plusDays(first == DayOfWeek.MONDAY ? 1 : 13)) {
+				assertMatchesLocalDate(calendar, date);
+			}
+		}
+	}
+
+	@Test
+	public void givenDaysOfOneWeekWhenPeriodIdThenEqual() {
+		EpochCalendar calendar = EpochCalendar.of(Locale.UK);
+		long monday = LocalDate.parse("2018-03-12").toEpochDay();
+
+		for (int i = 0; i < 7; i++) {
+			assertEquals(calendar.periodId(monday, EpochCalendar.WEEK),
+					calendar.periodId(monday + i, EpochCalendar.WEEK));
+		}
+		assertEquals(calendar.periodId(monday, EpochCalendar.WEEK) + 1,
+				calendar.periodId(monday + 7, EpochCalendar.WEEK));
+		assertEquals(calendar.periodId(monday, EpochCalendar.WEEK) - 1,
+				calendar.periodId(monday - 1, EpochCalendar.WEEK));
+	}
+
+	@Test
+	public void givenLocaleWhenOfThenWeeksStartOnItsFirstDay() {
+		assertEquals(DayOfWeek.MONDAY, EpochCalendar.of(Locale.UK).getFirstDayOfWeek());
+		assertEquals(DayOfWeek.SUNDAY, EpochCalendar.of(Locale.US).getFirstDayOfWeek());
+		assertEquals(WeekFields.of(Locale.US).getFirstDayOfWeek(), EpochCalendar.of(Locale.US).getFirstDayOfWeek());
+
+		// Wednesday 2018-03-14
+		LocalDate date = LocalDate.parse("2018-03-14");
+		assertEquals(LocalDate.parse("2018-03-11"), EpochCalendar.of(Locale.US).start(date, EpochCalendar.WEEK));
+		assertEquals(LocalDate.parse("2018-03-17"), EpochCalendar.of(Locale.US).end(date, EpochCalendar.WEEK));
+	}
+
+	@Test
+	public void givenUnknownPeriodWhenStartThenThrowException() {
+		thrown.expect(IllegalArgumentException.class);
+		EpochCalendar.of(Locale.UK).start(0, 3);
+	}
+}
@@ -0,0 +1,98 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import model.Day;
+import model.DayStore;
+import model.Exercise;
+import model.ExerciseChartData;
+import model.ExerciseIndex;
+import model.ExerciseSeries;
+
+public class ExerciseIndexTest {
+
+	private static final LocalDate START = LocalDate.parse("2018-01-01");
+	private static final String[] NAMES = { "Bench Press", "Squat", "Deadlift" };
+
+	private Exercise exercise(String name, double weight) {
+		return new Exercise(name, new Number[] { 5, 5, weight, 150.0 });
+	}
+
+	@Test
+	public void givenAddedDeletedAndEditedExercisesWhenSeriesThenMatchesScanningTheDays() {
+		DayStore store = new DayStore();
+		ExerciseIndex index = new ExerciseIndex(store);
+		Random random = new Random(11);
+
+		for (int i = 0; i < 2000; i++) {
+			Day day = store.getDay(START.plusDays(random.nextInt(60)));
+			int action = random.nextInt(4);
+
+			if (action == 0 && !day.getExercises().isEmpty()) {
+				day.deleteExercise(day.getExercises().get(random.nextInt(day.getExercises().size())));
+			} else if (action == 1 && !day.getExercises().isEmpty()) {
+				Exercise edited = day.getExercises().get(random.nextInt(day.getExercises().size()));
+				day.setExercise(edited, exercise(edited.getName(), 1 + random.nextInt(200)));
+			} else {
+				day.addExercise(exercise(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(200)));
+			}
+		}
+
+		for (String name : NAMES) {
+			ExerciseSeries series = index.getSeries(name);
+			int i = 0;
+
+			for (Day day : store.getDays()) {
+				for (Exercise e : day.getExercises()) {
+					if (!e.getName().equals(name))
+						continue;
+
+					assertEquals(day.getDate(), series.getDate(i));
+					assertEquals(e.getWeight(), series.getWeight(i), 0.0001);
+					i++;
+				}
+			}
+
+			assertEquals(i, series.size());
+		}
+	}
+
+	@Test
+	public void givenRangeWhenSliceThenOnlyExercisesWithPointsInRange() {
+		DayStore store = new DayStore();
+		store.getDay(START).addExercise(exercise("Squat", 60));
+		store.getDay(START.plusDays(1)).addExercise(exercise("Deadlift", 40));
+		store.getDay(START.plusDays(8)).addExercise(exercise("Squat", 65));
+
+		// Days added before the index are indexed too
+		ExerciseIndex index = new ExerciseIndex(store);
+		store.getDay(START.plusDays(3)).addExercise(exercise("Squat", 62.5));
+
+		ArrayList<ExerciseChartData> slices = index.slice(START.plusDays(2).toEpochDay(),
+				START.plusDays(8).toEpochDay());
+
+		assertEquals(1, slices.size());
+		assertEquals("Squat", slices.get(0).getName());
+		assertEquals(2, slices.get(0).size());
+		assertEquals(62.5, slices.get(0).getValue(0), 0.0001);
+		assertEquals(START.plusDays(8), slices.get(0).getDate(1));
+	}
+
+	@Test
+	public void givenIndexWhenClearThenForgetsEverySeries() {
+		DayStore store = new DayStore();
+		ExerciseIndex index = new ExerciseIndex(store);
+		store.getDay(START).addExercise(exercise("Squat", 60));
+
+		index.clear();
+
+		assertNull(index.getSeries("Squat"));
+		assertTrue(index.getSeries().isEmpty());
+	}
+}
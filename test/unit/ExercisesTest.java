@@ -2,12 +2,15 @@ package unit;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import javafx.beans.binding.StringBinding;
 import model.Exercise;
 
 public class ExercisesTest {
@@ -143,4 +146,31 @@ public class ExercisesTest {
 		assertEquals(e1.getCaloriesBurned(), e2.getCaloriesBurned(), 0.0);
 		assertEquals(e1.getCustom(), e2.getCustom());
 	}
+	
+	@Test
+	public void givenTableTextWhenValuesSetThenTextUpdated() {
+		Exercise e1 = new Exercise("Bench Press", new Number[] {5, 10, 50.0, 200.0});
+		
+		String weight = e1.getStrWeight().get();
+		assertSame(weight, e1.getStrWeight().get());
+		
+		e1.setValues(new Number[] {5, 10, 60.0, 200.0});
+		assertEquals("60.0", e1.getStrWeight().get());
+		
+		e1.setName("Incline Bench Press");
+		assertEquals("Incline Bench Press", e1.getStrExercise().get());
+	}
+	
+	@Test
+	public void givenTableTextWhenRepsSetThenOnlyRepsTextRefreshed() {
+		Exercise e1 = new Exercise("Bench Press", new Number[] {5, 10, 50.0, 200.0});
+		StringBinding reps = e1.getStrReps(), weight = e1.getStrWeight();
+		reps.get();
+		weight.get();
+		
+		e1.setReps(8);
+		assertTrue(weight.isValid());
+		assertFalse(reps.isValid());
+		assertEquals("8", reps.get());
+	}
 }
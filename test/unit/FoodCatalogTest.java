@@ -0,0 +1,158 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.Food;
+import model.FoodCatalog;
+
+public class FoodCatalogTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private FoodCatalog create() {
+		FoodCatalog catalog = new FoodCatalog();
+		List<String> names = new ArrayList<String>();
+		List<double[]> values = new ArrayList<double[]>();
+
+		for (int i = 0; i < 1000; i++) {
+			names.add((i % 2 == 0 ? "Whole Milk " : "White Rice ") + i);
+			values.add(new double[] { 100, i % 10, 1, 2 });
+		}
+		catalog.addAll(names, values);
+
+		return catalog;
+	}
+
+	@Test
+	public void givenBatchWhenAddedThenOneChangeAndValuesStored() {
+		FoodCatalog catalog = new FoodCatalog();
+		int[] changes = { 0 };
+		catalog.addListener((ListChangeListener<Food>) change -> changes[0]++);
+
+		catalog.addAll(Arrays.asList("Whole Milk", "White Rice"),
+				Arrays.asList(new double[] { 100, 4.7, 3.5, 3.7 }, new double[] { 100, 78.9, 6.7, 0.7 }));
+
+		assertEquals(1, changes[0]);
+		assertEquals(2, catalog.size());
+		assertEquals("White Rice", catalog.getName(catalog.getId(1)));
+		assertEquals((4.7 * 4) + (3.5 * 4) + (3.7 * 9), catalog.getCalories(catalog.getId(0)), 0.0001);
+	}
+
+	@Test
+	public void givenRowWhenReadTwiceThenSameTemplateFood() {
+		FoodCatalog catalog = create();
+
+		Food food = catalog.get(7);
+		assertSame(food, catalog.get(7));
+		assertTrue(food.getTemplate());
+		assertEquals("White Rice 7", food.getName());
+		assertEquals(7, food.getCarbohydrates(), 0.0);
+	}
+
+	@Test
+	public void givenCustomFoodWhenAddedAndRemovedThenCatalogAndSearchUpdated() {
+		FoodCatalog catalog = create();
+
+		Food custom = new Food("Oat Bar", new double[] { 50, 30, 5, 5 }, new boolean[] { true, true });
+		catalog.add(custom);
+
+		assertSame(custom, catalog.get(1000));
+		assertEquals(Arrays.asList(custom), catalog.search("oat bar"));
+
+		assertTrue(catalog.remove(custom));
+		catalog.remove(0);
+
+		assertEquals(999, catalog.size());
+		assertTrue(catalog.search("oat bar").isEmpty());
+		assertEquals("White Rice 1", catalog.get(0).getName());
+		assertEquals(0, catalog.search("milk 0").size());
+	}
+
+	@Test
+	public void givenQueryWhenSearchedThenRankedView() {
+		FoodCatalog catalog = create();
+
+		ObservableList<Food> results = catalog.search("milk 98");
+		assertEquals(6, results.size());
+		assertEquals("Whole Milk 98", results.get(0).getName());
+		assertEquals(500, catalog.search("rice").size());
+	}
+
+	@Test
+	public void givenFoodsWhenIndexOfThenFoundById() {
+		FoodCatalog catalog = create();
+		Food food = catalog.get(500);
+		Food custom = new Food("Oat Bar", new double[] { 50, 30, 5, 5 }, new boolean[] { true, true });
+		catalog.add(custom);
+
+		catalog.remove(0);
+
+		assertEquals(499, catalog.indexOf(food));
+		assertEquals(999, catalog.indexOf(custom));
+		// Only the stored Food itself, not a copy of it
+		assertEquals(-1, catalog.indexOf(new Food(food)));
+		assertEquals(-1, catalog.indexOf("White Rice 501"));
+
+		catalog.remove(custom);
+		assertEquals(-1, catalog.indexOf(custom));
+		assertFalse(catalog.contains(custom));
+	}
+
+	@Test
+	public void givenTemplateNoLongerHeldWhenCollectedThenCreatedAgain() throws Exception {
+		FoodCatalog catalog = create();
+		WeakReference<Food> template = new WeakReference<Food>(catalog.get(7));
+
+		for (int i = 0; i < 50 && template.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+
+		// The catalog didn't keep the row's Food alive
+		assertNull(template.get());
+		assertEquals("White Rice 7", catalog.get(7).getName());
+		assertSame(catalog.get(7), catalog.get(7));
+	}
+
+	@Test
+	public void givenSearchResultsWhenRowRemovedThenRowDropsOut() {
+		FoodCatalog catalog = create();
+		ObservableList<Food> results = catalog.search("white rice 99");
+		int found = results.size();
+		String name = results.get(1).getName();
+
+		int[] changes = new int[1];
+		results.addListener((ListChangeListener<Food>) change -> changes[0]++);
+
+		catalog.remove(catalog.indexOf(results.get(1)));
+
+		assertEquals(1, changes[0]);
+		assertEquals(found - 1, results.size());
+		for (Food food : results) {
+			assertNotEquals(name, food.getName());
+		}
+
+		// Rows that didn't match are left alone
+		catalog.remove(0);
+		assertEquals(1, changes[0]);
+	}
+
+	@Test
+	public void givenPositionNotAtEndWhenAddedThenExceptionThrown() {
+		thrown.expect(UnsupportedOperationException.class);
+
+		create().add(0, new Food("Oat Bar", new double[] { 50, 30, 5, 5 }));
+	}
+}
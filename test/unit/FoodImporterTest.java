@@ -0,0 +1,100 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import model.FoodCatalog;
+import model.FoodImporter;
+
+public class FoodImporterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private Path write(String... lines) throws Exception {
+		Path file = folder.getRoot().toPath().resolve("foods.csv");
+		Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+		return file;
+	}
+
+	@Test
+	public void givenValidAndInvalidRowsWhenImportedThenInvalidRowsRejected() throws Exception {
+		Path file = write("name,amount,carbohydrates,proteins,fats",
+				"Whole Milk,100,4.7,3.5,3.7",
+				"\"Rice, White\",100,78.9,6.7,0.7",
+				"Broken,0,1,1,1",
+				"Negative,100,-1,1,1",
+				",100,1,1,1",
+				"Text,100,abc,1,1",
+				"Short,100,1");
+		Path rejects = folder.getRoot().toPath().resolve("rejects.csv");
+
+		FoodCatalog foods = new FoodCatalog();
+		FoodImporter importer = new FoodImporter(2);
+		assertEquals(2, importer.importFoods(file, rejects, foods));
+
+		assertEquals(5, importer.getRejected());
+		assertEquals("Whole Milk", foods.get(0).getName());
+		assertEquals("Rice, White", foods.get(1).getName());
+		assertEquals(78.9, foods.getCarbohydrates(foods.getId(1)), 0.0);
+		assertTrue(foods.get(0).getTemplate());
+
+		List<String> rejected = Files.readAllLines(rejects, StandardCharsets.UTF_8);
+		assertEquals(6, rejected.size());
+		assertEquals("4,amount cannot be 0,\"Broken,0,1,1,1\"", rejected.get(1));
+		assertTrue(rejected.get(5).startsWith("8,missing proteins,"));
+	}
+
+	@Test
+	public void givenManyRowsWhenImportedThenFileOrderKept() throws Exception {
+		ArrayList<String> lines = new ArrayList<String>();
+		lines.add("product_name\tcarbohydrates_100g\tproteins_100g\tfat_100g");
+		for (int i = 0; i < 50000; i++) {
+			lines.add("Food " + i + "\t" + (i % 100) + "\t1\t" + (i % 7 == 0 ? "-1" : "2"));
+		}
+		Path file = write(lines.toArray(new String[0]));
+
+		FoodCatalog foods = new FoodCatalog();
+		FoodImporter importer = new FoodImporter(4);
+		importer.importFoods(file, folder.getRoot().toPath().resolve("rejects.csv"), foods);
+
+		assertEquals(50000 / 7 + 1, importer.getRejected());
+		assertEquals(50000 - importer.getRejected(), foods.size());
+
+		// Values are per 100g without an amount column
+		assertEquals(100, foods.getAmount(foods.getId(0)), 0.0);
+		assertEquals("Food 1", foods.get(0).getName());
+		assertEquals("Food 49999", foods.get(foods.size() - 1).getName());
+	}
+
+	@Test
+	public void givenNoNameColumnWhenImportedThenExceptionThrown() throws Exception {
+		thrown.expect(java.io.IOException.class);
+
+		Path file = write("food,carbs", "Milk,1");
+		new FoodImporter(1).importFoods(file, folder.getRoot().toPath().resolve("rejects.csv"), new FoodCatalog());
+	}
+
+	@Test
+	public void givenNoFatsColumnWhenImportedThenExceptionThrown() throws Exception {
+		thrown.expect(java.io.IOException.class);
+		thrown.expectMessage("Food database has no fats column!");
+
+		Path file = write("name,carbohydrates,proteins", "Milk,4.7,3.5");
+		new FoodImporter(1).importFoods(file, folder.getRoot().toPath().resolve("rejects.csv"), new FoodCatalog());
+	}
+}
@@ -9,6 +9,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import javafx.beans.binding.StringBinding;
 import model.Food;
 
 /**
@@ -77,5 +78,36 @@ public class FoodTest {
 		// Verify its name changed
 		assertEquals(f1.getName(), "Chicken" + customTag);
 	}
-
+	
+	@Test
+	public void givenTableTextWhenReadTwiceThenSameValueUntilQuantityChanged() {
+		Food f1 = new Food("Cake", new double[] {100, 10, 10, 10, 1});
+		
+		String calories = f1.getStrCalories().get();
+		assertSame(f1.getStrCalories(), f1.getStrCalories());
+		assertSame(calories, f1.getStrCalories().get());
+		
+		f1.setQuantity(2);
+		assertEquals("340.0", f1.getStrCalories().get());
+		assertEquals("2.0", f1.getStrQuantity().get());
+	}
+	
+	@Test
+	public void givenTableTextWhenOneValueSetThenOnlyItsTextRefreshed() {
+		Food f1 = new Food("Cake", new double[] {100, 10, 10, 10, 1});
+		StringBinding name = f1.getStrName(), carbs = f1.getStrCarbs(), fats = f1.getStrFats();
+		name.get();
+		carbs.get();
+		fats.get();
+		
+		f1.setCarbohydrates(20);
+		assertTrue(name.isValid());
+		assertTrue(fats.isValid());
+		assertFalse(carbs.isValid());
+		assertEquals("20.0", carbs.get());
+		
+		f1.setQuantity(2);
+		assertTrue(name.isValid());
+		assertFalse(fats.isValid());
+	}
 }
@@ -0,0 +1,134 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import model.Day;
+import model.DayStore;
+import model.Exercise;
+import model.Food;
+import model.HistoryFile;
+
+public class HistoryFileTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final LocalDate START = LocalDate.parse("2015-01-01");
+
+	private HistoryFile create() throws Exception {
+		return HistoryFile.open(write(new DayStore(), 1));
+	}
+
+	private Path write(DayStore store, long snapshot) throws Exception {
+
+		// Log a food every other day for a year
+		for (int i = 0; i < 365; i += 2) {
+			Day day = store.getDay(START.plusDays(i));
+			day.addFood(new Food("Whole Milk", new double[] { 100, 10, 10, 10, 1 }));
+		}
+
+		Day day = store.getDay(START.plusDays(10));
+		day.addExercise(new Exercise("Squat", new Number[] { 5, 5, 100.0, 150.0 }));
+		day.addExercise(new Exercise("Squat", new Number[] { 3, 1, 120.0, 50.0 }));
+
+		Path file = folder.getRoot().toPath().resolve("history.dat");
+		HistoryFile.write(store, file, snapshot);
+		return file;
+	}
+
+	@Test
+	public void givenLoggedDaysWhenOpenedThenRangeMatches() throws Exception {
+		HistoryFile history = create();
+
+		assertEquals(START, history.getFirstDate());
+		assertEquals(START.plusDays(364), history.getLastDate());
+		assertEquals(365, history.size());
+	}
+
+	@Test
+	public void givenLoggedDaysWhenSummedThenEmptyDaysCountAsZero() throws Exception {
+		HistoryFile history = create();
+
+		// 10g of each macro = 170 calories, logged on days 0, 2, 4, 6
+		assertEquals(170, history.get(HistoryFile.CALORIES, START), 0.0001);
+		assertEquals(0, history.get(HistoryFile.CALORIES, START.plusDays(1)), 0.0);
+		assertEquals(4 * 170, history.sum(HistoryFile.CALORIES, START, START.plusDays(7)), 0.0001);
+		assertEquals(4 * 10, history.sum(HistoryFile.PROTEINS, START, START.plusDays(7)), 0.0001);
+		assertEquals(170 / 2.0, history.average(HistoryFile.CALORIES, START, START.plusDays(7)), 0.0001);
+	}
+
+	@Test
+	public void givenRangeOutsideHistoryWhenSummedThenZero() throws Exception {
+		HistoryFile history = create();
+
+		assertEquals(0, history.sum(HistoryFile.CALORIES, START.minusDays(50), START.minusDays(1)), 0.0);
+		assertEquals(0, history.sum(HistoryFile.CALORIES, START.plusYears(5), START.plusYears(6)), 0.0);
+	}
+
+	@Test
+	public void givenExerciseWhenQueriedThenHeaviestWeightReturned() throws Exception {
+		HistoryFile history = create();
+
+		int squat = history.getExerciseId("Squat");
+		assertEquals(0, squat);
+		assertEquals(-1, history.getExerciseId("Bench Press"));
+		assertEquals(120, history.getWeight(squat, START.plusDays(10)), 0.0);
+		assertTrue(Double.isNaN(history.getWeight(squat, START.plusDays(11))));
+		assertEquals(120, history.maxWeight(squat, START, START.plusDays(364)), 0.0);
+		assertEquals(200, history.sum(HistoryFile.BURNED, START, START.plusDays(364)), 0.0);
+	}
+
+	@Test
+	public void givenChangedDaysWhenUpdatedThenOnlyThoseDaysPatched() throws Exception {
+		DayStore store = new DayStore();
+		Path file = write(store, 1);
+
+		// Day 1 gets its first food, day 10 a new exercise, day 0 changes without being reported
+		store.getDay(START.plusDays(1)).addFood(new Food("Whole Milk", new double[] { 100, 10, 10, 10, 2 }));
+		store.getDay(START.plusDays(10)).addExercise(new Exercise("Bench Press", new Number[] { 5, 5, 80.0, 40.0 }));
+		store.getDay(START).addFood(new Food("Whole Milk", new double[] { 100, 10, 10, 10, 1 }));
+
+		ArrayList<Long> changed = new ArrayList<Long>();
+		changed.add(START.plusDays(1).toEpochDay());
+		changed.add(START.plusDays(10).toEpochDay());
+		assertTrue(HistoryFile.update(store, changed, file, 1, 2));
+
+		HistoryFile history = HistoryFile.open(file);
+		assertEquals(2, history.getSnapshot());
+		assertEquals(340, history.get(HistoryFile.CALORIES, START.plusDays(1)), 0.0001);
+		assertEquals(170, history.get(HistoryFile.CALORIES, START), 0.0001);
+		assertEquals(240, history.sum(HistoryFile.BURNED, START, START.plusDays(364)), 0.0);
+
+		int bench = history.getExerciseId("Bench Press");
+		assertEquals(1, bench);
+		assertEquals(80, history.getWeight(bench, START.plusDays(10)), 0.0);
+		assertTrue(Double.isNaN(history.getWeight(bench, START.plusDays(2))));
+		assertEquals(120, history.getWeight(history.getExerciseId("Squat"), START.plusDays(10)), 0.0);
+	}
+
+	@Test
+	public void givenOtherSnapshotWhenUpdatedThenRefused() throws Exception {
+		DayStore store = new DayStore();
+		Path file = write(store, 1);
+
+		ArrayList<Long> changed = new ArrayList<Long>();
+		changed.add(START.toEpochDay());
+		assertFalse(HistoryFile.update(store, changed, file, 0, 2));
+
+		// Days past the capacity need the file written again
+		changed.clear();
+		changed.add(START.plusYears(10).toEpochDay());
+		store.getDay(START.plusYears(10)).addFood(new Food("Whole Milk", new double[] { 100, 10, 10, 10, 1 }));
+		assertFalse(HistoryFile.update(store, changed, file, 1, 2));
+
+		assertEquals(1, HistoryFile.open(file).getSnapshot());
+	}
+}
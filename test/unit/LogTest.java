@@ -0,0 +1,124 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import model.AsyncAppender;
+import model.Log;
+
+public class LogTest {
+
+	private ByteArrayOutputStream out, err;
+	private AsyncAppender appender;
+	private Log.Appender previous;
+	private Log.Level previousLevel;
+
+	@Before
+	public void setUp() {
+		out = new ByteArrayOutputStream();
+		err = new ByteArrayOutputStream();
+		appender = new AsyncAppender(new PrintStream(out), new PrintStream(err), 16);
+
+		previous = Log.setAppender(appender);
+		previousLevel = Log.getLevel();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		Log.setAppender(previous);
+		Log.setLevel(previousLevel);
+		appender.close();
+	}
+
+	@Test
+	public void givenLevelWhenLoggingBelowItThenMessageIsNeverBuilt() throws Exception {
+		Log.setLevel(Log.Level.INFO);
+		AtomicInteger built = new AtomicInteger();
+
+		Log.debug(() -> "debug " + built.incrementAndGet());
+		Log.info(() -> "info " + built.incrementAndGet());
+		appender.flush();
+
+		assertEquals(1, built.get());
+		assertFalse(out.toString().contains("debug"));
+		assertTrue(out.toString().contains("INFO [main] info 1"));
+	}
+
+	@Test
+	public void givenWarningsAndErrorsWhenLoggedThenWrittenToErrorStream() throws Exception {
+		Log.setLevel(Log.Level.DEBUG);
+
+		Log.debug("started");
+		Log.warn("torn record");
+		Log.error("couldn't save", new IOException("disk full"));
+		appender.flush();
+
+		assertTrue(out.toString().contains("DEBUG [main] started"));
+		assertFalse(out.toString().contains("torn record"));
+		assertTrue(err.toString().contains("WARN [main] torn record"));
+		assertTrue(err.toString().contains("java.io.IOException: disk full"));
+	}
+
+	@Test
+	public void givenLevelNameWhenSetThenCaseAndSpacesIgnored() throws Exception {
+		assertTrue(Log.setLevel(" debug "));
+		assertEquals(Log.Level.DEBUG, Log.getLevel());
+
+		assertFalse(Log.setLevel("verbose"));
+		appender.flush();
+
+		assertEquals(Log.Level.INFO, Log.getLevel());
+		assertTrue(err.toString().contains("WARN [main] Unknown log level \"verbose\", using INFO"));
+	}
+
+	@Test
+	public void givenOffLevelWhenLoggingThenNothingWritten() throws Exception {
+		Log.setLevel(Log.Level.OFF);
+
+		Log.error("couldn't save", null);
+		appender.flush();
+
+		assertFalse(Log.isEnabled(Log.Level.ERROR));
+		assertEquals(0, out.size() + err.size());
+	}
+
+	@Test
+	public void givenManyMessagesWhenFlushedThenWrittenInOrder() throws Exception {
+		Log.setLevel(Log.Level.INFO);
+
+		for (int i = 0; i < 10000; i++) {
+			Log.info("message " + i);
+		}
+		appender.flush();
+
+		// Whatever didn't fit into the buffer was dropped, the rest is in order
+		String[] lines = out.toString().split(System.lineSeparator());
+		assertEquals(10000, lines.length + appender.getDropped());
+
+		int last = -1;
+		for (String line : lines) {
+			int i = Integer.parseInt(line.substring(line.lastIndexOf(' ') + 1));
+			assertTrue(i > last);
+			last = i;
+		}
+	}
+
+	@Test
+	public void givenClosedAppenderWhenLoggingThenDropped() throws Exception {
+		Log.setLevel(Log.Level.INFO);
+		appender.close();
+
+		Log.info("too late");
+
+		assertEquals(1, appender.getDropped());
+		assertEquals(0, out.size());
+	}
+}
@@ -0,0 +1,75 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import model.Activity;
+import model.Goal;
+import model.MetabolicCalculator;
+import model.Profile;
+
+public class MetabolicCalculatorTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	private static final String[] GENDERS = { "Male", "Female" };
+	private static final String[] UNITS = { "Metric", "Imperial" };
+	private static final double[] LEVELS = { 1.2, 1.375, 1.55, 1.725, 1.9 };
+	private static final double[] GOALS = { 0.8, 1.0, 1.2 };
+
+	@Test
+	public void givenPopulationWhenCalculateThenBitIdenticalToProfile() {
+		// More people than a chunk so the work is split over the pool
+		int count = 50000;
+		Random random = new Random(42);
+
+		byte[] gender = new byte[count], units = new byte[count];
+		double[] weight = new double[count], height = new double[count];
+		int[] age = new int[count];
+		double[] level = new double[count], multiplier = new double[count];
+		Profile[] profiles = new Profile[count];
+
+		for (int i = 0; i < count; i++) {
+			String g = GENDERS[random.nextInt(2)], u = UNITS[random.nextInt(2)];
+			double w = 40 + random.nextDouble() * 120, h = 140 + random.nextDouble() * 70;
+			int a = 16 + random.nextInt(70);
+			double l = LEVELS[random.nextInt(LEVELS.length)], m = GOALS[random.nextInt(GOALS.length)];
+
+			gender[i] = MetabolicCalculator.gender(g);
+			units[i] = MetabolicCalculator.units(u);
+			weight[i] = w;
+			height[i] = h;
+			age[i] = a;
+			level[i] = l;
+			multiplier[i] = m;
+
+			profiles[i] = new Profile().withGender(g).withUnits(u).withWeight(w).withHeight(h).withAge(a)
+					.withActivity(new Activity("Activity", l)).withCurrentGoal(new Goal("Goal", m));
+		}
+
+		double[] bmr = new double[count], tdee = new double[count], goal = new double[count];
+		new MetabolicCalculator().calculate(gender, units, weight, height, age, level, multiplier, bmr, tdee, goal);
+
+		for (int i = 0; i < count; i++) {
+			assertEquals(Double.doubleToRawLongBits(profiles[i].getBMR()), Double.doubleToRawLongBits(bmr[i]));
+			assertEquals(Double.doubleToRawLongBits(profiles[i].getTDEE()), Double.doubleToRawLongBits(tdee[i]));
+			assertEquals(Double.doubleToRawLongBits(profiles[i].getGoalCalories()), Double.doubleToRawLongBits(goal[i]));
+		}
+	}
+
+	@Test
+	public void throwsIllegalArgumentExceptionIfArraySizesDiffer() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage("Every array needs a value per person!");
+
+		double[] one = new double[1];
+		new MetabolicCalculator().calculate(new byte[1], new byte[1], one, one, new int[1], one, one, one, one,
+				new double[2]);
+	}
+}
@@ -0,0 +1,118 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import model.Histogram;
+import model.MetricsRegistry;
+
+public class MetricsTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void givenUniformValuesWhenRecordedThenPercentilesWithinThreePercent() {
+		Histogram histogram = new Histogram();
+		for (long value = 1; value <= 1_000_000; value++) {
+			histogram.record(value);
+		}
+
+		assertEquals(1_000_000, histogram.getCount());
+		assertEquals(1_000_000, histogram.getMax());
+		assertEquals(500_000.5, histogram.getMean(), 0.001);
+		assertEquals(500_000, histogram.getPercentile(50), 500_000 * 0.03);
+		assertEquals(990_000, histogram.getPercentile(99), 990_000 * 0.03);
+		assertEquals(1_000_000, histogram.getPercentile(100));
+	}
+
+	@Test
+	public void givenRandomValuesWhenRecordedThenPercentileNeverBelowExactValue() {
+		Histogram histogram = new Histogram();
+		Random random = new Random(7);
+		long[] values = new long[10_000];
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) Math.abs(random.nextGaussian() * 5_000_000);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double percentile : new double[] { 50, 90, 99 }) {
+			long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			long reported = histogram.getPercentile(percentile);
+
+			assertTrue(reported >= exact);
+			assertTrue(reported <= exact * 1.04 + 1);
+		}
+	}
+
+	@Test
+	public void givenSmallValuesWhenRecordedThenPercentilesExact() {
+		Histogram histogram = new Histogram();
+		histogram.record(-5);
+		histogram.record(3);
+		histogram.record(40);
+
+		assertEquals(0, histogram.getPercentile(10));
+		assertEquals(3, histogram.getPercentile(50));
+		assertEquals(40, histogram.getPercentile(99));
+	}
+
+	@Test
+	public void givenNoValuesWhenPercentileThenZero() {
+		assertEquals(0, new Histogram().getPercentile(99));
+	}
+
+	@Test
+	public void givenInvalidPercentileWhenPercentileThenException() {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Invalid percentile!");
+
+		new Histogram().getPercentile(101);
+	}
+
+	@Test
+	public void givenMetricsWhenSnapshotThenEveryMetricInJson() {
+		MetricsRegistry metrics = new MetricsRegistry();
+		metrics.counter("logins").increment();
+		metrics.counter("logins").increment();
+		metrics.gauge("sessions.open", () -> 3);
+		metrics.timer("summary.update").record(2_000_000);
+		metrics.time("diet.update", () -> {
+		});
+
+		String json = metrics.snapshot();
+
+		assertTrue(json.contains("\"logins\": 2"));
+		assertTrue(json.contains("\"sessions.open\": 3"));
+		assertTrue(json.contains("\"summary.update\": { \"count\": 1, \"mean_ms\": 2.0, \"p50_ms\": 2.0"));
+		assertTrue(json.contains("\"diet.update\": { \"count\": 1"));
+		assertTrue(json.indexOf("diet.update") < json.indexOf("summary.update"));
+	}
+
+	@Test
+	public void givenMetricsWhenWrittenThenFileHoldsSnapshot() throws Exception {
+		MetricsRegistry metrics = new MetricsRegistry();
+		metrics.counter("logins").increment();
+		Path file = folder.getRoot().toPath().resolve("metrics.json");
+
+		metrics.write(file);
+
+		assertEquals(metrics.snapshot(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+		assertFalse(Files.exists(file.resolveSibling("metrics.json.tmp")));
+	}
+}
@@ -1,5 +1,7 @@
 package unit;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -7,6 +9,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import model.Person;
+import model.Profile;
 
 public class PersonTest {
 
@@ -17,7 +20,7 @@ public class PersonTest {
 	
 	@BeforeClass
 	public static void setUpBeforeClass() throws Exception {
-		p = Person.getInstance();
+		p = new Person();
 	}
 
 	@Test
@@ -94,4 +97,52 @@ public class PersonTest {
 		p.setBodyfat(1.50);
 	}
 	
+	@Test
+	public void settingWeightRecalculatesBMRTDEEAndGoal() {
+		Person person = new Person();
+		person.setWeight(80);
+		
+		Profile profile = person.getProfile();
+		Assert.assertEquals(66 + (13.75 * 80) + (5 * 183) - (6.8 * 20), profile.getBMR(), 0.0);
+		Assert.assertEquals(profile.getBMR() * 1.2, profile.getTDEE(), 0.0);
+		Assert.assertEquals(profile.getTDEE() * 1.0, profile.getGoalCalories(), 0.0);
+	}
+	
+	@Test
+	public void failedChangeKeepsTheProfile() {
+		Person person = new Person();
+		Profile before = person.getProfile();
+		
+		try {
+			person.update(profile -> profile.withWeight(90).withAge(-1));
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertSame(before, person.getProfile());
+		}
+	}
+	
+	@Test
+	public void concurrentReadersSeeMatchingProfiles() throws Exception {
+		Person person = new Person();
+		AtomicBoolean mismatch = new AtomicBoolean();
+		
+		Thread reader = new Thread(() -> {
+			for (int i = 0; i < 200000; i++) {
+				Profile profile = person.getProfile();
+				double bmr = Profile.calculateBMR(profile.getGender(), profile.getUnits(), profile.getWeight(),
+						profile.getHeight(), profile.getAge());
+				if (bmr != profile.getBMR() || profile.getBMR() * 1.2 != profile.getTDEE())
+					mismatch.set(true);
+			}
+		});
+		reader.start();
+		
+		for (int i = 0; i < 20000; i++) {
+			person.setWeight(60 + i % 40);
+			person.setGender(i % 2 == 0 ? "Female" : "Male");
+		}
+		reader.join();
+		
+		Assert.assertFalse(mismatch.get());
+	}
 }
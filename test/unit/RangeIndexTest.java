@@ -0,0 +1,126 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import org.junit.Test;
+
+import model.Day;
+import model.DayStore;
+import model.Exercise;
+import model.Food;
+import model.HistoryFile;
+import model.RangeIndex;
+
+public class RangeIndexTest {
+
+	private static final LocalDate START = LocalDate.parse("2015-01-01");
+
+	private Food milk(double quantity) {
+		return new Food("Whole Milk", new double[] { 100, 10, 10, 10, quantity });
+	}
+
+	@Test
+	public void givenLoggedDaysWhenQueriedThenMatchesScanningTheDays() {
+		DayStore store = new DayStore();
+		RangeIndex index = new RangeIndex(store);
+		Random random = new Random(7);
+
+		// Spread over several years so the index has to grow in both directions
+		for (int i = 0; i < 500; i++) {
+			Day day = store.getDay(START.plusDays(random.nextInt(4000) - 2000));
+			day.addFood(milk(1 + random.nextInt(5)));
+		}
+
+		for (int i = 0; i < 100; i++) {
+			LocalDate start = START.plusDays(random.nextInt(4400) - 2200);
+			LocalDate end = start.plusDays(random.nextInt(1500));
+
+			double sum = 0, max = Double.NaN;
+			int count = 0;
+			for (Day day : store.range(start, end)) {
+				sum += day.getTotalFoodCalories();
+				max = Double.isNaN(max) ? day.getTotalFoodCalories() : Math.max(max, day.getTotalFoodCalories());
+				count++;
+			}
+
+			assertEquals(sum, index.sum(HistoryFile.CALORIES, start, end), 0.0001);
+			assertEquals(count, index.count(start, end));
+			assertEquals(max, index.max(HistoryFile.CALORIES, start, end), 0.0001);
+		}
+	}
+
+	@Test
+	public void givenEditedFoodWhenQueriedThenUsesNewTotals() {
+		DayStore store = new DayStore();
+		RangeIndex index = new RangeIndex(store);
+
+		Food food = milk(1);
+		store.getDay(START).addFood(food);
+		store.getDay(START.plusDays(1)).addFood(milk(3));
+
+		// 10g of each macro = 170 calories per quantity
+		store.getDay(START).setQuantity(food, 2);
+
+		assertEquals(5 * 170, index.sum(HistoryFile.CALORIES, START, START.plusDays(1)), 0.0001);
+		assertEquals(2 * 170, index.min(HistoryFile.CALORIES, START, START.plusDays(1)), 0.0001);
+		assertEquals(3 * 10, index.max(HistoryFile.PROTEINS, START, START.plusDays(1)), 0.0001);
+		assertEquals(2.5 * 10, index.average(HistoryFile.FATS, START, START.plusDays(1)), 0.0001);
+
+		store.getDay(START).deleteFood(food);
+
+		assertEquals(3 * 170, index.min(HistoryFile.CALORIES, START, START.plusDays(1)), 0.0001);
+		assertEquals(1, index.count(START, START.plusDays(1)));
+	}
+
+	@Test
+	public void givenNothingLoggedWhenQueriedThenEmpty() {
+		DayStore store = new DayStore();
+		RangeIndex index = new RangeIndex(store);
+
+		assertEquals(0, index.sum(HistoryFile.CALORIES, START, START.plusDays(7)), 0.0);
+		assertTrue(Double.isNaN(index.max(HistoryFile.CALORIES, START, START.plusDays(7))));
+
+		// Days without foods or exercises are not counted
+		store.getDay(START);
+		store.getDay(START.plusDays(1)).addExercise(new Exercise("Squat", new Number[] { 5, 5, 100.0, 150.0 }));
+
+		assertEquals(1, index.count(START, START.plusDays(7)));
+		assertEquals(150, index.sum(HistoryFile.BURNED, START, START.plusDays(7)), 0.0001);
+		assertEquals(0, index.average(HistoryFile.CALORIES, START.plusDays(2), START), 0.0);
+	}
+
+	@Test
+	public void givenFarApartDaysWhenQueriedThenBothIndexed() {
+		DayStore store = new DayStore();
+		RangeIndex index = new RangeIndex(store);
+
+		// Tens of thousands of years apart, only the two chunks holding them exist
+		LocalDate past = LocalDate.of(-5000, 1, 1), future = LocalDate.of(90000, 12, 31);
+		store.getDay(START).addFood(milk(1));
+		store.getDay(past).addFood(milk(2));
+		store.getDay(future).addFood(milk(3));
+
+		assertEquals(3, index.count(past, future));
+		assertEquals(6 * 170, index.sum(HistoryFile.CALORIES, past, future), 0.0001);
+		assertEquals(3 * 170, index.max(HistoryFile.CALORIES, START, future), 0.0001);
+		assertEquals(170, index.min(HistoryFile.CALORIES, past.plusDays(1), future.minusDays(1)), 0.0001);
+
+		store.getDay(future).deleteFood(store.getDay(future).getFoods().get(0));
+
+		assertEquals(0, index.count(START.plusDays(1), future));
+		assertEquals(3 * 170, index.sum(HistoryFile.CALORIES, past, future), 0.0001);
+	}
+
+	@Test
+	public void givenStoreWithDaysWhenIndexCreatedThenExistingDaysIndexed() {
+		DayStore store = new DayStore();
+		store.getDay(START).addFood(milk(1));
+
+		RangeIndex index = new RangeIndex(store);
+
+		assertEquals(170, index.sum(HistoryFile.CALORIES, START, START), 0.0001);
+	}
+}
@@ -0,0 +1,87 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.Exercise;
+import model.Food;
+import model.SearchIndex;
+
+public class SearchIndexTest {
+
+	private Food food(String name) {
+		return new Food(name, new double[] { 100, 1, 1, 1 }, new boolean[] { true });
+	}
+
+	@Test
+	public void givenFoodsWhenSearchedThenMatchesContainsAndRanksPrefixFirst() {
+		Food f1 = food("Semi Skimmed Milk");
+		Food f2 = food("Whole Milk");
+		Food f3 = food("White Rice");
+		Food f4 = food("Milkshake");
+
+		SearchIndex<Food> index = new SearchIndex<Food>();
+		for (Food f : Arrays.asList(f1, f2, f3, f4)) {
+			index.add(f);
+		}
+
+		// Starts with the query first, then a word starting with it, shorter names first
+		assertEquals(Arrays.asList(f4, f2, f1), index.search(" MILK "));
+		assertEquals(Arrays.asList(f2, f3), index.search("wh"));
+		assertEquals(Arrays.asList(f3), index.search("te ri"));
+		assertTrue(index.search("kim milk").isEmpty());
+		assertEquals(4, index.search("").size());
+	}
+
+	@Test
+	public void givenFollowedListWhenItemsAddedAndDeletedThenIndexUpdated() {
+		ObservableList<Exercise> list = FXCollections.observableArrayList();
+		Exercise squat = new Exercise("Squat");
+		list.add(squat);
+
+		SearchIndex<Exercise> index = new SearchIndex<Exercise>(list);
+		assertEquals(Arrays.asList(squat), index.search("squ"));
+
+		Exercise frontSquat = new Exercise("Front Squat");
+		list.add(frontSquat);
+		assertEquals(Arrays.asList(squat, frontSquat), index.search("squat"));
+
+		list.remove(squat);
+		assertEquals(Arrays.asList(frontSquat), index.search("squat"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void givenManyFoodsWhenSearchedThenSameAsScanningNames() {
+		String[] words = { "milk", "rice", "whole", "white", "brown", "protein", "bar", "oat", "chicken", "beef" };
+		SearchIndex<Food> index = new SearchIndex<Food>();
+		Food[] foods = new Food[2000];
+
+		for (int i = 0; i < foods.length; i++) {
+			foods[i] = food(words[i % 10] + " " + words[(i / 10) % 10] + " " + i);
+			index.add(foods[i]);
+		}
+		for (int i = 0; i < foods.length; i += 3) {
+			index.remove(foods[i]);
+		}
+
+		for (String query : Arrays.asList("ilk ri", "oat", "n 1", "beef bar 9", "e")) {
+			List<Food> results = index.search(query);
+
+			int expected = 0;
+			for (int i = 0; i < foods.length; i++) {
+				if (i % 3 != 0 && foods[i].getName().toLowerCase().contains(query)) {
+					expected++;
+					assertTrue(results.contains(foods[i]));
+				}
+			}
+			assertEquals(expected, results.size());
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import model.Exercise;
+import model.Food;
+import model.SessionStore;
+import model.TrackerEngine;
+import model.User;
+
+public class SessionStoreTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final LocalDate DATE = LocalDate.parse("2018-06-01");
+
+	private static final Food MILK = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70 });
+
+	@Test
+	public void givenTwoUsersWhenOpenThenSessionsAreSeparate() throws Exception {
+		SessionStore store = new SessionStore(folder.getRoot().toPath());
+
+		TrackerEngine first = store.open(new User(1, "a@b.com", "x"));
+		TrackerEngine second = store.open(new User(2, "c@d.com", "y"));
+		first.addFood(DATE, MILK, 2);
+
+		assertNotSame(first, second);
+		assertNotSame(first.getPerson(), second.getPerson());
+		assertSame(first, store.open(new User(1, "a@b.com", "x")));
+		assertTrue(second.getDay(DATE).getFoods().isEmpty());
+		assertEquals(2, store.size());
+
+		store.closeAll();
+	}
+
+	@Test
+	public void givenClosedSessionWhenOpenThenSessionRestored() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		SessionStore store = new SessionStore(directory);
+		User user = new User(7, "a@b.com", "x");
+
+		TrackerEngine engine = store.open(user);
+		engine.addFood(DATE, MILK, 2);
+		engine.addExercise(DATE, new Exercise("Deadlift", new Number[] { 5, 3, 100.0, 150.0 }));
+		engine.addCustomFood(new Food("Porridge", new double[] { 100, 12, 3, 1.5 }));
+		engine.addCustomExercise(new Exercise("Sled Push", new Number[] { 10, 4, 80.0, 90.5 }));
+		engine.getPerson().setWeight(82.5);
+		engine.getPerson().setGender("Female");
+
+		assertTrue(store.close(7));
+		assertNull(store.find(7));
+
+		TrackerEngine restored = new SessionStore(directory).open(user);
+
+		assertNotSame(engine, restored);
+		assertEquals(2, restored.getDay(DATE).getFoods().get(0).getQuantity(), 0.001);
+		assertEquals(1, restored.getLoggedExercises().size());
+		assertEquals("Porridge (custom) ", restored.getFoods().getCustomFoods().get(0).getName());
+		assertEquals(12, restored.getFoods().getCustomFoods().get(0).getOgCarbohydrates(), 0.001);
+		assertEquals(90.5, restored.getCustomExercises().get(0).getCaloriesBurned(), 0.001);
+		assertEquals(4, restored.getCustomExercises().get(0).getSets());
+		assertEquals(82.5, restored.getPerson().getWeight(), 0.001);
+		assertEquals("Female", restored.getPerson().getGender());
+		assertEquals(engine.getPerson().getGoalCalories(), restored.getPerson().getGoalCalories(), 0.001);
+	}
+
+	@Test
+	public void givenIdleSessionWhenEvictIdleThenSavedAndRemoved() throws Exception {
+		SessionStore store = new SessionStore(folder.getRoot().toPath(), 4);
+		User user = new User(3, "a@b.com", "x");
+
+		store.open(user).addFood(DATE, MILK, 1);
+		store.release(3);
+		Thread.sleep(20);
+
+		assertEquals(0, store.evictIdle(60000));
+		assertEquals(1, store.evictIdle(10));
+		assertEquals(0, store.size());
+
+		assertEquals(1, store.open(user).getDay(DATE).getFoods().size());
+		store.closeAll();
+	}
+
+	@Test
+	public void givenManyThreadsWhenOpenSameUsersThenOneSessionEach() throws Exception {
+		SessionStore store = new SessionStore(folder.getRoot().toPath(), 8);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<TrackerEngine>> opened = new ArrayList<Future<TrackerEngine>>();
+			for (int i = 0; i < 200; i++) {
+				User user = new User(i % 20, "user" + (i % 20), "x");
+				opened.add(pool.submit((Callable<TrackerEngine>) () -> store.open(user)));
+			}
+
+			for (int i = 0; i < opened.size(); i++) {
+				assertSame(store.find(i % 20), opened.get(i).get());
+			}
+			assertEquals(20, store.size());
+		} finally {
+			pool.shutdown();
+			store.closeAll();
+		}
+	}
+
+	@Test
+	public void givenHeldSessionWhenEvictIdleThenKept() throws Exception {
+		SessionStore store = new SessionStore(folder.getRoot().toPath(), 4);
+		User user = new User(4, "a@b.com", "x");
+
+		// Opened twice (i.e. two windows), released once
+		TrackerEngine engine = store.open(user);
+		store.open(user);
+		store.release(4);
+		Thread.sleep(20);
+
+		assertEquals(0, store.evictIdle(10));
+		assertSame(engine, store.find(4));
+
+		store.release(4);
+		Thread.sleep(20);
+		assertEquals(1, store.evictIdle(10));
+		store.closeAll();
+	}
+
+	@Test
+	public void givenScheduledEvictionWhenSessionReleasedThenEvictedAndReloaded() throws Exception {
+		SessionStore store = new SessionStore(folder.getRoot().toPath(), 4);
+		User user = new User(5, "a@b.com", "x");
+
+		TrackerEngine engine = store.open(user);
+		engine.addFood(DATE, MILK, 3);
+		store.scheduleEviction(10, 10);
+		store.release(5);
+
+		for (int i = 0; i < 500 && store.size() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, store.size());
+
+		TrackerEngine reloaded = store.open(user);
+		assertNotSame(engine, reloaded);
+		assertEquals(3, reloaded.getDay(DATE).getFoods().get(0).getQuantity(), 0.001);
+		store.closeAll();
+	}
+
+	@Test
+	public void givenEmailsWhenUserIdThenStableIdPerEmail() throws Exception {
+		Path directory = folder.getRoot().toPath();
+		SessionStore store = new SessionStore(directory);
+
+		int first = store.userId("a@b.com");
+		int second = store.userId("c@d.com");
+
+		assertNotEquals(first, second);
+		assertEquals(first, store.userId(" A@B.com "));
+		assertEquals(second, new SessionStore(directory).userId("c@d.com"));
+	}
+}
@@ -0,0 +1,182 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import model.Day;
+import model.EpochCalendar;
+import model.ExerciseChart;
+import model.Exercise;
+import model.ExerciseChartData;
+import model.Food;
+import model.FoodCatalog;
+import model.FoodImporter;
+import model.HistoryFile;
+import model.TrackerEngine;
+
+public class TrackerEngineTest {
+
+	@Rule
+	public ExpectedException exception = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static final LocalDate DATE = LocalDate.parse("2018-03-14");
+
+	@Test
+	public void givenSameFoodTwiceWhenAddFoodThenIncreaseQuantity() {
+		TrackerEngine engine = new TrackerEngine();
+		Food milk = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70 });
+
+		Food first = engine.addFood(DATE, milk, 1);
+		Food second = engine.addFood(DATE, milk, 2);
+
+		Day day = engine.getDay(DATE);
+		assertSame(first, second);
+		assertEquals(1, day.getFoods().size());
+		assertEquals(3, first.getQuantity(), 0.001);
+		assertEquals(day.getTotalFoodCalories(), engine.getTotals().sum(HistoryFile.CALORIES, DATE, DATE), 0.001);
+	}
+
+	@Test
+	public void givenDateWhenPeriodThenReturnWeekMonthAndYearBounds() {
+		TrackerEngine engine = new TrackerEngine();
+		engine.setCalendar(EpochCalendar.of(Locale.UK));
+
+		assertEquals(LocalDate.parse("2018-03-12"), engine.periodStart(DATE, TrackerEngine.WEEKLY));
+		assertEquals(LocalDate.parse("2018-03-18"), engine.periodEnd(DATE, TrackerEngine.WEEKLY));
+		assertEquals(LocalDate.parse("2018-03-01"), engine.periodStart(DATE, TrackerEngine.MONTHLY));
+		assertEquals(LocalDate.parse("2018-03-31"), engine.periodEnd(DATE, TrackerEngine.MONTHLY));
+		assertEquals(LocalDate.parse("2018-01-01"), engine.periodStart(DATE, TrackerEngine.YEARLY));
+		assertEquals(LocalDate.parse("2018-12-31"), engine.periodEnd(DATE, TrackerEngine.YEARLY));
+	}
+
+	@Test
+	public void givenExercisesWhenLoadExerciseChartThenGroupWeightsByName() {
+		TrackerEngine engine = new TrackerEngine();
+		engine.setCalendar(EpochCalendar.of(Locale.UK));
+		engine.addExercise(LocalDate.parse("2018-03-12"), new Exercise("Deadlift", new Number[] { 5, 5, 40.0, 150.0 }));
+		engine.addExercise(LocalDate.parse("2018-03-13"), new Exercise("Deadlift", new Number[] { 5, 5, 45.0, 150.0 }));
+		engine.addExercise(LocalDate.parse("2018-03-19"), new Exercise("Deadlift", new Number[] { 5, 5, 50.0, 150.0 }));
+
+		ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+		ArrayList<ExerciseChartData> data = new ArrayList<ExerciseChartData>();
+		engine.loadExerciseChart(DATE, TrackerEngine.WEEKLY, dates, data);
+
+		assertEquals(2, dates.size());
+		assertEquals(1, data.size());
+		assertEquals(2, data.get(0).size());
+		assertEquals(45, data.get(0).getValue(1), 0.001);
+		assertEquals(LocalDate.parse("2018-03-13"), data.get(0).getDate(1));
+		assertEquals(1, engine.getLoggedExercises().size());
+	}
+
+	@Test
+	public void givenCopiedChartWhenEngineChangesThenBuildsCopiedPoints() {
+		TrackerEngine engine = new TrackerEngine();
+		engine.setCalendar(EpochCalendar.of(Locale.UK));
+		Exercise entry = engine.addExercise(DATE, new Exercise("Deadlift", new Number[] { 5, 5, 40.0, 150.0 }));
+
+		ExerciseChart chart = engine.exerciseChart(DATE, TrackerEngine.WEEKLY, TrackerEngine.DEFAULT_BUDGET);
+		engine.getDay(DATE).setExercise(entry, new Exercise("Deadlift", new Number[] { 5, 5, 60.0, 150.0 }));
+		engine.addExercise(DATE.plusDays(1), new Exercise("Squat", new Number[] { 5, 5, 80.0, 150.0 }));
+
+		chart.build();
+		assertEquals(1, chart.getDates().size());
+		assertEquals(1, chart.getLines().size());
+		assertEquals(40, chart.getLines().get(0).getValue(0), 0.001);
+	}
+
+	@Test
+	public void givenLoggedDaysWhenDailyTotalsThenEmptyDaysAreZero() {
+		TrackerEngine engine = new TrackerEngine();
+		engine.addFood(DATE, new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }), 1);
+		engine.addFood(DATE.plusDays(2), new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }), 2);
+
+		double[] totals = new double[4];
+		engine.dailyTotals(HistoryFile.CALORIES, DATE.minusDays(1), totals);
+
+		double calories = engine.getDays().find(DATE).getTotalFoodCalories();
+		assertArrayEquals(new double[] { 0, calories, 0, 2 * calories }, totals, 0.001);
+		assertEquals(2, engine.getDays().size());
+	}
+
+	@Test
+	public void givenUnknownColumnWhenDailyTotalsThenException() {
+		exception.expect(IllegalArgumentException.class);
+		exception.expectMessage("Unknown column: 7");
+		new TrackerEngine().dailyTotals(7, DATE, new double[7]);
+	}
+
+	@Test
+	public void givenCustomFoodWhenImportedFoodsSetThenCustomFoodKept() throws Exception {
+		TrackerEngine engine = new TrackerEngine();
+		Food custom = engine.addCustomFood(new Food("Porridge", new double[] { 100, 12, 3, 2 }));
+
+		Path file = folder.getRoot().toPath().resolve("foods.csv");
+		Files.write(file, Arrays.asList("name,carbohydrates,proteins,fats", "Whole Milk,4.7,3.5,3.7"),
+				StandardCharsets.UTF_8);
+
+		FoodImporter importer = new FoodImporter(1);
+		FoodCatalog imported = TrackerEngine.readFoods(file, folder.getRoot().toPath().resolve("rejects.csv"), importer);
+
+		// Reading leaves the engine alone
+		assertEquals(1, importer.getImported());
+		assertFalse(engine.isFoodsLoaded());
+		assertEquals(1, engine.getFoods().size());
+
+		engine.setImportedFoods(imported);
+
+		assertTrue(engine.isFoodsLoaded());
+		assertSame(imported, engine.getFoods());
+		assertEquals("Whole Milk", engine.getFoods().get(0).getName());
+		assertSame(custom, engine.getFoods().get(1));
+	}
+
+	@Test
+	public void givenCustomExerciseOnDayWhenReopenedThenStillCustom() throws Exception {
+		Path directory = folder.getRoot().toPath().resolve("session");
+		TrackerEngine engine = new TrackerEngine();
+		engine.open(directory);
+
+		// Same order as the exercises tab: marked custom, added to the day, then to the catalog
+		Exercise custom = new Exercise("Cable Fly", new Number[] { 12, 3, 15.0, 60.0 });
+		custom.setCustom(true);
+		engine.getDay(DATE).addExercise(custom);
+		engine.logExercise(custom);
+		engine.addCustomExercise(custom);
+		engine.close();
+
+		TrackerEngine reopened = new TrackerEngine();
+		reopened.open(directory);
+		reopened.close();
+
+		assertTrue(reopened.getDays().find(DATE).getExercises().get(0).getCustom());
+		assertEquals("Cable Fly", reopened.getCustomExercises().get(0).getName());
+	}
+
+	@Test
+	public void givenDaysWhenResetThenClearDaysAndTotals() throws Exception {
+		TrackerEngine engine = new TrackerEngine();
+		engine.addFood(DATE, new Food("White Rice", new double[] { 100, 78.90, 6.70, 0.70 }), 1);
+
+		engine.reset();
+
+		assertEquals(0, engine.getDays().size());
+		assertEquals(0, engine.getTotals().count(DATE, DATE));
+		assertTrue(engine.getLoggedExercises().isEmpty());
+	}
+}
@@ -0,0 +1,76 @@
+package unit;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import model.Day;
+import model.Food;
+
+public class TrackerEventsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private List<RecordedEvent> record(String event, Runnable work) throws Exception {
+		Path file = folder.getRoot().toPath().resolve("recording.jfr");
+
+		try (Recording recording = new Recording()) {
+			recording.enable(event);
+			recording.start();
+			work.run();
+			recording.stop();
+			recording.dump(file);
+		}
+
+		// Other events enabled by default are recorded too
+		List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+		for (RecordedEvent recorded : RecordingFile.readAllEvents(file)) {
+			if (recorded.getEventType().getName().equals(event))
+				events.add(recorded);
+		}
+		return events;
+	}
+
+	@Test
+	public void givenRecordingWhenFoodsChangedThenDayChangesRecorded() throws Exception {
+		Day day = new Day(LocalDate.of(2018, 3, 4));
+		Food milk = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70, 1 });
+
+		List<RecordedEvent> events = record("caloriestracker.DayChange", () -> {
+			day.addFood(milk);
+			day.setQuantity(milk, 2);
+			day.deleteFood(milk);
+		});
+
+		assertEquals(3, events.size());
+		assertEquals("addFood", events.get(0).getString("action"));
+		assertEquals("2018-03-04", events.get(0).getString("date"));
+		assertEquals(1, events.get(0).getInt("foods"));
+		assertEquals("setQuantity", events.get(1).getString("action"));
+		assertEquals(milk.getCalories(), events.get(1).getDouble("calories"), 0.0001);
+		assertEquals("deleteFood", events.get(2).getString("action"));
+		assertEquals(0, events.get(2).getInt("foods"));
+	}
+
+	@Test
+	public void givenRecordingWhenQuantitySetThenFoodQuantityRecorded() throws Exception {
+		Food milk = new Food("Whole Milk", new double[] { 100, 4.70, 3.50, 3.70, 1 });
+
+		List<RecordedEvent> events = record("caloriestracker.FoodQuantity", () -> milk.setQuantity(3));
+
+		assertEquals(1, events.size());
+		assertEquals("Whole Milk", events.get(0).getString("food"));
+		assertEquals(3, events.get(0).getDouble("quantity"), 0);
+	}
+}